@@ -0,0 +1,83 @@
+package com.buzzlink.benchmark;
+
+import com.buzzlink.entity.Channel;
+import com.buzzlink.entity.Message;
+import com.buzzlink.entity.Notification;
+import com.buzzlink.entity.User;
+import com.buzzlink.entity.Workspace;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity and mapper fixtures shared by the benchmarks
+ */
+public final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    public static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setClerkId("user_" + id);
+        user.setDisplayName("Benchmark User " + id);
+        user.setEmail("user" + id + "@example.com");
+        user.setAvatarUrl("https://i.pravatar.cc/150?u=" + id);
+        user.setIsAdmin(false);
+        user.setIsBanned(false);
+        user.setCreatedAt(LocalDateTime.now());
+        return user;
+    }
+
+    public static Channel channel(long id) {
+        Workspace workspace = new Workspace("Benchmark Workspace", "benchmark", "Benchmarks");
+        workspace.setId(1L);
+
+        Channel channel = new Channel();
+        channel.setId(id);
+        channel.setName("channel-" + id);
+        channel.setDescription("Benchmark channel");
+        channel.setWorkspace(workspace);
+        channel.setCreatedAt(LocalDateTime.now());
+        return channel;
+    }
+
+    public static Message message(long id, Channel channel, User sender, Message parent) {
+        Message message = new Message();
+        message.setId(id);
+        message.setChannel(channel);
+        message.setSender(sender);
+        message.setContent("Hey team, the deploy for build #" + id + " is green, shipping it now.");
+        message.setType(Message.MessageType.TEXT);
+        message.setParentMessage(parent);
+        message.setReplyCount(0);
+        message.setCreatedAt(LocalDateTime.now());
+        return message;
+    }
+
+    public static Notification notification(long id, User recipient, User actor) {
+        Notification notification = new Notification();
+        notification.setId(id);
+        notification.setUser(recipient);
+        notification.setType(Notification.NotificationType.CHANNEL_MESSAGE);
+        notification.setMessage(actor.getDisplayName() + " posted in a channel");
+        notification.setActor(actor);
+        notification.setChannelId(1L);
+        notification.setMessageId(id);
+        notification.setIsRead(false);
+        notification.setCreatedAt(LocalDateTime.now());
+        return notification;
+    }
+
+    /**
+     * Mirrors the Boot-configured mapper used by the message broker
+     */
+    public static ObjectMapper objectMapper() {
+        return new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+}
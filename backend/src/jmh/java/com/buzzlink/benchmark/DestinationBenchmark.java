@@ -0,0 +1,57 @@
+package com.buzzlink.benchmark;
+
+import com.buzzlink.websocket.WebSocketController;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Broker destination strings built on every send, typing and presence event
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class DestinationBenchmark {
+
+    private Long channelId;
+    private String clerkId;
+
+    @Setup
+    public void setUp() {
+        // Outside the Long cache so boxing behaves like real ids
+        channelId = 123_456L;
+        clerkId = "user_363I3otryN1G1UxNwTVRFaBNcHS";
+    }
+
+    @Benchmark
+    public String channelTopic() {
+        return WebSocketController.channelTopic(channelId);
+    }
+
+    @Benchmark
+    public String typingTopic() {
+        return WebSocketController.typingTopic(channelId);
+    }
+
+    @Benchmark
+    public String presenceTopic() {
+        return WebSocketController.presenceTopic(channelId);
+    }
+
+    @Benchmark
+    public String dmTopic() {
+        return WebSocketController.dmTopic(clerkId);
+    }
+}
@@ -0,0 +1,58 @@
+package com.buzzlink.benchmark;
+
+import com.buzzlink.dto.MessageDTO;
+import com.buzzlink.dto.UserDTO;
+import com.buzzlink.entity.Channel;
+import com.buzzlink.entity.Message;
+import com.buzzlink.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping on the message send and history paths
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DtoMappingBenchmark {
+
+    private User user;
+    private Message message;
+    private Message reply;
+
+    @Setup
+    public void setUp() {
+        user = BenchmarkFixtures.user(42);
+        Channel channel = BenchmarkFixtures.channel(7);
+        message = BenchmarkFixtures.message(1000, channel, user, null);
+        reply = BenchmarkFixtures.message(1001, channel, user, message);
+    }
+
+    @Benchmark
+    public UserDTO userFromEntity() {
+        return UserDTO.fromEntity(user);
+    }
+
+    @Benchmark
+    public MessageDTO messageFromEntity() {
+        return MessageDTO.fromEntity(message, 3L);
+    }
+
+    @Benchmark
+    public MessageDTO threadReplyFromEntity() {
+        return MessageDTO.fromEntity(reply, 0L);
+    }
+}
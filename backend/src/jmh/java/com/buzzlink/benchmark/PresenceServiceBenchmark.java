@@ -0,0 +1,79 @@
+package com.buzzlink.benchmark;
+
+import com.buzzlink.service.PresenceService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PresenceService under contention: writers joining/leaving while readers
+ * snapshot the online set, as happens on every presence broadcast
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Group)
+public class PresenceServiceBenchmark {
+
+    @Param({"16"})
+    public int channels;
+
+    @Param({"100", "2000"})
+    public int usersPerChannel;
+
+    private PresenceService presenceService;
+    private String[] clerkIds;
+
+    @Setup
+    public void setUp() {
+        presenceService = new PresenceService();
+        clerkIds = new String[usersPerChannel];
+        for (int i = 0; i < usersPerChannel; i++) {
+            clerkIds[i] = "user_" + i;
+        }
+        for (long channel = 0; channel < channels; channel++) {
+            for (String clerkId : clerkIds) {
+                presenceService.userJoined(channel, clerkId);
+            }
+        }
+    }
+
+    @Benchmark
+    @Group("churn")
+    @GroupThreads(2)
+    public void join() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        presenceService.userJoined((long) random.nextInt(channels), clerkIds[random.nextInt(usersPerChannel)]);
+    }
+
+    @Benchmark
+    @Group("churn")
+    @GroupThreads(2)
+    public void leave() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        presenceService.userLeft((long) random.nextInt(channels), clerkIds[random.nextInt(usersPerChannel)]);
+    }
+
+    @Benchmark
+    @Group("churn")
+    @GroupThreads(4)
+    public Set<String> getOnlineUsers() {
+        return presenceService.getOnlineUsers((long) ThreadLocalRandom.current().nextInt(channels));
+    }
+}
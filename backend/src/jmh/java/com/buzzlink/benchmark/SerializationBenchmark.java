@@ -0,0 +1,82 @@
+package com.buzzlink.benchmark;
+
+import com.buzzlink.dto.NotificationDTO;
+import com.buzzlink.dto.UserDTO;
+import com.buzzlink.entity.User;
+import com.buzzlink.websocket.dto.ChatMessage;
+import com.buzzlink.websocket.dto.PresenceEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the payloads pushed over STOMP
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    /**
+     * Online users in the presence event; presence payloads grow with channel size
+     */
+    @Param({"10", "1000"})
+    public int onlineUsers;
+
+    private ObjectMapper objectMapper;
+    private ChatMessage chatMessage;
+    private PresenceEvent presenceEvent;
+    private NotificationDTO notification;
+
+    @Setup
+    public void setUp() {
+        objectMapper = BenchmarkFixtures.objectMapper();
+
+        User sender = BenchmarkFixtures.user(42);
+        chatMessage = new ChatMessage(1000L, 7L, UserDTO.fromEntity(sender),
+                "Hey team, the deploy is green, shipping it now.", "TEXT",
+                LocalDateTime.now(), 3L, null, 0);
+
+        Set<String> online = new HashSet<>();
+        for (int i = 0; i < onlineUsers; i++) {
+            online.add("user_" + i);
+        }
+        presenceEvent = new PresenceEvent(7L, online, online.size());
+
+        notification = NotificationDTO.from(
+                BenchmarkFixtures.notification(5000, BenchmarkFixtures.user(1), sender));
+    }
+
+    @Benchmark
+    public byte[] chatMessage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(chatMessage);
+    }
+
+    @Benchmark
+    public byte[] presenceEvent() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(presenceEvent);
+    }
+
+    @Benchmark
+    public byte[] notification() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(notification);
+    }
+}
@@ -0,0 +1,101 @@
+package com.buzzlink.benchmark;
+
+import com.buzzlink.search.UserSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * User search over 1M users: the in-memory index against the linear
+ * LIKE '%q%' scan it replaces, for DM-picker keystrokes of growing length
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class UserSearchBenchmark {
+
+    private static final String[] FIRST_NAMES = {
+            "James", "Mary", "John", "Patricia", "Robert", "Jennifer", "Michael", "Linda", "David", "Elizabeth",
+            "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Charles", "Karen",
+            "Wei", "Priya", "Mohammed", "Olga", "Hiroshi", "Fatima", "Carlos", "Ana", "Kwame", "Ingrid"
+    };
+    private static final String[] LAST_NAMES = {
+            "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+            "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore", "Jackson", "Martin",
+            "Chen", "Patel", "Khan", "Ivanova", "Tanaka", "Okafor", "Silva", "Nielsen", "Mensah", "Larsen"
+    };
+
+    @Param({"1000000"})
+    public int users;
+
+    @Param({"1000"})
+    public int workspaces;
+
+    @Param({"jo", "mar", "martin", "son4"})
+    public String query;
+
+    private UserSearchIndex index;
+    private String[] names;
+    private String[] emails;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        index = new UserSearchIndex();
+        names = new String[users];
+        emails = new String[users];
+        for (int i = 0; i < users; i++) {
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            names[i] = first + " " + last;
+            emails[i] = (first + "." + last + i + "@example.com").toLowerCase(Locale.ROOT);
+            index.load(i, names[i], emails[i]);
+            // Two or three memberships per user
+            for (int m = 2 + random.nextInt(2); m > 0; m--) {
+                index.addMembership(i, random.nextInt(workspaces));
+            }
+        }
+    }
+
+    @Benchmark
+    public List<UserSearchIndex.Hit> indexTop20() {
+        return index.search(query, null, 20);
+    }
+
+    @Benchmark
+    public List<UserSearchIndex.Hit> indexTop20InWorkspace() {
+        return index.search(query, 7L, 20);
+    }
+
+    /**
+     * What LIKE '%q%' on both columns does, minus the I/O: check every row, stop at 20
+     */
+    @Benchmark
+    public List<Integer> linearScanTop20() {
+        String q = query.toLowerCase(Locale.ROOT);
+        List<Integer> hits = new ArrayList<>(20);
+        for (int i = 0; i < users && hits.size() < 20; i++) {
+            if (names[i].toLowerCase(Locale.ROOT).contains(q) || emails[i].contains(q)) {
+                hits.add(i);
+            }
+        }
+        return hits;
+    }
+}
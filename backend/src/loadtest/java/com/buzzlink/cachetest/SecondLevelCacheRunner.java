@@ -0,0 +1,113 @@
+package com.buzzlink.cachetest;
+
+import com.buzzlink.BuzzLinkApplication;
+import com.buzzlink.config.CacheRegions;
+import com.buzzlink.entity.Channel;
+import com.buzzlink.entity.Message;
+import com.buzzlink.entity.User;
+import com.buzzlink.repository.ChannelRepository;
+import com.buzzlink.repository.UserRepository;
+import com.buzzlink.service.MessageService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Measures the SQL saved by the second-level cache on the message send path
+ *
+ * Boots the application on H2 (dev profile) with background flushes pushed
+ * out of the way, then sends cachetest.messages messages twice: once with
+ * every cache region cleared before each send (what every send cost before
+ * the cache) and once warm. Prints JDBC statements per send for both runs and
+ * the region hit ratios, and exits non-zero unless the warm run issues fewer
+ * statements per send.
+ *
+ * Usage: ./gradlew cacheTest -Pcachetest.messages=500
+ */
+public class SecondLevelCacheRunner {
+
+    public static void main(String[] args) throws Exception {
+        SpringApplication app = new SpringApplication(BuzzLinkApplication.class);
+        app.setAdditionalProfiles("dev");
+        ConfigurableApplicationContext context = app.run(withHarnessDefaults(args));
+        int exitCode = 0;
+        try {
+            run(context);
+        } catch (Exception e) {
+            e.printStackTrace();
+            exitCode = 1;
+        } finally {
+            context.close();
+        }
+        System.exit(exitCode);
+    }
+
+    /**
+     * Quiet logging and no scheduled flushes during the measurement unless the caller overrides them
+     */
+    private static String[] withHarnessDefaults(String[] args) {
+        Map<String, String> merged = new LinkedHashMap<>();
+        merged.put("server.port", "0");
+        merged.put("spring.jpa.show-sql", "false");
+        merged.put("logging.level.com.buzzlink", "WARN");
+        merged.put("logging.level.org.hibernate.SQL", "WARN");
+        merged.put("analytics.rollup.flush-interval-ms", "600000");
+        merged.put("analytics.hll.flush-interval-ms", "600000");
+        merged.put("email.dispatch.poll-interval-ms", "600000");
+        merged.put("email.dispatch.depth-refresh-ms", "600000");
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (arg.startsWith("--") && eq > 2) {
+                merged.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+        return merged.entrySet().stream()
+                .map(e -> "--" + e.getKey() + "=" + e.getValue())
+                .toArray(String[]::new);
+    }
+
+    private static void run(ConfigurableApplicationContext context) {
+        int messages = context.getEnvironment().getProperty("cachetest.messages", Integer.class, 200);
+
+        MessageService messageService = context.getBean(MessageService.class);
+        SessionFactory sessionFactory = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class);
+        Statistics statistics = sessionFactory.getStatistics();
+        Channel channel = context.getBean(ChannelRepository.class).findAll().get(0);
+        User sender = context.getBean(UserRepository.class).findAll().get(0);
+        Runnable send = () -> messageService.createMessage(channel.getId(), sender.getClerkId(),
+                "Second-level cache test", Message.MessageType.TEXT);
+
+        send.run();
+        double cold = statementsPerSend(statistics, messages, () -> {
+            sessionFactory.getCache().evictAllRegions();
+            send.run();
+        });
+        double warm = statementsPerSend(statistics, messages, send);
+        System.out.printf("✓ %d sends: %.2f statements per send with cleared caches, %.2f warm%n", messages, cold, warm);
+
+        MeterRegistry registry = context.getBean(MeterRegistry.class);
+        for (String region : CacheRegions.ALL) {
+            Gauge ratio = registry.find("buzzlink.hibernate.cache.hit.ratio").tag("region", region).gauge();
+            System.out.printf("  %-16s hit ratio %.3f%n", region, ratio == null ? Double.NaN : ratio.value());
+        }
+
+        if (warm >= cold) {
+            throw new IllegalStateException("The second-level cache did not reduce statements on the send path");
+        }
+    }
+
+    private static double statementsPerSend(Statistics statistics, int messages, Runnable send) {
+        long before = statistics.getPrepareStatementCount();
+        for (int i = 0; i < messages; i++) {
+            send.run();
+        }
+        return (double) (statistics.getPrepareStatementCount() - before) / messages;
+    }
+}
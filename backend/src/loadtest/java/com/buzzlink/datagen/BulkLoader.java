@@ -0,0 +1,38 @@
+package com.buzzlink.datagen;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Streams rows into one table
+ *
+ * Rows are buffered and written in batches; close() flushes and commits.
+ */
+public interface BulkLoader extends AutoCloseable {
+
+    void add(Object... values) throws SQLException;
+
+    long rowCount();
+
+    @Override
+    void close() throws SQLException;
+
+    /**
+     * Pick COPY on PostgreSQL and batched INSERTs elsewhere, unless forced by mode ("copy" or "batch")
+     */
+    static BulkLoader open(Connection connection, String mode, int batchSize, String table, String... columns)
+            throws SQLException {
+        boolean postgres = connection.getMetaData().getDatabaseProductName().toLowerCase().contains("postgres");
+        boolean useCopy = switch (mode) {
+            case "copy" -> true;
+            case "batch" -> false;
+            default -> postgres;
+        };
+        if (useCopy && !postgres) {
+            throw new IllegalArgumentException("COPY loading is only supported on PostgreSQL");
+        }
+        return useCopy
+            ? new PgCopyLoader(connection, batchSize, table, columns)
+            : new JdbcBatchLoader(connection, batchSize, table, columns);
+    }
+}
@@ -0,0 +1,441 @@
+package com.buzzlink.datagen;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates a reproducible, skewed dataset and bulk-loads it table by table
+ *
+ * Activity follows Zipf distributions: a few workspaces hold most members,
+ * a few channels get most messages and a few members of each workspace send
+ * most of its messages. Ids are assigned explicitly above the current max id
+ * of each table, so foreign keys never need to be read back, and identity
+ * columns are moved past the loaded range at the end.
+ */
+public class DatasetGenerator {
+
+    private static final String[] FIRST_NAMES = {
+        "Sarah", "Michael", "Emily", "James", "Jessica", "David", "Amanda", "Christopher", "Lisa", "Robert",
+        "Jennifer", "Daniel", "Maria", "Kevin", "Priya", "Ahmed", "Yuki", "Olga", "Carlos", "Fatima",
+        "Liam", "Noah", "Olivia", "Emma", "Ava", "Sophia", "Mateo", "Chen", "Aisha", "Lucas"
+    };
+
+    private static final String[] LAST_NAMES = {
+        "Johnson", "Chen", "Rodriguez", "Wilson", "Martinez", "Brown", "Taylor", "Lee", "Anderson", "Garcia",
+        "Kim", "Patel", "Nguyen", "Smith", "Kowalski", "Haddad", "Tanaka", "Ivanova", "Silva", "Okafor",
+        "Müller", "Rossi", "Dubois", "Novak", "Larsen", "Singh", "Cohen", "Moreau", "Santos", "Walker"
+    };
+
+    private static final String[] PHRASES = {
+        "Can someone review my PR?",
+        "The deploy is green, shipping it now.",
+        "Standup in 5 minutes",
+        "Has anyone seen the latest metrics dashboard?",
+        "I pushed a fix for the flaky test.",
+        "Lunch plans?",
+        "Let's sync on this tomorrow morning.",
+        "Customer reported a bug in the checkout flow.",
+        "Great work on the release, everyone!",
+        "Who owns the notification service?"
+    };
+
+    private static final String[] NOTIFICATION_TYPES = {
+        "CHANNEL_MESSAGE", "CHANNEL_MESSAGE", "CHANNEL_MESSAGE", "DIRECT_MESSAGE", "THREAD_REPLY", "REACTION"
+    };
+
+    private final DataSource dataSource;
+    private final DatasetSpec spec;
+    private final SplittableRandom random;
+    private final LocalDateTime start;
+    private final long spanSeconds;
+
+    private long userBase;
+    private long workspaceBase;
+    private long channelBase;
+    private long memberBase;
+    private long messageBase;
+    private long reactionBase;
+    private long directMessageBase;
+    private long notificationBase;
+
+    // Workspace index -> member user indexes, and each user's primary workspace
+    private int[][] workspaceMembers;
+    private int[] primaryWorkspace;
+    private ZipfSampler[] memberSamplers;
+    // Message index -> channel index, needed when generating reactions and notifications
+    private int[] messageChannel;
+
+    public DatasetGenerator(DataSource dataSource, DatasetSpec spec) {
+        this.dataSource = dataSource;
+        this.spec = spec;
+        this.random = new SplittableRandom(spec.seed());
+        this.spanSeconds = TimeUnit.DAYS.toSeconds(spec.days());
+        this.start = LocalDateTime.now().minusDays(spec.days()).withNano(0);
+    }
+
+    public void generate() throws SQLException {
+        if (spec.messages() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("At most " + Integer.MAX_VALUE + " messages per run");
+        }
+        readIdBases();
+
+        timed("users", this::loadUsers);
+        timed("workspaces and channels", this::loadWorkspacesAndChannels);
+        timed("workspace members", this::loadMemberships);
+        timed("messages", this::loadMessages);
+        timed("reactions", this::loadReactions);
+        timed("direct messages", this::loadDirectMessages);
+        timed("notifications", this::loadNotifications);
+
+        resetIdentities();
+    }
+
+    private void loadUsers() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             BulkLoader users = open(connection, "users",
+                 "id", "clerk_id", "display_name", "avatar_url", "is_admin", "is_banned", "email",
+                 "created_at", "updated_at")) {
+            for (int i = 0; i < spec.users(); i++) {
+                long id = userId(i);
+                String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+                String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+                LocalDateTime createdAt = at(random.nextLong(spanSeconds));
+                users.add(id, "gen_user_" + id, first + " " + last,
+                    random.nextInt(10) == 0 ? "https://i.pravatar.cc/150?u=" + id : null,
+                    random.nextInt(1000) == 0,
+                    random.nextInt(200) == 0,
+                    (first + "." + last + id + "@example.com").toLowerCase(),
+                    createdAt, createdAt);
+            }
+        }
+    }
+
+    private void loadWorkspacesAndChannels() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            try (BulkLoader workspaces = open(connection, "workspaces",
+                    "id", "name", "description", "slug", "created_at", "updated_at")) {
+                for (int w = 0; w < spec.workspaces(); w++) {
+                    long id = workspaceId(w);
+                    workspaces.add(id, "Generated Workspace " + id, "Synthetic workspace " + id,
+                        "gen-" + id, start, start);
+                }
+            }
+            try (BulkLoader channels = open(connection, "channels",
+                    "id", "name", "description", "workspace_id", "created_at")) {
+                for (int c = 0; c < spec.channels(); c++) {
+                    int w = c / spec.channelsPerWorkspace();
+                    int local = c % spec.channelsPerWorkspace();
+                    channels.add(channelId(c), local == 0 ? "general" : "channel-" + local,
+                        "Synthetic channel " + local, workspaceId(w), start);
+                }
+            }
+        }
+    }
+
+    /**
+     * Every user joins one Zipf-chosen workspace, a fifth of them join a second one
+     */
+    private void loadMemberships() throws SQLException {
+        ZipfSampler workspaceZipf = new ZipfSampler(spec.workspaces(), spec.zipfExponent());
+        primaryWorkspace = new int[spec.users()];
+        int[] secondaryWorkspace = new int[spec.users()];
+        int[] sizes = new int[spec.workspaces()];
+
+        for (int u = 0; u < spec.users(); u++) {
+            int primary = workspaceZipf.sampleIndex(random);
+            int secondary = random.nextInt(5) == 0 ? workspaceZipf.sampleIndex(random) : -1;
+            if (secondary == primary) secondary = -1;
+            primaryWorkspace[u] = primary;
+            secondaryWorkspace[u] = secondary;
+            sizes[primary]++;
+            if (secondary >= 0) sizes[secondary]++;
+        }
+
+        // Empty workspaces get one member so every channel has possible senders
+        workspaceMembers = new int[spec.workspaces()][];
+        for (int w = 0; w < spec.workspaces(); w++) {
+            workspaceMembers[w] = new int[Math.max(1, sizes[w])];
+            if (sizes[w] == 0) {
+                workspaceMembers[w][0] = w % spec.users();
+            }
+        }
+        int[] fill = new int[spec.workspaces()];
+        for (int u = 0; u < spec.users(); u++) {
+            workspaceMembers[primaryWorkspace[u]][fill[primaryWorkspace[u]]++] = u;
+            if (secondaryWorkspace[u] >= 0) {
+                workspaceMembers[secondaryWorkspace[u]][fill[secondaryWorkspace[u]]++] = u;
+            }
+        }
+
+        memberSamplers = new ZipfSampler[spec.workspaces()];
+        try (Connection connection = dataSource.getConnection();
+             BulkLoader members = open(connection, "user_workspace_members",
+                 "id", "user_id", "workspace_id", "role", "joined_at")) {
+            long next = memberBase;
+            for (int w = 0; w < spec.workspaces(); w++) {
+                int[] memberIndexes = workspaceMembers[w];
+                memberSamplers[w] = new ZipfSampler(memberIndexes.length, spec.zipfExponent());
+                for (int m = 0; m < memberIndexes.length; m++) {
+                    String role = m == 0 ? "OWNER" : random.nextInt(50) == 0 ? "ADMIN" : "MEMBER";
+                    members.add(++next, userId(memberIndexes[m]), workspaceId(w), role, start);
+                }
+            }
+        }
+    }
+
+    /**
+     * Top-level messages are emitted in time order; a thread's replies follow
+     * its root immediately so reply_count is known at insert time.
+     */
+    private void loadMessages() throws SQLException {
+        int total = (int) spec.messages();
+        messageChannel = new int[total];
+        ZipfSampler channelZipf = new ZipfSampler(spec.channels(), spec.zipfExponent());
+        ZipfSampler threadZipf = new ZipfSampler(spec.maxThreadReplies(), spec.zipfExponent());
+        double threadProbability = threadProbability(threadZipf);
+        double secondsPerMessage = (double) spanSeconds / Math.max(1, total);
+
+        try (Connection connection = dataSource.getConnection();
+             BulkLoader messages = open(connection, "messages",
+                 "id", "channel_id", "sender_id", "content", "type", "parent_message_id", "reply_count",
+                 "created_at")) {
+            int emitted = 0;
+            while (emitted < total) {
+                int channel = channelZipf.sampleIndex(random);
+                int workspace = channel / spec.channelsPerWorkspace();
+                LocalDateTime createdAt = at((long) (emitted * secondsPerMessage));
+
+                int replies = random.nextDouble() < threadProbability ? threadZipf.sample(random) : 0;
+                replies = Math.min(replies, total - emitted - 1);
+
+                long rootId = messageId(emitted);
+                messageChannel[emitted++] = channel;
+                addMessage(messages, rootId, channel, sender(workspace), null, replies, createdAt);
+
+                for (int r = 0; r < replies; r++) {
+                    long replyId = messageId(emitted);
+                    messageChannel[emitted++] = channel;
+                    addMessage(messages, replyId, channel, sender(workspace), rootId, 0,
+                        createdAt.plusSeconds(60L * (r + 1) + random.nextInt(60)));
+                }
+            }
+        }
+    }
+
+    private void loadReactions() throws SQLException {
+        double mean = spec.reactionsPerMessage();
+        if (mean <= 0) return;
+        // Geometric count with the requested mean
+        double logFailure = Math.log(mean / (1.0 + mean));
+
+        try (Connection connection = dataSource.getConnection();
+             BulkLoader reactions = open(connection, "reactions", "id", "message_id", "user_id", "type")) {
+            long next = reactionBase;
+            long[] reacted = new long[64];
+            for (int m = 0; m < messageChannel.length; m++) {
+                int count = (int) Math.floor(Math.log(1.0 - random.nextDouble()) / logFailure);
+                int workspace = messageChannel[m] / spec.channelsPerWorkspace();
+                count = Math.min(Math.min(count, reacted.length), workspaceMembers[workspace].length);
+
+                int distinct = 0;
+                for (int attempt = 0; attempt < count * 3 && distinct < count; attempt++) {
+                    long userId = sender(workspace);
+                    if (!contains(reacted, distinct, userId)) {
+                        reacted[distinct++] = userId;
+                        reactions.add(++next, messageId(m), userId, "THUMBS_UP");
+                    }
+                }
+            }
+        }
+    }
+
+    private void loadDirectMessages() throws SQLException {
+        ZipfSampler userZipf = new ZipfSampler(spec.users(), spec.zipfExponent());
+        double secondsPerMessage = (double) spanSeconds / Math.max(1, spec.directMessages());
+
+        try (Connection connection = dataSource.getConnection();
+             BulkLoader dms = open(connection, "direct_messages",
+                 "id", "sender_id", "recipient_id", "content", "type", "created_at", "user_low_id", "user_high_id")) {
+            for (long i = 0; i < spec.directMessages(); i++) {
+                int sender = userZipf.sampleIndex(random);
+                int workspace = primaryWorkspace[sender];
+                int recipient = workspaceMembers[workspace][memberSamplers[workspace].sampleIndex(random)];
+                if (recipient == sender) {
+                    recipient = (sender + 1 + random.nextInt(Math.max(1, spec.users() - 1))) % spec.users();
+                }
+                long senderId = userId(sender);
+                long recipientId = userId(recipient);
+                dms.add(directMessageBase + i + 1, senderId, recipientId,
+                    PHRASES[random.nextInt(PHRASES.length)], "TEXT", at((long) (i * secondsPerMessage)),
+                    Math.min(senderId, recipientId), Math.max(senderId, recipientId));
+            }
+        }
+    }
+
+    private void loadNotifications() throws SQLException {
+        ZipfSampler userZipf = new ZipfSampler(spec.users(), spec.zipfExponent());
+        double secondsPerNotification = (double) spanSeconds / Math.max(1, spec.notifications());
+
+        try (Connection connection = dataSource.getConnection();
+             BulkLoader notifications = open(connection, "notifications",
+                 "id", "user_id", "type", "message", "actor_id", "channel_id", "message_id", "dm_id",
+                 "workspace_id", "is_read", "created_at")) {
+            for (long i = 0; i < spec.notifications(); i++) {
+                int recipient = userZipf.sampleIndex(random);
+                int workspace = primaryWorkspace[recipient];
+                long actor = sender(workspace);
+                String type = NOTIFICATION_TYPES[random.nextInt(NOTIFICATION_TYPES.length)];
+
+                Long channelId = null;
+                Long messageId = null;
+                Long dmId = null;
+                if (type.equals("DIRECT_MESSAGE")) {
+                    if (spec.directMessages() > 0) {
+                        dmId = directMessageBase + 1 + random.nextLong(spec.directMessages());
+                    }
+                } else if (messageChannel.length > 0) {
+                    int m = random.nextInt(messageChannel.length);
+                    messageId = messageId(m);
+                    channelId = channelId(messageChannel[m]);
+                }
+
+                notifications.add(notificationBase + i + 1, userId(recipient), type,
+                    "Someone " + describe(type), actor, channelId, messageId, dmId, workspaceId(workspace),
+                    random.nextDouble() < spec.notificationReadFraction(),
+                    at((long) (i * secondsPerNotification)));
+            }
+        }
+    }
+
+    private void addMessage(BulkLoader messages, long id, int channel, long senderId, Long parentId,
+                            int replyCount, LocalDateTime createdAt) throws SQLException {
+        boolean file = random.nextInt(50) == 0;
+        String content = file
+            ? "https://files.example.com/" + id + ".pdf"
+            : PHRASES[random.nextInt(PHRASES.length)];
+        messages.add(id, channelId(channel), senderId, content, file ? "FILE" : "TEXT", parentId, replyCount,
+            createdAt);
+    }
+
+    /**
+     * Probability that a root message starts a thread, so replies make up replyFraction of all messages
+     */
+    private double threadProbability(ZipfSampler threadZipf) {
+        double f = spec.replyFraction();
+        if (f <= 0) return 0;
+        double meanReplies = 0;
+        double norm = 0;
+        for (int k = 1; k <= spec.maxThreadReplies(); k++) {
+            double weight = Math.pow(k, -spec.zipfExponent());
+            meanReplies += k * weight;
+            norm += weight;
+        }
+        meanReplies /= norm;
+        return Math.min(1.0, f / ((1.0 - f) * meanReplies));
+    }
+
+    private long sender(int workspace) {
+        return userId(workspaceMembers[workspace][memberSamplers[workspace].sampleIndex(random)]);
+    }
+
+    private static boolean contains(long[] values, int length, long value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) return true;
+        }
+        return false;
+    }
+
+    private static String describe(String type) {
+        return switch (type) {
+            case "DIRECT_MESSAGE" -> "sent you a message";
+            case "THREAD_REPLY" -> "replied to your message";
+            case "REACTION" -> "reacted to your message";
+            default -> "posted in a channel";
+        };
+    }
+
+    private LocalDateTime at(long secondsFromStart) {
+        return start.plusSeconds(Math.min(secondsFromStart, spanSeconds));
+    }
+
+    private long userId(int index) {
+        return userBase + index + 1;
+    }
+
+    private long workspaceId(int index) {
+        return workspaceBase + index + 1;
+    }
+
+    private long channelId(int index) {
+        return channelBase + index + 1;
+    }
+
+    private long messageId(int index) {
+        return messageBase + index + 1;
+    }
+
+    private BulkLoader open(Connection connection, String table, String... columns) throws SQLException {
+        return BulkLoader.open(connection, spec.loader(), spec.batchSize(), table, columns);
+    }
+
+    private void readIdBases() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            userBase = maxId(connection, "users");
+            workspaceBase = maxId(connection, "workspaces");
+            channelBase = maxId(connection, "channels");
+            memberBase = maxId(connection, "user_workspace_members");
+            messageBase = maxId(connection, "messages");
+            reactionBase = maxId(connection, "reactions");
+            directMessageBase = maxId(connection, "direct_messages");
+            notificationBase = maxId(connection, "notifications");
+        }
+    }
+
+    private static long maxId(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    /**
+     * Move identity columns past the explicitly assigned ids so the app can keep inserting
+     */
+    private void resetIdentities() throws SQLException {
+        String[] tables = {"users", "workspaces", "channels", "user_workspace_members", "messages",
+            "reactions", "direct_messages", "notifications"};
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            connection.setAutoCommit(true);
+            boolean postgres = connection.getMetaData().getDatabaseProductName().toLowerCase().contains("postgres");
+            for (String table : tables) {
+                long next = maxId(connection, table) + 1;
+                if (postgres) {
+                    statement.execute("SELECT setval(pg_get_serial_sequence('" + table + "', 'id'), " + next
+                        + ", false)");
+                } else {
+                    statement.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + next);
+                }
+            }
+        }
+    }
+
+    private void timed(String label, Phase phase) throws SQLException {
+        long startNanos = System.nanoTime();
+        phase.run();
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        System.out.println("✓ Loaded " + label + " in " + millis + " ms");
+    }
+
+    @FunctionalInterface
+    private interface Phase {
+        void run() throws SQLException;
+    }
+}
@@ -0,0 +1,76 @@
+package com.buzzlink.datagen;
+
+import com.buzzlink.BuzzLinkApplication;
+import com.buzzlink.service.ActiveUserService;
+import com.buzzlink.service.AdminService;
+import com.buzzlink.service.AnalyticsRollupService;
+import com.buzzlink.service.DirectMessageService;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Boots the application without a web server so Hibernate creates or updates
+ * the schema, then bulk-loads a synthetic dataset into the configured database.
+ *
+ * Usage: ./gradlew generateDataset -Pdatagen.users=1000000 -Pdatagen.messages=20000000
+ *
+ * Runs as its own process, so restart any running server afterwards: the user
+ * search index and other in-memory state are only loaded at startup.
+ */
+public class DatasetGeneratorRunner {
+
+    public static void main(String[] args) throws Exception {
+        SpringApplication app = new SpringApplication(BuzzLinkApplication.class);
+        app.setWebApplicationType(WebApplicationType.NONE);
+        ConfigurableApplicationContext context = app.run(withGeneratorDefaults(args));
+
+        int exitCode = 0;
+        try {
+            DatasetSpec spec = DatasetSpec.from(context.getEnvironment());
+            System.out.println("… Generating dataset " + spec);
+            long start = System.nanoTime();
+            new DatasetGenerator(context.getBean(DataSource.class), spec).generate();
+            System.out.println("✓ Dataset loaded in "
+                + TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) + " s");
+            long rolledUp = context.getBean(AnalyticsRollupService.class).backfill();
+            System.out.println("✓ Analytics rollups rebuilt from " + rolledUp + " messages");
+            context.getBean(ActiveUserService.class).rebuild();
+            System.out.println("✓ Active-user sketches rebuilt");
+            int users = context.getBean(AdminService.class).recountUserMessageCounters();
+            System.out.println("✓ Message counters recomputed for " + users + " users");
+            int conversations = context.getBean(DirectMessageService.class).rebuildConversationSummaries();
+            System.out.println("✓ " + conversations + " DM conversation summaries rebuilt");
+        } catch (Exception e) {
+            e.printStackTrace();
+            exitCode = 1;
+        } finally {
+            context.close();
+        }
+        System.exit(exitCode);
+    }
+
+    /**
+     * Keep the schema on shutdown (the dev profile uses create-drop) and silence SQL logging
+     */
+    private static String[] withGeneratorDefaults(String[] args) {
+        Map<String, String> merged = new LinkedHashMap<>();
+        merged.put("spring.jpa.hibernate.ddl-auto", "update");
+        merged.put("spring.jpa.show-sql", "false");
+        merged.put("logging.level.com.buzzlink", "WARN");
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (arg.startsWith("--") && eq > 2) {
+                merged.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+        return merged.entrySet().stream()
+            .map(e -> "--" + e.getKey() + "=" + e.getValue())
+            .toArray(String[]::new);
+    }
+}
@@ -0,0 +1,51 @@
+package com.buzzlink.datagen;
+
+import org.springframework.core.env.Environment;
+
+/**
+ * Shape of the generated dataset, read from --datagen.* arguments
+ *
+ * The same seed and sizes always produce the same rows.
+ */
+public record DatasetSpec(
+    int users,
+    int workspaces,
+    int channelsPerWorkspace,
+    long messages,
+    double replyFraction,
+    int maxThreadReplies,
+    double reactionsPerMessage,
+    long directMessages,
+    long notifications,
+    double notificationReadFraction,
+    double zipfExponent,
+    int days,
+    long seed,
+    int batchSize,
+    String loader
+) {
+
+    public static DatasetSpec from(Environment env) {
+        return new DatasetSpec(
+            env.getProperty("datagen.users", Integer.class, 10_000),
+            env.getProperty("datagen.workspaces", Integer.class, 50),
+            env.getProperty("datagen.channels-per-workspace", Integer.class, 20),
+            env.getProperty("datagen.messages", Long.class, 500_000L),
+            env.getProperty("datagen.reply-fraction", Double.class, 0.15),
+            env.getProperty("datagen.max-thread-replies", Integer.class, 50),
+            env.getProperty("datagen.reactions-per-message", Double.class, 0.5),
+            env.getProperty("datagen.direct-messages", Long.class, 100_000L),
+            env.getProperty("datagen.notifications", Long.class, 200_000L),
+            env.getProperty("datagen.notification-read-fraction", Double.class, 0.8),
+            env.getProperty("datagen.zipf-exponent", Double.class, 1.1),
+            env.getProperty("datagen.days", Integer.class, 90),
+            env.getProperty("datagen.seed", Long.class, 42L),
+            env.getProperty("datagen.batch-size", Integer.class, 5_000),
+            env.getProperty("datagen.loader", "auto")
+        );
+    }
+
+    public int channels() {
+        return workspaces * channelsPerWorkspace;
+    }
+}
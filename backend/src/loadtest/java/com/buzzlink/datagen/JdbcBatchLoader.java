@@ -0,0 +1,61 @@
+package com.buzzlink.datagen;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+
+/**
+ * Batched multi-row INSERT loader, used for H2 and as a portable fallback
+ *
+ * On PostgreSQL add reWriteBatchedInserts=true to the JDBC URL so the driver
+ * folds each batch into multi-value INSERT statements.
+ */
+public class JdbcBatchLoader implements BulkLoader {
+
+    private final Connection connection;
+    private final PreparedStatement statement;
+    private final int batchSize;
+    private int pending;
+    private long rows;
+
+    public JdbcBatchLoader(Connection connection, int batchSize, String table, String... columns)
+            throws SQLException {
+        this.connection = connection;
+        this.batchSize = batchSize;
+        String placeholders = String.join(",", Collections.nCopies(columns.length, "?"));
+        this.statement = connection.prepareStatement(
+            "INSERT INTO " + table + " (" + String.join(",", columns) + ") VALUES (" + placeholders + ")");
+        connection.setAutoCommit(false);
+    }
+
+    @Override
+    public void add(Object... values) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            statement.setObject(i + 1, values[i]);
+        }
+        statement.addBatch();
+        rows++;
+        if (++pending >= batchSize) {
+            flush();
+        }
+    }
+
+    @Override
+    public long rowCount() {
+        return rows;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        flush();
+        statement.close();
+    }
+
+    private void flush() throws SQLException {
+        if (pending == 0) return;
+        statement.executeBatch();
+        connection.commit();
+        pending = 0;
+    }
+}
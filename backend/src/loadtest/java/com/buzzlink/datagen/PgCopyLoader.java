@@ -0,0 +1,96 @@
+package com.buzzlink.datagen;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+/**
+ * PostgreSQL COPY FROM STDIN loader (CSV format)
+ *
+ * Each batch is sent as one COPY statement and committed, so a failure
+ * partway through loses at most one batch.
+ */
+public class PgCopyLoader implements BulkLoader {
+
+    private final Connection connection;
+    private final PGConnection pgConnection;
+    private final String copySql;
+    private final int batchSize;
+    private final StringBuilder buffer = new StringBuilder(1 << 20);
+    private int pending;
+    private long rows;
+
+    public PgCopyLoader(Connection connection, int batchSize, String table, String... columns)
+            throws SQLException {
+        this.connection = connection;
+        this.pgConnection = connection.unwrap(PGConnection.class);
+        this.batchSize = batchSize;
+        this.copySql = "COPY " + table + " (" + String.join(",", columns) + ") FROM STDIN WITH (FORMAT csv)";
+        connection.setAutoCommit(false);
+    }
+
+    @Override
+    public void add(Object... values) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) buffer.append(',');
+            appendCsv(values[i]);
+        }
+        buffer.append('\n');
+        rows++;
+        if (++pending >= batchSize) {
+            flush();
+        }
+    }
+
+    @Override
+    public long rowCount() {
+        return rows;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        flush();
+    }
+
+    private void flush() throws SQLException {
+        if (pending == 0) return;
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        CopyIn copyIn = pgConnection.getCopyAPI().copyIn(copySql);
+        try {
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+        connection.commit();
+        buffer.setLength(0);
+        pending = 0;
+    }
+
+    // NULL is an unquoted empty field; everything textual is quoted
+    private void appendCsv(Object value) {
+        if (value == null) {
+            return;
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            buffer.append(value);
+        } else if (value instanceof LocalDateTime timestamp) {
+            buffer.append(timestamp);
+        } else {
+            String text = value.toString();
+            buffer.append('"');
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '"') buffer.append('"');
+                buffer.append(c);
+            }
+            buffer.append('"');
+        }
+    }
+}
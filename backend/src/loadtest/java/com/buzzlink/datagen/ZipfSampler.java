@@ -0,0 +1,92 @@
+package com.buzzlink.datagen;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Zipf-distributed ranks in [1, n] using rejection-inversion
+ * (Hörmann and Derflinger), so it needs no per-rank table and is cheap
+ * to construct for any population size.
+ *
+ * Rank 1 is the most popular element.
+ */
+public class ZipfSampler {
+
+    private final int n;
+    private final double exponent;
+    private final double hIntegralX1;
+    private final double hIntegralN;
+    private final double threshold;
+
+    public ZipfSampler(int n, double exponent) {
+        if (n < 1) {
+            throw new IllegalArgumentException("n must be positive: " + n);
+        }
+        if (exponent <= 0) {
+            throw new IllegalArgumentException("exponent must be positive: " + exponent);
+        }
+        this.n = n;
+        this.exponent = exponent;
+        this.hIntegralX1 = hIntegral(1.5) - 1.0;
+        this.hIntegralN = hIntegral(n + 0.5);
+        this.threshold = 2.0 - hIntegralInverse(hIntegral(2.5) - h(2.0));
+    }
+
+    /**
+     * Sample a rank in [1, n]
+     */
+    public int sample(RandomGenerator random) {
+        while (true) {
+            double u = hIntegralN + random.nextDouble() * (hIntegralX1 - hIntegralN);
+            double x = hIntegralInverse(u);
+            int k = (int) (x + 0.5);
+            if (k < 1) {
+                k = 1;
+            } else if (k > n) {
+                k = n;
+            }
+            if (k - x <= threshold || u >= hIntegral(k + 0.5) - h(k)) {
+                return k;
+            }
+        }
+    }
+
+    /**
+     * Sample a zero-based index in [0, n)
+     */
+    public int sampleIndex(RandomGenerator random) {
+        return sample(random) - 1;
+    }
+
+    private double h(double x) {
+        return Math.exp(-exponent * Math.log(x));
+    }
+
+    private double hIntegral(double x) {
+        double logX = Math.log(x);
+        return helper2((1.0 - exponent) * logX) * logX;
+    }
+
+    private double hIntegralInverse(double x) {
+        double t = x * (1.0 - exponent);
+        if (t < -1.0) {
+            t = -1.0;
+        }
+        return Math.exp(helper1(t) * x);
+    }
+
+    // log1p(x) / x, stable near 0
+    private static double helper1(double x) {
+        if (Math.abs(x) > 1e-8) {
+            return Math.log1p(x) / x;
+        }
+        return 1.0 - x * (0.5 - x * (1.0 / 3.0 - 0.25 * x));
+    }
+
+    // expm1(x) / x, stable near 0
+    private static double helper2(double x) {
+        if (Math.abs(x) > 1e-8) {
+            return Math.expm1(x) / x;
+        }
+        return 1.0 + x * 0.5 * (1.0 + x * (1.0 / 3.0) * (1.0 + 0.25 * x));
+    }
+}
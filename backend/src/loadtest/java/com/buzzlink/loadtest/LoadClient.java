@@ -0,0 +1,139 @@
+package com.buzzlink.loadtest;
+
+import com.buzzlink.websocket.WebSocketController;
+import com.buzzlink.websocket.dto.ChatMessage;
+import com.buzzlink.websocket.dto.PresenceEvent;
+import com.buzzlink.websocket.dto.TypingEvent;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * One simulated browser: a STOMP session subscribed to a single channel
+ *
+ * Sent message content carries the System.nanoTime() of the send, so every
+ * subscriber in the same JVM can compute its own end-to-end latency.
+ */
+public class LoadClient extends StompSessionHandlerAdapter {
+
+    static final String LATENCY_PREFIX = "lt|";
+
+    private final String clerkId;
+    private final String displayName;
+    private final Long channelId;
+    private final LoadMetrics metrics;
+
+    private volatile StompSession session;
+    private volatile boolean joined;
+
+    public LoadClient(String clerkId, String displayName, Long channelId, LoadMetrics metrics) {
+        this.clerkId = clerkId;
+        this.displayName = displayName;
+        this.channelId = channelId;
+        this.metrics = metrics;
+    }
+
+    public CompletableFuture<StompSession> connect(WebSocketStompClient stompClient, String url) {
+        WebSocketHttpHeaders headers = new WebSocketHttpHeaders();
+        headers.setOrigin("http://localhost:3000");
+        return stompClient.connectAsync(url, headers, this);
+    }
+
+    @Override
+    public void afterConnected(StompSession session, StompHeaders connectedHeaders) {
+        this.session = session;
+
+        session.subscribe(WebSocketController.channelTopic(channelId),
+                handler(ChatMessage.class, this::onChatMessage));
+        session.subscribe(WebSocketController.typingTopic(channelId),
+                handler(TypingEvent.class, event -> metrics.typingReceived.increment()));
+        session.subscribe(WebSocketController.presenceTopic(channelId),
+                handler(PresenceEvent.class, event -> metrics.presenceReceived.increment()));
+
+        join();
+    }
+
+    @Override
+    public void handleTransportError(StompSession session, Throwable exception) {
+        metrics.transportErrors.increment();
+    }
+
+    @Override
+    public void handleException(StompSession session, StompCommand command, StompHeaders headers,
+                                byte[] payload, Throwable exception) {
+        metrics.transportErrors.increment();
+    }
+
+    public boolean isConnected() {
+        StompSession current = session;
+        return current != null && current.isConnected();
+    }
+
+    public void sendMessage() {
+        if (!isConnected()) return;
+        session.send("/app/chat.sendMessage", new WebSocketController.SendMessageRequest(
+                channelId, clerkId, LATENCY_PREFIX + System.nanoTime(), "TEXT", null));
+        metrics.messagesSent.increment();
+    }
+
+    public void sendTyping() {
+        if (!isConnected()) return;
+        session.send("/app/chat.typing", new TypingEvent(channelId, clerkId, displayName, true));
+        metrics.typingSent.increment();
+    }
+
+    /**
+     * Leave if currently joined, join otherwise
+     */
+    public void toggleJoin() {
+        if (!isConnected()) return;
+        if (joined) {
+            session.send("/app/chat.leave", new WebSocketController.LeaveChannelRequest(channelId, clerkId));
+            joined = false;
+        } else {
+            join();
+        }
+        metrics.joinLeaveSent.increment();
+    }
+
+    public void disconnect() {
+        StompSession current = session;
+        if (current != null && current.isConnected()) {
+            current.disconnect();
+        }
+    }
+
+    private void join() {
+        session.send("/app/chat.join", new WebSocketController.JoinChannelRequest(channelId, clerkId));
+        joined = true;
+    }
+
+    private void onChatMessage(ChatMessage message) {
+        String content = message.getContent();
+        if (content != null && content.startsWith(LATENCY_PREFIX)) {
+            metrics.recordDelivery(Long.parseLong(content.substring(LATENCY_PREFIX.length())));
+        }
+    }
+
+    private static <T> StompFrameHandler handler(Class<T> payloadType, Consumer<T> consumer) {
+        return new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return payloadType;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                consumer.accept(payloadType.cast(payload));
+            }
+        };
+    }
+}
@@ -0,0 +1,54 @@
+package com.buzzlink.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and the send-to-receive latency histogram shared by all load clients
+ */
+public class LoadMetrics {
+
+    // Latency in microseconds, 3 significant digits
+    private final Recorder latency = new Recorder(3);
+
+    final LongAdder messagesSent = new LongAdder();
+    final LongAdder messagesDelivered = new LongAdder();
+    final LongAdder typingSent = new LongAdder();
+    final LongAdder typingReceived = new LongAdder();
+    final LongAdder joinLeaveSent = new LongAdder();
+    final LongAdder presenceReceived = new LongAdder();
+    final LongAdder transportErrors = new LongAdder();
+
+    /**
+     * Record one delivery of a message that was sent at the given System.nanoTime()
+     */
+    public void recordDelivery(long sentAtNanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - sentAtNanos);
+        latency.recordValue(Math.max(0, micros));
+        messagesDelivered.increment();
+    }
+
+    /**
+     * Drop everything recorded so far (end of warmup)
+     */
+    public void reset() {
+        latency.getIntervalHistogram();
+        messagesSent.reset();
+        messagesDelivered.reset();
+        typingSent.reset();
+        typingReceived.reset();
+        joinLeaveSent.reset();
+        presenceReceived.reset();
+        transportErrors.reset();
+    }
+
+    /**
+     * Latency histogram accumulated since the last reset
+     */
+    public Histogram latencySnapshot() {
+        return latency.getIntervalHistogram();
+    }
+}
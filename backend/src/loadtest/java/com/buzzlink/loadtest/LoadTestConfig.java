@@ -0,0 +1,38 @@
+package com.buzzlink.loadtest;
+
+import org.springframework.core.env.Environment;
+
+import java.nio.file.Path;
+
+/**
+ * Load test knobs, read from --loadtest.* arguments
+ *
+ * Rates are totals per second across all clients, not per client.
+ */
+public record LoadTestConfig(
+    int clients,
+    int channels,
+    int connectConcurrency,
+    double sendRate,
+    double typingRate,
+    double joinLeaveRate,
+    int warmupSeconds,
+    int durationSeconds,
+    Path output
+) {
+
+    public static LoadTestConfig from(Environment env) {
+        return new LoadTestConfig(
+            env.getProperty("loadtest.clients", Integer.class, 1000),
+            env.getProperty("loadtest.channels", Integer.class, 10),
+            env.getProperty("loadtest.connect-concurrency", Integer.class, 200),
+            env.getProperty("loadtest.send-rate", Double.class, 200.0),
+            env.getProperty("loadtest.typing-rate", Double.class, 400.0),
+            env.getProperty("loadtest.join-leave-rate", Double.class, 20.0),
+            env.getProperty("loadtest.warmup-seconds", Integer.class, 10),
+            env.getProperty("loadtest.duration-seconds", Integer.class, 60),
+            Path.of(env.getProperty("loadtest.output",
+                "build/loadtest/result-" + System.currentTimeMillis() + ".json"))
+        );
+    }
+}
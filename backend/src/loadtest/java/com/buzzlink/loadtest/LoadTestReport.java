@@ -0,0 +1,73 @@
+package com.buzzlink.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.time.Instant;
+
+/**
+ * Machine-readable load test result, serialized to the output file as JSON
+ */
+public record LoadTestReport(
+    Instant finishedAt,
+    LoadTestConfig config,
+    int clientsConnected,
+    int clientsFailed,
+    long connectMillis,
+    double measuredSeconds,
+    long messagesSent,
+    long messagesDelivered,
+    double sendsPerSecond,
+    double deliveriesPerSecond,
+    long typingSent,
+    long typingReceived,
+    long joinLeaveSent,
+    long presenceReceived,
+    long transportErrors,
+    Latency latencyMicros,
+    Heap heap
+) {
+
+    public record Latency(long count, long min, long p50, long p90, long p99, long p999, long max, double mean) {
+        static Latency of(Histogram histogram) {
+            return new Latency(
+                histogram.getTotalCount(),
+                histogram.getTotalCount() == 0 ? 0 : histogram.getMinValue(),
+                histogram.getValueAtPercentile(50),
+                histogram.getValueAtPercentile(90),
+                histogram.getValueAtPercentile(99),
+                histogram.getValueAtPercentile(99.9),
+                histogram.getMaxValue(),
+                histogram.getMean()
+            );
+        }
+    }
+
+    public record Heap(long maxUsedBytes, long endUsedBytes, long committedBytes) {
+    }
+
+    static LoadTestReport of(LoadTestConfig config, Instant finishedAt, int connected, int failed,
+                             long connectMillis, double seconds, LoadMetrics metrics, Histogram latency,
+                             LoadTestRunner.HeapSampler heap) {
+        long sent = metrics.messagesSent.sum();
+        long delivered = metrics.messagesDelivered.sum();
+        return new LoadTestReport(
+            finishedAt,
+            config,
+            connected,
+            failed,
+            connectMillis,
+            seconds,
+            sent,
+            delivered,
+            sent / seconds,
+            delivered / seconds,
+            metrics.typingSent.sum(),
+            metrics.typingReceived.sum(),
+            metrics.joinLeaveSent.sum(),
+            metrics.presenceReceived.sum(),
+            metrics.transportErrors.sum(),
+            Latency.of(latency),
+            new Heap(heap.maxUsed(), heap.lastUsed(), heap.lastCommitted())
+        );
+    }
+}
@@ -0,0 +1,284 @@
+package com.buzzlink.loadtest;
+
+import com.buzzlink.BuzzLinkApplication;
+import com.buzzlink.entity.Channel;
+import com.buzzlink.entity.User;
+import com.buzzlink.entity.Workspace;
+import com.buzzlink.repository.ChannelRepository;
+import com.buzzlink.repository.UserRepository;
+import com.buzzlink.repository.WorkspaceRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process WebSocket load generator
+ *
+ * Boots the full application on H2 (dev profile, random port), seeds users and
+ * channels, connects the configured number of STOMP clients over raw WebSocket,
+ * drives send/typing/join-leave traffic and writes a JSON report.
+ *
+ * Usage: ./gradlew loadTest -Ploadtest.clients=2000 -Ploadtest.send-rate=500
+ */
+public class LoadTestRunner {
+
+    private static final int TICK_MILLIS = 10;
+
+    public static void main(String[] args) throws Exception {
+        SpringApplication app = new SpringApplication(BuzzLinkApplication.class);
+        app.setAdditionalProfiles("dev");
+        ConfigurableApplicationContext context = app.run(withHarnessDefaults(args));
+
+        int exitCode = 0;
+        try {
+            new LoadTestRunner().run(context);
+        } catch (Exception e) {
+            e.printStackTrace();
+            exitCode = 1;
+        } finally {
+            context.close();
+        }
+        System.exit(exitCode);
+    }
+
+    /**
+     * Quiet SQL/DEBUG logging and pick a random port unless the caller overrides them.
+     * Passed as command line args so they win over application.properties.
+     */
+    private static String[] withHarnessDefaults(String[] args) {
+        Map<String, String> merged = new LinkedHashMap<>();
+        merged.put("server.port", "0");
+        merged.put("spring.jpa.show-sql", "false");
+        merged.put("logging.level.com.buzzlink", "WARN");
+        merged.put("logging.level.org.hibernate.SQL", "WARN");
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (arg.startsWith("--") && eq > 2) {
+                merged.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+        return merged.entrySet().stream()
+                .map(e -> "--" + e.getKey() + "=" + e.getValue())
+                .toArray(String[]::new);
+    }
+
+    private void run(ConfigurableApplicationContext context) throws Exception {
+        LoadTestConfig config = LoadTestConfig.from(context.getEnvironment());
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+
+        System.out.println("✓ Load test target: ws://localhost:" + port + "/ws");
+        System.out.println("  " + config);
+
+        List<Long> channelIds = seedChannels(context, config.channels());
+        List<User> users = seedUsers(context, config.clients());
+
+        LoadMetrics metrics = new LoadMetrics();
+        List<LoadClient> clients = new ArrayList<>(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            clients.add(new LoadClient(user.getClerkId(), user.getDisplayName(),
+                    channelIds.get(i % channelIds.size()), metrics));
+        }
+
+        WebSocketStompClient stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(objectMapper);
+        stompClient.setMessageConverter(converter);
+
+        long connectStart = System.nanoTime();
+        int connected = connectAll(stompClient, "ws://localhost:" + port + "/ws/websocket", clients, config);
+        long connectMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - connectStart);
+        System.out.println("✓ Connected " + connected + "/" + clients.size() + " clients in " + connectMillis + " ms");
+
+        List<LoadClient> live = clients.stream().filter(LoadClient::isConnected).toList();
+        if (live.isEmpty()) {
+            throw new IllegalStateException("No clients connected");
+        }
+
+        HeapSampler heap = new HeapSampler();
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
+        // All sends happen on this single driver thread: a WebSocket session must not be written concurrently
+        RateDriver sends = new RateDriver(config.sendRate(), () -> pick(live).sendMessage());
+        RateDriver typing = new RateDriver(config.typingRate(), () -> pick(live).sendTyping());
+        RateDriver joinLeave = new RateDriver(config.joinLeaveRate(), () -> pick(live).toggleJoin());
+        scheduler.scheduleAtFixedRate(() -> {
+            sends.tick();
+            typing.tick();
+            joinLeave.tick();
+        }, 0, TICK_MILLIS, TimeUnit.MILLISECONDS);
+        scheduler.scheduleAtFixedRate(heap::sample, 0, 1, TimeUnit.SECONDS);
+
+        System.out.println("… Warming up for " + config.warmupSeconds() + " s");
+        Thread.sleep(TimeUnit.SECONDS.toMillis(config.warmupSeconds()));
+        metrics.reset();
+        heap.reset();
+
+        System.out.println("… Measuring for " + config.durationSeconds() + " s");
+        long measureStart = System.nanoTime();
+        Thread.sleep(TimeUnit.SECONDS.toMillis(config.durationSeconds()));
+        scheduler.shutdown();
+        scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        // Let in-flight broadcasts drain before snapshotting
+        Thread.sleep(1000);
+        double elapsedSeconds = (System.nanoTime() - measureStart) / 1_000_000_000.0;
+
+        Histogram latency = metrics.latencySnapshot();
+        LoadTestReport report = LoadTestReport.of(config, Instant.now(), connected, clients.size() - connected,
+                connectMillis, elapsedSeconds, metrics, latency, heap);
+
+        live.forEach(LoadClient::disconnect);
+        stompClient.stop();
+
+        Files.createDirectories(config.output().toAbsolutePath().getParent());
+        objectMapper.copy()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(config.output().toFile(), report);
+
+        System.out.println("✓ Sent " + report.messagesSent() + " messages, delivered " + report.messagesDelivered());
+        System.out.printf("  latency p50=%d µs p99=%d µs p99.9=%d µs max=%d µs%n",
+                report.latencyMicros().p50(), report.latencyMicros().p99(),
+                report.latencyMicros().p999(), report.latencyMicros().max());
+        System.out.println("✓ Report written to " + config.output().toAbsolutePath());
+    }
+
+    private List<Long> seedChannels(ConfigurableApplicationContext context, int count) {
+        WorkspaceRepository workspaceRepository = context.getBean(WorkspaceRepository.class);
+        ChannelRepository channelRepository = context.getBean(ChannelRepository.class);
+        Workspace workspace = workspaceRepository.findBySlug("default")
+                .orElseThrow(() -> new IllegalStateException("Default workspace not initialized"));
+
+        List<Channel> channels = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Channel channel = new Channel();
+            channel.setName("loadtest-" + i);
+            channel.setDescription("Load test channel " + i);
+            channel.setWorkspace(workspace);
+            channels.add(channel);
+        }
+        return channelRepository.saveAll(channels).stream().map(Channel::getId).toList();
+    }
+
+    private List<User> seedUsers(ConfigurableApplicationContext context, int count) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setClerkId("loadtest_user_" + i);
+            user.setDisplayName("Load User " + i);
+            user.setEmail("loadtest" + i + "@example.com");
+            user.setIsAdmin(false);
+            user.setIsBanned(false);
+            users.add(user);
+        }
+        return userRepository.saveAll(users);
+    }
+
+    /**
+     * Open all sessions with at most connectConcurrency handshakes in flight
+     */
+    private int connectAll(WebSocketStompClient stompClient, String url, List<LoadClient> clients,
+                           LoadTestConfig config) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(config.connectConcurrency());
+        AtomicInteger connected = new AtomicInteger();
+        for (LoadClient client : clients) {
+            inFlight.acquire();
+            client.connect(stompClient, url).whenComplete((session, error) -> {
+                if (error == null) {
+                    connected.incrementAndGet();
+                }
+                inFlight.release();
+            });
+        }
+        inFlight.acquire(config.connectConcurrency());
+        return connected.get();
+    }
+
+    private static LoadClient pick(List<LoadClient> clients) {
+        return clients.get(ThreadLocalRandom.current().nextInt(clients.size()));
+    }
+
+    /**
+     * Spreads a per-second rate over fixed ticks, carrying fractional credit forward
+     */
+    private static final class RateDriver {
+        private final double perSecond;
+        private final Runnable action;
+        private long lastTick = System.nanoTime();
+        private double credit;
+
+        RateDriver(double perSecond, Runnable action) {
+            this.perSecond = perSecond;
+            this.action = action;
+        }
+
+        void tick() {
+            long now = System.nanoTime();
+            credit += perSecond * (now - lastTick) / 1_000_000_000.0;
+            lastTick = now;
+            while (credit >= 1.0) {
+                credit -= 1.0;
+                try {
+                    action.run();
+                } catch (Exception e) {
+                    // A failed send on one session must not stop the driver
+                }
+            }
+        }
+    }
+
+    /**
+     * Tracks peak and latest heap usage once a second
+     */
+    static final class HeapSampler {
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        private final AtomicLong maxUsed = new AtomicLong();
+        private volatile long lastUsed;
+        private volatile long lastCommitted;
+
+        void sample() {
+            long used = memory.getHeapMemoryUsage().getUsed();
+            lastUsed = used;
+            lastCommitted = memory.getHeapMemoryUsage().getCommitted();
+            maxUsed.accumulateAndGet(used, Math::max);
+        }
+
+        void reset() {
+            maxUsed.set(0);
+        }
+
+        long maxUsed() {
+            return maxUsed.get();
+        }
+
+        long lastUsed() {
+            return lastUsed;
+        }
+
+        long lastCommitted() {
+            return lastCommitted;
+        }
+    }
+}
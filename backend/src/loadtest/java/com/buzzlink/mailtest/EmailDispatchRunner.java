@@ -0,0 +1,153 @@
+package com.buzzlink.mailtest;
+
+import com.buzzlink.BuzzLinkApplication;
+import com.buzzlink.entity.OutboundEmail;
+import com.buzzlink.repository.OutboundEmailRepository;
+import com.buzzlink.service.EmailService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives the email dispatcher against an in-process fake SMTP server
+ *
+ * Boots the application on H2 (dev profile) pointed at FakeSmtpServer with
+ * short backoffs, queues mailtest.emails emails (every mailtest.reject-every-th
+ * to a rejected address), waits for the outbox to drain and prints throughput,
+ * SMTP connections opened, retries and dead letters. Exits non-zero unless
+ * every queued email ended up sent or dead, exactly the rejected addresses
+ * are dead, and (with a non-zero failure rate) the retry path ran.
+ *
+ * Usage: ./gradlew emailLoadTest -Pmailtest.emails=5000 -Pmailtest.failure-rate=0.1
+ */
+public class EmailDispatchRunner {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = options(args);
+        long latencyMillis = Long.parseLong(options.getOrDefault("mailtest.latency-ms", "5"));
+        double failureRate = Double.parseDouble(options.getOrDefault("mailtest.failure-rate", "0.05"));
+
+        int exitCode = 0;
+        try (FakeSmtpServer smtp = new FakeSmtpServer(0, latencyMillis, failureRate)) {
+            SpringApplication app = new SpringApplication(BuzzLinkApplication.class);
+            app.setAdditionalProfiles("dev");
+            ConfigurableApplicationContext context = app.run(withHarnessDefaults(options, smtp.port()));
+            try {
+                run(context, smtp);
+            } catch (Exception e) {
+                e.printStackTrace();
+                exitCode = 1;
+            } finally {
+                context.close();
+            }
+        }
+        System.exit(exitCode);
+    }
+
+    private static Map<String, String> options(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (arg.startsWith("--") && eq > 2) {
+                options.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+        return options;
+    }
+
+    /**
+     * Plain SMTP to the fake server, quick retries and quiet logging unless the caller overrides them
+     */
+    private static String[] withHarnessDefaults(Map<String, String> options, int smtpPort) {
+        Map<String, String> merged = new LinkedHashMap<>();
+        merged.put("server.port", "0");
+        merged.put("spring.jpa.show-sql", "false");
+        merged.put("logging.level.com.buzzlink", "WARN");
+        merged.put("logging.level.org.hibernate.SQL", "WARN");
+        merged.put("spring.mail.host", "localhost");
+        merged.put("spring.mail.port", String.valueOf(smtpPort));
+        merged.put("spring.mail.username", "mailtest@buzzlink.local");
+        merged.put("spring.mail.password", "");
+        merged.put("spring.mail.properties.mail.smtp.auth", "false");
+        merged.put("spring.mail.properties.mail.smtp.starttls.enable", "false");
+        merged.put("spring.mail.properties.mail.smtp.starttls.required", "false");
+        merged.put("email.dispatch.initial-backoff-ms", "200");
+        merged.put("email.dispatch.max-backoff-ms", "2000");
+        merged.put("email.dispatch.poll-interval-ms", "200");
+        merged.putAll(options);
+        return merged.entrySet().stream()
+                .map(e -> "--" + e.getKey() + "=" + e.getValue())
+                .toArray(String[]::new);
+    }
+
+    private static void run(ConfigurableApplicationContext context, FakeSmtpServer smtp) throws Exception {
+        Environment env = context.getEnvironment();
+        int emails = env.getProperty("mailtest.emails", Integer.class, 2000);
+        int rejectEvery = env.getProperty("mailtest.reject-every-th", Integer.class, 100);
+        int timeoutSeconds = env.getProperty("mailtest.timeout-seconds", Integer.class, 300);
+        double failureRate = env.getProperty("mailtest.failure-rate", Double.class, 0.05);
+
+        EmailService emailService = context.getBean(EmailService.class);
+        OutboundEmailRepository outbox = context.getBean(OutboundEmailRepository.class);
+        System.out.println("✓ Fake SMTP server on port " + smtp.port() + ", queueing " + emails + " emails");
+
+        // Only count what this run queues, not emails the application queued at startup
+        long sentBefore = outbox.countByStatus(OutboundEmail.Status.SENT);
+        long deadBefore = outbox.countByStatus(OutboundEmail.Status.DEAD);
+        long rejectedAddresses = 0;
+
+        long start = System.nanoTime();
+        for (int i = 0; i < emails; i++) {
+            boolean reject = rejectEvery > 0 && i % rejectEvery == 0;
+            if (reject) rejectedAddresses++;
+            String recipient = reject
+                    ? "reject" + i + "@example.com"
+                    : "user" + i + "@example.com";
+            emailService.enqueue(recipient, "Load test " + i, "Hello from the email dispatch load test");
+        }
+        long queuedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        System.out.println("✓ Queued in " + queuedMillis + " ms");
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        while (outbox.countByStatus(OutboundEmail.Status.PENDING) + outbox.countByStatus(OutboundEmail.Status.SENDING) > 0) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Outbox did not drain within " + timeoutSeconds + " s");
+            }
+            Thread.sleep(100);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long sent = outbox.countByStatus(OutboundEmail.Status.SENT) - sentBefore;
+        long dead = outbox.countByStatus(OutboundEmail.Status.DEAD) - deadBefore;
+        System.out.printf("✓ Drained in %.1f s: %d sent (%.0f/s), %d dead%n", seconds, sent, sent / seconds, dead);
+        System.out.println("  SMTP connections opened: " + smtp.connections.get()
+                + ", accepted: " + smtp.accepted.get() + ", rejected recipients: " + smtp.rejected.get());
+
+        MeterRegistry registry = context.getBean(MeterRegistry.class);
+        for (String outcome : new String[]{"sent", "retry", "dead"}) {
+            Timer timer = registry.find("buzzlink.email.send").tag("outcome", outcome).timer();
+            if (timer != null) {
+                System.out.printf("  %-5s %6d sends, mean %.2f ms, max %.2f ms%n", outcome, timer.count(),
+                        timer.mean(TimeUnit.MILLISECONDS), timer.max(TimeUnit.MILLISECONDS));
+            }
+        }
+
+        if (sent + dead != emails) {
+            throw new IllegalStateException(emails + " emails queued but " + sent + " sent and " + dead + " dead");
+        }
+        if (dead != rejectedAddresses) {
+            throw new IllegalStateException(dead + " dead letters, expected one per rejected address ("
+                    + rejectedAddresses + ")");
+        }
+        Timer retries = registry.find("buzzlink.email.send").tag("outcome", "retry").timer();
+        if (failureRate > 0 && (retries == null || retries.count() == 0)) {
+            throw new IllegalStateException("No retries at failure rate " + failureRate + "; the retry path did not run");
+        }
+    }
+}
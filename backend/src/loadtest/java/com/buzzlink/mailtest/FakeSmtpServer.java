@@ -0,0 +1,125 @@
+package com.buzzlink.mailtest;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Minimal in-process SMTP server for exercising the email dispatcher
+ *
+ * Accepts everything except recipients containing "reject" (permanent 550)
+ * and, with probability transientFailureRate, messages answered 451 so the
+ * retry path runs. No auth, no TLS. Counts connections and accepted messages.
+ */
+public class FakeSmtpServer implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService sessions = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "fake-smtp");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final long latencyMillis;
+    private final double transientFailureRate;
+
+    final AtomicLong connections = new AtomicLong();
+    final AtomicLong accepted = new AtomicLong();
+    final AtomicLong rejected = new AtomicLong();
+
+    public FakeSmtpServer(int port, long latencyMillis, double transientFailureRate) throws IOException {
+        this.serverSocket = new ServerSocket(port);
+        this.latencyMillis = latencyMillis;
+        this.transientFailureRate = transientFailureRate;
+        Thread acceptor = new Thread(this::acceptLoop, "fake-smtp-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.incrementAndGet();
+                sessions.execute(() -> session(socket));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void session(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII))) {
+            reply(out, "220 fake-smtp ready");
+            boolean recipientRejected = false;
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase(Locale.ROOT) : line;
+                switch (command) {
+                    case "EHLO", "HELO" -> reply(out, "250 fake-smtp");
+                    case "MAIL", "RSET", "NOOP" -> {
+                        recipientRejected = false;
+                        reply(out, "250 OK");
+                    }
+                    case "RCPT" -> {
+                        if (line.toLowerCase(Locale.ROOT).contains("reject")) {
+                            recipientRejected = true;
+                            rejected.incrementAndGet();
+                            reply(out, "550 No such user");
+                        } else {
+                            reply(out, "250 OK");
+                        }
+                    }
+                    case "DATA" -> {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            // discard the message body
+                        }
+                        if (latencyMillis > 0) Thread.sleep(latencyMillis);
+                        if (recipientRejected || ThreadLocalRandom.current().nextDouble() < transientFailureRate) {
+                            reply(out, "451 Try again later");
+                        } else {
+                            accepted.incrementAndGet();
+                            reply(out, "250 Queued");
+                        }
+                    }
+                    case "QUIT" -> {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    default -> reply(out, "502 Command not implemented");
+                }
+            }
+        } catch (IOException | InterruptedException e) {
+            // client went away
+        }
+    }
+
+    private static void reply(Writer out, String line) throws IOException {
+        out.write(line);
+        out.write("\r\n");
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        sessions.shutdownNow();
+    }
+}
@@ -0,0 +1,190 @@
+package com.buzzlink.replicatest;
+
+import com.buzzlink.BuzzLinkApplication;
+import com.buzzlink.config.ReplicaRoutingContext;
+import com.buzzlink.entity.Channel;
+import com.buzzlink.entity.User;
+import com.buzzlink.repository.ChannelRepository;
+import com.buzzlink.repository.UserRepository;
+import com.buzzlink.service.MessageService;
+import com.buzzlink.service.UserService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exercises read-replica routing against two in-memory H2 databases
+ *
+ * Boots the application on H2 (dev profile) with a second H2 database as its
+ * only replica. Replication is simulated: the primary is copied to the replica
+ * once with SCRIPT/RUNSCRIPT, then only the heartbeat row is copied while
+ * "replication" runs. The runner checks that read-only work goes to the
+ * replica, that a user's reads stay on the primary right after they write,
+ * and that reads fail over to the primary once the replica's heartbeat falls
+ * behind, and back again when it catches up. Exits non-zero on a mismatch.
+ *
+ * Usage: ./gradlew replicaRoutingTest -Preplicatest.reads=200
+ */
+public class ReplicaRoutingRunner {
+
+    private static final String REPLICA_URL = "jdbc:h2:mem:buzzlink_replica;DB_CLOSE_DELAY=-1";
+
+    public static void main(String[] args) throws Exception {
+        SpringApplication app = new SpringApplication(BuzzLinkApplication.class);
+        app.setAdditionalProfiles("dev");
+        ConfigurableApplicationContext context = app.run(withHarnessDefaults(args));
+        int exitCode = 0;
+        try {
+            run(context);
+        } catch (Exception e) {
+            e.printStackTrace();
+            exitCode = 1;
+        } finally {
+            context.close();
+        }
+        System.exit(exitCode);
+    }
+
+    /**
+     * One H2 replica, a short lag budget and quiet logging unless the caller overrides them
+     */
+    private static String[] withHarnessDefaults(String[] args) {
+        Map<String, String> merged = new LinkedHashMap<>();
+        merged.put("server.port", "0");
+        merged.put("spring.jpa.show-sql", "false");
+        merged.put("logging.level.com.buzzlink", "WARN");
+        merged.put("logging.level.org.hibernate.SQL", "WARN");
+        merged.put("datasource.replicas.urls", REPLICA_URL);
+        merged.put("datasource.replicas.sticky-ms", "2000");
+        merged.put("datasource.replicas.max-lag-ms", "1000");
+        merged.put("datasource.replicas.lag-check-interval-ms", "200");
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (arg.startsWith("--") && eq > 2) {
+                merged.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+        return merged.entrySet().stream()
+                .map(e -> "--" + e.getKey() + "=" + e.getValue())
+                .toArray(String[]::new);
+    }
+
+    private static void run(ConfigurableApplicationContext context) throws Exception {
+        Environment env = context.getEnvironment();
+        int reads = env.getProperty("replicatest.reads", Integer.class, 200);
+        long maxLagMillis = env.getProperty("datasource.replicas.max-lag-ms", Long.class, 1000L);
+        long checkMillis = env.getProperty("datasource.replicas.lag-check-interval-ms", Long.class, 200L);
+        String primaryUrl = env.getProperty("spring.datasource.url");
+        String username = env.getProperty("spring.datasource.username", "sa");
+        String password = env.getProperty("spring.datasource.password", "");
+
+        MeterRegistry registry = context.getBean(MeterRegistry.class);
+        MessageService messageService = context.getBean(MessageService.class);
+        UserService userService = context.getBean(UserService.class);
+
+        try (Connection primary = DriverManager.getConnection(primaryUrl, username, password);
+             Connection replica = DriverManager.getConnection(REPLICA_URL, username, password)) {
+            snapshot(primary, replica);
+            System.out.println("✓ Primary copied to the replica");
+
+            ScheduledExecutorService replication = Executors.newSingleThreadScheduledExecutor();
+            replication.scheduleWithFixedDelay(() -> copyHeartbeat(primary, replica), 0, 100, TimeUnit.MILLISECONDS);
+            Thread.sleep(checkMillis * 3);
+
+            Channel channel = context.getBean(ChannelRepository.class).findAll().get(0);
+            User user = context.getBean(UserRepository.class).findAll().get(0);
+
+            expect(registry, "replica-1", "read", reads, () -> messageService.getRecentMessages(channel.getId(), 50));
+
+            expect(registry, "primary", "read-your-writes", reads, () -> ReplicaRoutingContext.callAs(user.getClerkId(), () -> {
+                userService.updateProfile(user.getClerkId(), user.getDisplayName(), null);
+                return messageService.getRecentMessages(channel.getId(), 50);
+            }));
+
+            replication.shutdownNow();
+            replication.awaitTermination(1, TimeUnit.SECONDS);
+            Thread.sleep(maxLagMillis + checkMillis * 3);
+            System.out.println("  replica lag after stopping replication: "
+                    + registry.find("buzzlink.datasource.replica.lag").gauge().value() + " s");
+            expect(registry, "primary", "replica-lag", reads, () -> messageService.getRecentMessages(channel.getId(), 50));
+
+            ScheduledExecutorService resumed = Executors.newSingleThreadScheduledExecutor();
+            resumed.scheduleWithFixedDelay(() -> copyHeartbeat(primary, replica), 0, 100, TimeUnit.MILLISECONDS);
+            Thread.sleep(checkMillis * 3);
+            expect(registry, "replica-1", "read", reads, () -> messageService.getRecentMessages(channel.getId(), 50));
+            resumed.shutdownNow();
+        }
+    }
+
+    private interface Work {
+        Object call();
+    }
+
+    /**
+     * Run the work n times and check every connection went to the expected target for the expected reason
+     */
+    private static void expect(MeterRegistry registry, String target, String reason, int n, Work work) {
+        double before = routed(registry, target, reason);
+        long start = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            work.call();
+        }
+        double routed = routed(registry, target, reason) - before;
+        System.out.printf("  %-8s %-16s %4.0f of %d operations routed (%.2f ms each)%n", target, reason, routed, n,
+                (System.nanoTime() - start) / 1e6 / n);
+        if (routed < n) {
+            throw new IllegalStateException("Expected " + n + " operations routed to " + target + " (" + reason
+                    + "), got " + routed);
+        }
+    }
+
+    private static double routed(MeterRegistry registry, String target, String reason) {
+        Counter counter = registry.find("buzzlink.datasource.routed").tag("target", target).tag("reason", reason).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private static void snapshot(Connection primary, Connection replica) throws Exception {
+        Path script = Files.createTempFile("buzzlink-replica", ".sql");
+        try {
+            try (Statement statement = primary.createStatement()) {
+                statement.execute("SCRIPT TO '" + script.toAbsolutePath() + "'");
+            }
+            try (Statement statement = replica.createStatement()) {
+                statement.execute("DROP ALL OBJECTS");
+                statement.execute("RUNSCRIPT FROM '" + script.toAbsolutePath() + "'");
+            }
+        } finally {
+            Files.deleteIfExists(script);
+        }
+    }
+
+    private static void copyHeartbeat(Connection primary, Connection replica) {
+        try (Statement read = primary.createStatement();
+             ResultSet rs = read.executeQuery("SELECT beat_millis FROM replication_heartbeat WHERE id = 1")) {
+            if (!rs.next()) return;
+            try (PreparedStatement write = replica.prepareStatement(
+                    "MERGE INTO replication_heartbeat (id, beat_millis) KEY (id) VALUES (1, ?)")) {
+                write.setLong(1, rs.getLong(1));
+                write.executeUpdate();
+            }
+        } catch (SQLException e) {
+            System.err.println("Heartbeat copy failed: " + e.getMessage());
+        }
+    }
+}
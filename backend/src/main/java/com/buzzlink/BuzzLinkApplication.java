@@ -13,11 +13,13 @@ import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main Spring Boot application class for BuzzLink
  */
 @SpringBootApplication
+@EnableScheduling
 @RequiredArgsConstructor
 public class BuzzLinkApplication {
 
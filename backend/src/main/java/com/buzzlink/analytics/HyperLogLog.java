@@ -0,0 +1,207 @@
+package com.buzzlink.analytics;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * HyperLogLog distinct counter over long ids
+ *
+ * Starts in a sparse mode (a sorted array of index/rank pairs) so that sketches
+ * for quiet workspaces and days stay a few bytes, and switches to a dense byte
+ * register array once the sparse form would be larger. Unions are lossless and
+ * idempotent, so sketches can be merged in any order and any number of times.
+ *
+ * With the default precision (2^12 registers) the standard error is about 1.6%.
+ */
+public class HyperLogLog {
+
+    public static final int DEFAULT_PRECISION = 12;
+
+    private static final byte FORMAT_SPARSE = 0;
+    private static final byte FORMAT_DENSE = 1;
+
+    private final int precision;
+    private final int registerCount;
+
+    // Exactly one of these is in use: sparse entries are (index << 8 | rank), sorted by index
+    private int[] sparse = new int[4];
+    private int sparseSize;
+    private byte[] registers;
+
+    public HyperLogLog() {
+        this(DEFAULT_PRECISION);
+    }
+
+    public HyperLogLog(int precision) {
+        if (precision < 4 || precision > 18) {
+            throw new IllegalArgumentException("precision must be between 4 and 18");
+        }
+        this.precision = precision;
+        this.registerCount = 1 << precision;
+    }
+
+    public synchronized void add(long id) {
+        long hash = mix(id);
+        int index = (int) (hash >>> (64 - precision));
+        int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+        update(index, rank);
+    }
+
+    /**
+     * Estimated number of distinct ids added
+     */
+    public synchronized long estimate() {
+        if (registers == null) {
+            // Every occupied register is one sparse entry: linear counting is exact enough here
+            return Math.round(linearCounting(registerCount - sparseSize));
+        }
+
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) zeros++;
+        }
+        double alpha = 0.7213 / (1 + 1.079 / registerCount);
+        double estimate = alpha * registerCount * registerCount / sum;
+        if (estimate <= 2.5 * registerCount && zeros > 0) {
+            estimate = linearCounting(zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * Fold {@code other} into this sketch (set union)
+     */
+    public void merge(HyperLogLog other) {
+        if (other == this) return;
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Cannot merge sketches of different precision");
+        }
+        int[] otherSparse;
+        int otherSize;
+        byte[] otherRegisters;
+        synchronized (other) {
+            otherRegisters = other.registers == null ? null : other.registers.clone();
+            otherSparse = other.registers == null ? Arrays.copyOf(other.sparse, other.sparseSize) : null;
+            otherSize = other.sparseSize;
+        }
+
+        synchronized (this) {
+            if (otherRegisters != null) {
+                toDense();
+                for (int i = 0; i < registerCount; i++) {
+                    if (otherRegisters[i] > registers[i]) registers[i] = otherRegisters[i];
+                }
+            } else {
+                for (int i = 0; i < otherSize; i++) {
+                    update(otherSparse[i] >>> 8, otherSparse[i] & 0xFF);
+                }
+            }
+        }
+    }
+
+    public synchronized boolean isEmpty() {
+        return registers == null && sparseSize == 0;
+    }
+
+    /**
+     * Compact binary form: [format][precision] followed by sparse entries or dense registers
+     */
+    public synchronized byte[] toBytes() {
+        if (registers != null) {
+            return ByteBuffer.allocate(2 + registerCount)
+                    .put(FORMAT_DENSE).put((byte) precision).put(registers).array();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(2 + sparseSize * Integer.BYTES)
+                .put(FORMAT_SPARSE).put((byte) precision);
+        for (int i = 0; i < sparseSize; i++) {
+            buffer.putInt(sparse[i]);
+        }
+        return buffer.array();
+    }
+
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        byte format = buffer.get();
+        HyperLogLog hll = new HyperLogLog(buffer.get());
+        if (format == FORMAT_DENSE) {
+            hll.registers = new byte[hll.registerCount];
+            buffer.get(hll.registers);
+        } else {
+            hll.sparseSize = buffer.remaining() / Integer.BYTES;
+            hll.sparse = new int[Math.max(4, hll.sparseSize)];
+            for (int i = 0; i < hll.sparseSize; i++) {
+                hll.sparse[i] = buffer.getInt();
+            }
+        }
+        return hll;
+    }
+
+    private void update(int index, int rank) {
+        if (registers != null) {
+            if (rank > registers[index]) registers[index] = (byte) rank;
+            return;
+        }
+
+        int pos = findSparse(index);
+        if (pos >= 0) {
+            if (rank > (sparse[pos] & 0xFF)) sparse[pos] = index << 8 | rank;
+            return;
+        }
+
+        // Dense registers cost one byte each; sparse entries cost four
+        if (sparseSize + 1 > registerCount / Integer.BYTES) {
+            toDense();
+            update(index, rank);
+            return;
+        }
+        int insertAt = -pos - 1;
+        if (sparseSize == sparse.length) {
+            sparse = Arrays.copyOf(sparse, sparse.length * 2);
+        }
+        System.arraycopy(sparse, insertAt, sparse, insertAt + 1, sparseSize - insertAt);
+        sparse[insertAt] = index << 8 | rank;
+        sparseSize++;
+    }
+
+    private int findSparse(int index) {
+        int low = 0;
+        int high = sparseSize - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midIndex = sparse[mid] >>> 8;
+            if (midIndex < index) {
+                low = mid + 1;
+            } else if (midIndex > index) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private void toDense() {
+        if (registers != null) return;
+        registers = new byte[registerCount];
+        for (int i = 0; i < sparseSize; i++) {
+            registers[sparse[i] >>> 8] = (byte) (sparse[i] & 0xFF);
+        }
+        sparse = null;
+        sparseSize = 0;
+    }
+
+    private double linearCounting(int zeros) {
+        return registerCount * Math.log((double) registerCount / zeros);
+    }
+
+    /**
+     * SplitMix64 finalizer: spreads sequential database ids over all 64 bits
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,139 @@
+package com.buzzlink.analytics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Space-Saving heavy-hitter sketch (Metwally et al.)
+ *
+ * Tracks at most {@code capacity} ids. When a new id arrives and the sketch is
+ * full, the id with the smallest count is evicted and the newcomer inherits its
+ * count as overestimation error. Any id whose true count exceeds N / capacity is
+ * guaranteed to be tracked, and reported counts are upper bounds within
+ * {@code error} of the true value.
+ *
+ * Counters are kept ordered by count, so offers are O(log capacity) and
+ * {@link #top(int)} is O(k).
+ */
+public class SpaceSavingSketch {
+
+    public record Entry(long id, long count, long error) {
+    }
+
+    private static final class Counter {
+        final long id;
+        long count;
+        long error;
+
+        Counter(long id, long count, long error) {
+            this.id = id;
+            this.count = count;
+            this.error = error;
+        }
+    }
+
+    private static final Comparator<Counter> BY_COUNT =
+            Comparator.<Counter>comparingLong(c -> c.count).thenComparingLong(c -> c.id);
+
+    private final int capacity;
+    private final Map<Long, Counter> counters;
+    private final TreeSet<Counter> ordered = new TreeSet<>(BY_COUNT);
+
+    public SpaceSavingSketch(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public synchronized int size() {
+        return counters.size();
+    }
+
+    public void offer(long id) {
+        offer(id, 1);
+    }
+
+    /**
+     * Count {@code weight} occurrences of {@code id}
+     */
+    public synchronized void offer(long id, long weight) {
+        offer(id, weight, 0);
+    }
+
+    private void offer(long id, long weight, long error) {
+        if (weight <= 0) return;
+
+        Counter counter = counters.get(id);
+        if (counter != null) {
+            ordered.remove(counter);
+            counter.count += weight;
+            counter.error += error;
+            ordered.add(counter);
+            return;
+        }
+
+        if (counters.size() < capacity) {
+            counter = new Counter(id, weight, error);
+        } else {
+            Counter min = ordered.pollFirst();
+            counters.remove(min.id);
+            counter = new Counter(id, min.count + weight, min.count + error);
+        }
+        counters.put(id, counter);
+        ordered.add(counter);
+    }
+
+    /**
+     * Undo {@code weight} occurrences of a tracked id (e.g. a deleted message).
+     * Untracked ids are ignored: their count is already below the eviction floor.
+     */
+    public synchronized void decrement(long id, long weight) {
+        Counter counter = counters.get(id);
+        if (counter == null || weight <= 0) return;
+
+        ordered.remove(counter);
+        counter.count -= weight;
+        if (counter.count <= 0) {
+            counters.remove(id);
+            return;
+        }
+        counter.error = Math.min(counter.error, counter.count);
+        ordered.add(counter);
+    }
+
+    /**
+     * The k ids with the highest counts, highest first
+     */
+    public synchronized List<Entry> top(int k) {
+        List<Entry> result = new ArrayList<>(Math.min(k, counters.size()));
+        Iterator<Counter> it = ordered.descendingIterator();
+        while (it.hasNext() && result.size() < k) {
+            Counter c = it.next();
+            result.add(new Entry(c.id, c.count, c.error));
+        }
+        return result;
+    }
+
+    /**
+     * Add every counter of {@code other} into this sketch, carrying its error bounds
+     */
+    public void merge(SpaceSavingSketch other) {
+        List<Entry> entries = other.top(other.capacity);
+        synchronized (this) {
+            for (Entry entry : entries) {
+                offer(entry.id(), entry.count(), entry.error());
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.buzzlink.config;
+
+import java.util.List;
+
+/**
+ * Hibernate second-level cache regions
+ *
+ * Each region is a JCache cache sized and expired in src/main/resources/application.conf.
+ */
+public final class CacheRegions {
+
+    public static final String USERS = "users";
+    public static final String CHANNELS = "channels";
+    public static final String WORKSPACES = "workspaces";
+
+    // Query cache: user ids by Clerk ID, and a user's role in a workspace
+    public static final String USER_LOOKUPS = "user-lookups";
+    public static final String MEMBERSHIP_ROLES = "membership-roles";
+
+    public static final List<String> ALL = List.of(USERS, CHANNELS, WORKSPACES, USER_LOOKUPS, MEMBERSHIP_ROLES);
+
+    private CacheRegions() {
+    }
+}
@@ -0,0 +1,99 @@
+package com.buzzlink.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-replica routing, enabled by setting datasource.replicas.urls
+ *
+ * Replaces the auto-configured pool with a primary pool plus one read-only
+ * pool per replica behind ReplicaRoutingDataSource. Replicas use the primary's
+ * driver and, unless overridden, its credentials.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.replicas.urls")
+public class ReplicaDataSourceConfig {
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            DataSourceProperties properties,
+            MeterRegistry meterRegistry,
+            @Value("${datasource.replicas.urls}") List<String> urls,
+            @Value("${datasource.replicas.username:}") String username,
+            @Value("${datasource.replicas.password:}") String password,
+            @Value("${datasource.replicas.pool-size:10}") int poolSize,
+            @Value("${datasource.replicas.sticky-ms:5000}") long stickyMillis,
+            @Value("${datasource.replicas.max-lag-ms:3000}") long maxLagMillis,
+            @Value("${datasource.replicas.lag-check-interval-ms:1000}") long lagCheckIntervalMillis) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : urls) {
+            if (url.isBlank()) continue;
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(properties.determineDriverClassName())
+                    .url(url.trim())
+                    .username(username.isEmpty() ? properties.determineUsername() : username)
+                    .password(username.isEmpty() ? properties.determinePassword() : password)
+                    .build();
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replica.setMaximumPoolSize(poolSize);
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, meterRegistry, stickyMillis, maxLagMillis,
+                lagCheckIntervalMillis);
+    }
+
+    /**
+     * The DataSource used by JPA and JDBC: connections are taken lazily, once the transaction is set up
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    /**
+     * Attributes each request to its user (X-Clerk-User-Id header or clerkId parameter) for read-your-writes
+     */
+    @Bean
+    public OncePerRequestFilter replicaRoutingUserFilter() {
+        return new OncePerRequestFilter() {
+            @Override
+            protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                            FilterChain chain) throws ServletException, IOException {
+                String clerkId = request.getHeader("X-Clerk-User-Id");
+                if (clerkId == null) {
+                    clerkId = request.getParameter("clerkId");
+                }
+                ReplicaRoutingContext.set(clerkId);
+                try {
+                    chain.doFilter(request, response);
+                } finally {
+                    ReplicaRoutingContext.clear();
+                }
+            }
+        };
+    }
+}
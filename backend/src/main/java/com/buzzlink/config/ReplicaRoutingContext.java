@@ -0,0 +1,54 @@
+package com.buzzlink.config;
+
+import java.util.function.Supplier;
+
+/**
+ * The user on whose behalf the current thread touches the database
+ *
+ * ReplicaRoutingDataSource uses it for read-your-writes: after a user's write,
+ * their read-only transactions stay on the primary for a short window. Set per
+ * request by the routing filter; work handed to other threads must carry it
+ * over with {@link #callAs}.
+ */
+public final class ReplicaRoutingContext {
+
+    private static final ThreadLocal<String> CURRENT_USER = new ThreadLocal<>();
+
+    private ReplicaRoutingContext() {
+    }
+
+    /**
+     * Clerk ID of the current user, or null when unknown (background work)
+     */
+    public static String currentUser() {
+        return CURRENT_USER.get();
+    }
+
+    /**
+     * Attribute this thread's work to a user (null for none) until {@link #clear}
+     */
+    public static void set(String clerkId) {
+        if (clerkId == null) {
+            CURRENT_USER.remove();
+        } else {
+            CURRENT_USER.set(clerkId);
+        }
+    }
+
+    public static void clear() {
+        CURRENT_USER.remove();
+    }
+
+    /**
+     * Run work on this thread as the given user, restoring the previous user afterwards
+     */
+    public static <T> T callAs(String clerkId, Supplier<T> work) {
+        String previous = CURRENT_USER.get();
+        set(clerkId);
+        try {
+            return work.get();
+        } finally {
+            set(previous);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.buzzlink.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to replicas and everything else to the primary
+ *
+ * Must sit behind a LazyConnectionDataSourceProxy so the connection is taken
+ * once the transaction's read-only flag is set. A read-only transaction stays
+ * on the primary when the current user committed a write within the sticky
+ * window (read-your-writes) or when no replica is within the allowed lag;
+ * otherwise replicas are used round-robin. The window starts when the write
+ * commits, and must outlast the worst lag a replica in rotation can have
+ * (max-lag plus one check interval), so a read after it sees the write.
+ *
+ * Lag is measured with a heartbeat row: the primary's row is stamped with the
+ * current time on every check, and each replica's copy is compared with the
+ * stamp written on the previous check, which it has had a full interval to
+ * receive. Lag is how far the replica's copy trails that stamp, on any
+ * database that replicates the table. A replica that cannot be read counts as
+ * lagging.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    static final String PRIMARY = "primary";
+
+    private static final int MAX_TRACKED_WRITERS = 100_000;
+
+    private static final class Replica {
+        final String name;
+        final HikariDataSource dataSource;
+        final JdbcTemplate jdbcTemplate;
+        volatile double lagSeconds = Double.NaN;
+        volatile boolean healthy;
+
+        Replica(String name, HikariDataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.jdbcTemplate = new JdbcTemplate(dataSource);
+            this.jdbcTemplate.setQueryTimeout(2);
+        }
+    }
+
+    private final HikariDataSource primary;
+    private final JdbcTemplate primaryJdbcTemplate;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final MeterRegistry meterRegistry;
+    private final long stickyMillis;
+    private final long maxLagMillis;
+    private final ScheduledExecutorService monitor;
+
+    // Primary heartbeat written by the previous check (0 before the first)
+    private volatile long lastStamp;
+
+    // Clerk ID -> time of the user's last read-write transaction
+    private final Map<String, Long> lastWriteByUser = new ConcurrentHashMap<>();
+    private final Map<String, Counter> routedCounters = new ConcurrentHashMap<>();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicaDataSources,
+                                    MeterRegistry meterRegistry, long stickyMillis, long maxLagMillis,
+                                    long lagCheckIntervalMillis) {
+        if (stickyMillis <= maxLagMillis + lagCheckIntervalMillis) {
+            throw new IllegalArgumentException("datasource.replicas.sticky-ms (" + stickyMillis
+                    + ") must exceed max-lag-ms plus lag-check-interval-ms (" + (maxLagMillis + lagCheckIntervalMillis)
+                    + "), or a user's reads can reach a replica that has not applied their write");
+        }
+        this.primary = primary;
+        this.primaryJdbcTemplate = new JdbcTemplate(primary);
+        this.meterRegistry = meterRegistry;
+        this.stickyMillis = stickyMillis;
+        this.maxLagMillis = maxLagMillis;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicaDataSources.size(); i++) {
+            Replica replica = new Replica("replica-" + (i + 1), replicaDataSources.get(i));
+            replicas.add(replica);
+            targets.put(replica.name, replica.dataSource);
+            Gauge.builder("buzzlink.datasource.replica.lag", replica, r -> r.lagSeconds)
+                    .description("How far the replica's heartbeat trails the primary (NaN when unreachable)")
+                    .tag("replica", replica.name)
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+
+        primaryJdbcTemplate.execute("CREATE TABLE IF NOT EXISTS replication_heartbeat "
+                + "(id INT PRIMARY KEY, beat_millis BIGINT NOT NULL)");
+        this.monitor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        monitor.scheduleWithFixedDelay(this::checkReplicas, 0, lagCheckIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String user = ReplicaRoutingContext.currentUser();
+        long now = System.currentTimeMillis();
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (user != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                // The write becomes visible (and starts replicating) at commit, not when the connection is taken
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        rememberWrite(user, System.currentTimeMillis());
+                    }
+                });
+            }
+            return routed(PRIMARY, "write");
+        }
+        if (user != null) {
+            Long lastWrite = lastWriteByUser.get(user);
+            if (lastWrite != null && now - lastWrite < stickyMillis) {
+                return routed(PRIMARY, "read-your-writes");
+            }
+        }
+
+        int start = Math.floorMod(nextReplica.getAndIncrement(), Math.max(1, replicas.size()));
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.healthy) {
+                return routed(replica.name, "read");
+            }
+        }
+        return routed(PRIMARY, "replica-lag");
+    }
+
+    private void rememberWrite(String user, long now) {
+        if (lastWriteByUser.size() >= MAX_TRACKED_WRITERS) {
+            lastWriteByUser.values().removeIf(lastWrite -> now - lastWrite >= stickyMillis);
+        }
+        lastWriteByUser.put(user, now);
+    }
+
+    private String routed(String target, String reason) {
+        routedCounters.computeIfAbsent(target + '/' + reason, key -> Counter.builder("buzzlink.datasource.routed")
+                .description("Connections handed out (one per transaction) by target and routing reason")
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(meterRegistry)).increment();
+        return target;
+    }
+
+    /**
+     * Measure how far each replica trails the previous heartbeat, then stamp the next one
+     */
+    void checkReplicas() {
+        long previous = lastStamp;
+        for (Replica replica : replicas) {
+            if (previous == 0) break;
+            boolean wasHealthy = replica.healthy;
+            try {
+                List<Long> beats = replica.jdbcTemplate.queryForList(
+                        "SELECT beat_millis FROM replication_heartbeat WHERE id = 1", Long.class);
+                long lagMillis = beats.isEmpty() ? Long.MAX_VALUE : Math.max(0, previous - beats.get(0));
+                replica.lagSeconds = beats.isEmpty() ? Double.NaN : lagMillis / 1000.0;
+                replica.healthy = lagMillis <= maxLagMillis;
+            } catch (RuntimeException e) {
+                replica.lagSeconds = Double.NaN;
+                replica.healthy = false;
+                if (wasHealthy) {
+                    log.warn("Replica {} unreachable: {}", replica.name, e.getMessage());
+                }
+            }
+            if (wasHealthy != replica.healthy) {
+                log.info("Replica {} {} (lag {} s)", replica.name,
+                        replica.healthy ? "back in rotation" : "taken out of rotation", replica.lagSeconds);
+            }
+        }
+
+        long now = System.currentTimeMillis();
+        try {
+            if (primaryJdbcTemplate.update("UPDATE replication_heartbeat SET beat_millis = ? WHERE id = 1", now) == 0) {
+                primaryJdbcTemplate.update("INSERT INTO replication_heartbeat (id, beat_millis) VALUES (1, ?)", now);
+            }
+            lastStamp = now;
+        } catch (RuntimeException e) {
+            log.warn("Could not write the replication heartbeat: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        monitor.shutdownNow();
+        replicas.forEach(replica -> replica.dataSource.close());
+        primary.close();
+    }
+}
@@ -0,0 +1,39 @@
+package com.buzzlink.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exports the lifetime hit ratio of each second-level cache region
+ *
+ * Per-region hit/miss/put counters come from Hibernate's own Micrometer binder
+ * (hibernate.second.level.cache.requests); this adds the ratio for dashboards.
+ */
+@Component
+public class SecondLevelCacheMetrics {
+
+    public SecondLevelCacheMetrics(EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (String region : CacheRegions.ALL) {
+            Gauge.builder("buzzlink.hibernate.cache.hit.ratio", statistics, stats -> hitRatio(stats, region))
+                    .description("Share of second-level cache lookups served from the region (NaN before the first)")
+                    .tag("region", region)
+                    .register(meterRegistry);
+        }
+    }
+
+    private static double hitRatio(Statistics statistics, String region) {
+        CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+        if (regionStatistics == null) {
+            return Double.NaN;
+        }
+        long hits = regionStatistics.getHitCount();
+        long lookups = hits + regionStatistics.getMissCount();
+        return lookups == 0 ? Double.NaN : (double) hits / lookups;
+    }
+}
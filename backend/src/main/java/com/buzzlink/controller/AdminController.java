@@ -1,18 +1,23 @@
 package com.buzzlink.controller;
 
 import com.buzzlink.entity.User;
+import com.buzzlink.logging.LogEvent;
+import com.buzzlink.logging.RingBufferAppender.LogLevel;
 import com.buzzlink.service.AdminService;
+import com.buzzlink.service.EmailDispatchService;
+import com.buzzlink.service.LogBufferService;
+import com.buzzlink.service.LogFileService;
+import com.buzzlink.service.NotificationRetentionService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.io.BufferedReader;
-import java.io.File;
-import java.io.FileReader;
-import java.io.IOException;
-import java.util.*;
-import java.util.stream.Collectors;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Admin Controller for user management and system monitoring
@@ -23,25 +28,93 @@ import java.util.stream.Collectors;
 public class AdminController {
 
     private final AdminService adminService;
+    private final LogBufferService logBufferService;
+    private final LogFileService logFileService;
+    private final NotificationRetentionService notificationRetentionService;
+    private final EmailDispatchService emailDispatchService;
 
     /**
-     * Get all users with their stats
+     * Get a page of users with their stats
      */
     @GetMapping("/users")
-    public ResponseEntity<?> getAllUsers(@RequestHeader("X-Clerk-User-Id") String clerkId) {
+    public ResponseEntity<?> getUsers(
+            @RequestHeader("X-Clerk-User-Id") String clerkId,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) Boolean banned,
+            @RequestParam(required = false) Boolean admin,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(defaultValue = "messages") String sort,
+            @RequestParam(defaultValue = "desc") String direction) {
         if (!adminService.isAdmin(clerkId)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Admin access required");
         }
 
         try {
-            List<Map<String, Object>> users = adminService.getAllUsers();
+            Map<String, Object> users = adminService.getUsers(search, banned, admin, page, size, sort,
+                    "asc".equalsIgnoreCase(direction));
             return ResponseEntity.ok(users);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error fetching users: " + e.getMessage());
         }
     }
 
+    /**
+     * Recompute per-user message counters (e.g. after a bulk import)
+     */
+    @PostMapping("/users/recount")
+    public ResponseEntity<?> recountUserCounters(@RequestHeader("X-Clerk-User-Id") String clerkId) {
+        if (!adminService.isAdmin(clerkId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Admin access required");
+        }
+
+        int updated = adminService.recountUserMessageCounters();
+        return ResponseEntity.ok(Map.of("usersUpdated", updated));
+    }
+
+    /**
+     * Run notification retention now instead of waiting for the nightly job
+     */
+    @PostMapping("/notifications/purge")
+    public ResponseEntity<?> purgeNotifications(@RequestHeader("X-Clerk-User-Id") String clerkId) {
+        if (!adminService.isAdmin(clerkId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Admin access required");
+        }
+
+        try {
+            return ResponseEntity.ok(notificationRetentionService.purge());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Outbound email queue depth (pending and dead-lettered)
+     */
+    @GetMapping("/emails/queue")
+    public ResponseEntity<?> getEmailQueue(@RequestHeader("X-Clerk-User-Id") String clerkId) {
+        if (!adminService.isAdmin(clerkId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Admin access required");
+        }
+
+        return ResponseEntity.ok(emailDispatchService.queueStats());
+    }
+
+    /**
+     * Requeue dead-lettered emails (e.g. after fixing SMTP configuration)
+     */
+    @PostMapping("/emails/dead/retry")
+    public ResponseEntity<?> retryDeadEmails(@RequestHeader("X-Clerk-User-Id") String clerkId) {
+        if (!adminService.isAdmin(clerkId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Admin access required");
+        }
+
+        return ResponseEntity.ok(Map.of("requeued", emailDispatchService.retryDead()));
+    }
+
     /**
      * Get system statistics
      */
@@ -153,24 +226,36 @@ public class AdminController {
     }
 
     /**
-     * Get recent application logs
+     * Get application logs (level ALL, ERROR, WARN, INFO, DEBUG or TRACE)
+     * Recent tails come from memory; a time range, or source=file, searches the log files.
      */
     @GetMapping("/logs")
     public ResponseEntity<?> getLogs(
             @RequestHeader("X-Clerk-User-Id") String clerkId,
             @RequestParam(defaultValue = "100") int limit,
-            @RequestParam(defaultValue = "INFO") String level) {
+            @RequestParam(defaultValue = "INFO") String level,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(defaultValue = "memory") String source) {
         if (!adminService.isAdmin(clerkId)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Admin access required");
         }
 
         try {
-            List<Map<String, Object>> logs = getRecentLogs(limit, level);
+            LogLevel logLevel = LogBufferService.parseLevel(level);
+            int cappedLimit = Math.min(limit, 1000);
+            boolean fromFiles = from != null || to != null || "file".equalsIgnoreCase(source);
+            List<LogEvent> logs = fromFiles
+                    ? logFileService.search(logLevel, from, to, cappedLimit)
+                    : logBufferService.tail(logLevel, cappedLimit);
             return ResponseEntity.ok(Map.of(
                     "logs", logs,
                     "count", logs.size(),
-                    "level", level
+                    "level", level,
+                    "source", fromFiles ? "file" : "memory"
             ));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error fetching logs: " + e.getMessage());
@@ -178,81 +263,23 @@ public class AdminController {
     }
 
     /**
-     * Get recent logs from file or system
-     * This is a simple implementation - in production, you'd use a proper logging aggregation system
+     * Follow application logs as server-sent events
+     * EventSource cannot set headers, so the Clerk id may also be passed as a query parameter.
      */
-    private List<Map<String, Object>> getRecentLogs(int limit, String level) {
-        List<Map<String, Object>> logs = new ArrayList<>();
-
-        // Try to read from Spring Boot log file
-        String[] possibleLogPaths = {
-                "logs/spring-boot-logger.log",
-                "logs/application.log",
-                "/var/log/buzzlink/application.log"
-        };
-
-        for (String logPath : possibleLogPaths) {
-            File logFile = new File(logPath);
-            if (logFile.exists()) {
-                try (BufferedReader reader = new BufferedReader(new FileReader(logFile))) {
-                    List<String> lines = reader.lines()
-                            .filter(line -> level.equals("ALL") || line.contains(level))
-                            .collect(Collectors.toList());
-
-                    // Get last N lines
-                    int start = Math.max(0, lines.size() - limit);
-                    for (int i = start; i < lines.size(); i++) {
-                        Map<String, Object> logEntry = new HashMap<>();
-                        logEntry.put("timestamp", new Date());
-                        logEntry.put("level", extractLogLevel(lines.get(i)));
-                        logEntry.put("message", lines.get(i));
-                        logs.add(logEntry);
-                    }
-                    return logs;
-                } catch (IOException e) {
-                    // Continue to next log path
-                }
-            }
+    @GetMapping(value = "/logs/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> streamLogs(
+            @RequestHeader(value = "X-Clerk-User-Id", required = false) String clerkIdHeader,
+            @RequestParam(required = false) String clerkId,
+            @RequestParam(defaultValue = "ALL") String level) {
+        String caller = clerkIdHeader != null ? clerkIdHeader : clerkId;
+        if (caller == null || !adminService.isAdmin(caller)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Admin access required");
         }
 
-        // If no log file found, return mock logs for demo
-        logs.add(createMockLog("INFO", "Application started on port 8080"));
-        logs.add(createMockLog("INFO", "User logged in: user_363I3otryN1G1UxNwTVRFaBNcHS"));
-        logs.add(createMockLog("INFO", "Workspace created: 'Engineering Team'"));
-        logs.add(createMockLog("INFO", "Channel created: #general"));
-        logs.add(createMockLog("INFO", "WebSocket connection established for user: johndoe"));
-        logs.add(createMockLog("DEBUG", "User authentication completed successfully"));
-        logs.add(createMockLog("INFO", "Message sent to channel #general: 'Hello team!'"));
-        logs.add(createMockLog("INFO", "Direct message sent from user1 to user2"));
-        logs.add(createMockLog("INFO", "Invitation sent to: john@example.com"));
-        logs.add(createMockLog("WARN", "Database connection pool reaching capacity (80%)"));
-        logs.add(createMockLog("INFO", "Workspace member added to 'Marketing Team'"));
-        logs.add(createMockLog("DEBUG", "Cache hit for user profile: user_123"));
-        logs.add(createMockLog("INFO", "Thread reply posted in channel #development"));
-        logs.add(createMockLog("WARN", "Slow query detected: getUserConversations (1.2s)"));
-        logs.add(createMockLog("INFO", "User logged out: jane@example.com"));
-        logs.add(createMockLog("ERROR", "Failed to send email invitation: SMTP timeout"));
-        logs.add(createMockLog("INFO", "Reaction added to message: 👍"));
-        logs.add(createMockLog("INFO", "User updated profile picture"));
-        logs.add(createMockLog("WARN", "High memory usage detected: 85% used"));
-        logs.add(createMockLog("INFO", "Channel deleted: #old-projects"));
-
-        return logs;
-    }
-
-    private String extractLogLevel(String logLine) {
-        if (logLine.contains("ERROR")) return "ERROR";
-        if (logLine.contains("WARN")) return "WARN";
-        if (logLine.contains("INFO")) return "INFO";
-        if (logLine.contains("DEBUG")) return "DEBUG";
-        return "INFO";
-    }
-
-    private Map<String, Object> createMockLog(String level, String message) {
-        Map<String, Object> log = new HashMap<>();
-        log.put("timestamp", new Date());
-        log.put("level", level);
-        log.put("message", message);
-        return log;
+        try {
+            return ResponseEntity.ok(logBufferService.follow(LogBufferService.parseLevel(level)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 }
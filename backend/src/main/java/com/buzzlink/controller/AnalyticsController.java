@@ -1,11 +1,20 @@
 package com.buzzlink.controller;
 
+import com.buzzlink.service.ActiveUserService;
+import com.buzzlink.service.AnalyticsCacheService;
+import com.buzzlink.service.AnalyticsDashboardService;
+import com.buzzlink.service.AnalyticsRollupService;
 import com.buzzlink.service.AnalyticsService;
+import com.buzzlink.service.HeavyHitterService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/analytics")
@@ -15,33 +24,94 @@ public class AnalyticsController {
     @Autowired
     private AnalyticsService analyticsService;
 
+    @Autowired
+    private AnalyticsRollupService analyticsRollupService;
+
+    @Autowired
+    private HeavyHitterService heavyHitterService;
+
+    @Autowired
+    private ActiveUserService activeUserService;
+
+    @Autowired
+    private AnalyticsCacheService analyticsCacheService;
+
+    @Autowired
+    private AnalyticsDashboardService analyticsDashboardService;
+
+    /**
+     * All dashboard panels in one payload
+     */
+    @GetMapping("/dashboard")
+    public ResponseEntity<Map<String, Object>> getDashboard() {
+        return cached("dashboard", analyticsDashboardService::getDashboard);
+    }
+
     @GetMapping("/kpis")
     public ResponseEntity<Map<String, Object>> getKPIs() {
-        return ResponseEntity.ok(analyticsService.getKPIs());
+        return cached("kpis", analyticsService::getKPIs);
     }
 
     @GetMapping("/messages-timeline")
     public ResponseEntity<Map<String, Object>> getMessagesTimeline() {
-        return ResponseEntity.ok(analyticsService.getMessagesTimeline());
+        return cached("messages-timeline", analyticsService::getMessagesTimeline);
+    }
+
+    /**
+     * Distinct active users per day over a trailing window (window=1 for DAU, 7 for WAU, 30 for MAU)
+     */
+    @GetMapping("/active-users-trend")
+    public ResponseEntity<Map<String, Object>> getActiveUsersTrend(
+            @RequestParam(required = false) Long workspaceId,
+            @RequestParam(defaultValue = "30") int days,
+            @RequestParam(defaultValue = "1") int window) {
+        int clampedDays = Math.max(1, Math.min(days, 365));
+        int clampedWindow = Math.max(1, Math.min(window, 90));
+        return cached("active-users-trend:" + workspaceId + ":" + clampedDays + ":" + clampedWindow,
+                () -> analyticsService.getActiveUsersTrend(workspaceId, clampedDays, clampedWindow));
     }
 
     @GetMapping("/top-workspaces")
-    public ResponseEntity<Map<String, Object>> getTopWorkspaces() {
-        return ResponseEntity.ok(analyticsService.getTopWorkspaces());
+    public ResponseEntity<Map<String, Object>> getTopWorkspaces(@RequestParam(required = false) Integer days) {
+        return cached("top-workspaces:" + days, () -> analyticsService.getTopWorkspaces(days));
     }
 
     @GetMapping("/top-users")
-    public ResponseEntity<Map<String, Object>> getTopUsers() {
-        return ResponseEntity.ok(analyticsService.getTopUsers());
+    public ResponseEntity<Map<String, Object>> getTopUsers(@RequestParam(required = false) Integer days) {
+        return cached("top-users:" + days, () -> analyticsService.getTopUsers(days));
     }
 
     @GetMapping("/messages-by-channel")
-    public ResponseEntity<Map<String, Object>> getMessagesByChannel() {
-        return ResponseEntity.ok(analyticsService.getMessagesByChannel());
+    public ResponseEntity<Map<String, Object>> getMessagesByChannel(@RequestParam(required = false) Integer days) {
+        return cached("messages-by-channel:" + days, () -> analyticsService.getMessagesByChannel(days));
     }
 
     @GetMapping("/user-activity-distribution")
     public ResponseEntity<Map<String, Object>> getUserActivityDistribution() {
-        return ResponseEntity.ok(analyticsService.getUserActivityDistribution());
+        return cached("user-activity-distribution", analyticsService::getUserActivityDistribution);
+    }
+
+    /**
+     * Rebuild the daily rollups from the messages table (e.g. after a bulk import)
+     */
+    @PostMapping("/rollups/backfill")
+    public ResponseEntity<Map<String, Object>> backfillRollups() {
+        long covered = analyticsRollupService.backfill();
+        heavyHitterService.rebuild();
+        activeUserService.rebuild();
+        analyticsCacheService.invalidateAll();
+        return ResponseEntity.ok(Map.of("messagesCovered", covered));
+    }
+
+    /**
+     * Serve a result through the stale-while-revalidate cache, reporting its age in headers
+     */
+    private ResponseEntity<Map<String, Object>> cached(String key, Supplier<Map<String, Object>> loader) {
+        AnalyticsCacheService.CachedResult<Map<String, Object>> result = analyticsCacheService.get(key, loader);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.AGE, String.valueOf(TimeUnit.MILLISECONDS.toSeconds(result.ageMillis())))
+                .header("X-Cache", result.state().name())
+                .header("X-Cache-Computed-At", Instant.ofEpochMilli(result.computedAtMillis()).toString())
+                .body(result.value());
     }
 }
@@ -0,0 +1,68 @@
+package com.buzzlink.controller;
+
+import com.buzzlink.dto.BootstrapDTO;
+import com.buzzlink.service.BootstrapService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * REST controller for the initial client load
+ */
+@RestController
+@RequestMapping("/api/bootstrap")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:3000")
+public class BootstrapController {
+
+    private static final int DEFAULT_MESSAGE_LIMIT = 50;
+    private static final int MAX_MESSAGE_LIMIT = 200;
+
+    private final BootstrapService bootstrapService;
+
+    /**
+     * POST /api/bootstrap - Sync the user and return everything for the first paint
+     * Replaces the login sequence of /api/users/sync, /api/workspaces, /api/channels,
+     * /api/direct-messages/conversations, /api/notifications/unread/count and the
+     * first channel's messages with one round trip.
+     */
+    @PostMapping
+    public ResponseEntity<?> bootstrap(@RequestBody BootstrapRequest request) {
+        if (request.clerkId() == null) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Missing required field: clerkId"));
+        }
+        int messageLimit = request.messageLimit() != null
+            ? Math.max(1, Math.min(request.messageLimit(), MAX_MESSAGE_LIMIT))
+            : DEFAULT_MESSAGE_LIMIT;
+        try {
+            BootstrapDTO bootstrap = bootstrapService.bootstrap(
+                request.clerkId(),
+                request.displayName(),
+                request.email(),
+                request.avatarUrl(),
+                request.workspaceId(),
+                request.channelId(),
+                messageLimit
+            );
+            return ResponseEntity.ok(bootstrap);
+        } catch (RuntimeException e) {
+            return ResponseEntity.internalServerError()
+                .body(Map.of("message", "Error loading initial data: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Request body for bootstrap: the sync fields plus the optional preferred workspace and channel
+     */
+    public record BootstrapRequest(
+        String clerkId,
+        String displayName,
+        String email,
+        String avatarUrl,
+        Long workspaceId,
+        Long channelId,
+        Integer messageLimit
+    ) {}
+}
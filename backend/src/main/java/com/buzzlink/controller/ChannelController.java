@@ -4,8 +4,13 @@ import com.buzzlink.dto.ChannelDTO;
 import com.buzzlink.entity.Channel;
 import com.buzzlink.entity.Workspace;
 import com.buzzlink.repository.ChannelRepository;
+import com.buzzlink.service.ResourceVersionService;
+import com.buzzlink.service.SystemStatsService;
 import com.buzzlink.service.WorkspaceService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -23,24 +28,34 @@ public class ChannelController {
 
     private final ChannelRepository channelRepository;
     private final WorkspaceService workspaceService;
+    private final SystemStatsService systemStatsService;
+    private final ResourceVersionService resourceVersionService;
 
     /**
      * GET /api/channels - List all channels (optionally filtered by workspace)
+     * A workspace's list carries an ETag; a matching If-None-Match gets a 304 without a query.
      */
     @GetMapping
-    public ResponseEntity<List<ChannelDTO>> getAllChannels(@RequestParam(required = false) Long workspaceId) {
-        List<Channel> channels;
+    public ResponseEntity<List<ChannelDTO>> getAllChannels(
+            @RequestParam(required = false) Long workspaceId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (workspaceId == null) {
+            List<ChannelDTO> channelDTOs = channelRepository.findAll().stream()
+                .map(ChannelDTO::fromEntity)
+                .collect(Collectors.toList());
+            return ResponseEntity.ok(channelDTOs);
+        }
 
-        if (workspaceId != null) {
-            channels = channelRepository.findByWorkspaceId(workspaceId);
-        } else {
-            channels = channelRepository.findAll();
+        // Read the version before the data so a concurrent change can only make the tag older
+        String etag = resourceVersionService.channelsEtag(workspaceId);
+        if (ResourceVersionService.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
         }
 
-        List<ChannelDTO> channelDTOs = channels.stream()
+        List<ChannelDTO> channelDTOs = channelRepository.findByWorkspaceId(workspaceId).stream()
             .map(ChannelDTO::fromEntity)
             .collect(Collectors.toList());
-        return ResponseEntity.ok(channelDTOs);
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(channelDTOs);
     }
 
     /**
@@ -67,6 +82,8 @@ public class ChannelController {
         channel.setWorkspace(workspace);
 
         Channel savedChannel = channelRepository.save(channel);
+        systemStatsService.adjust(SystemStatsService.Stat.CHANNELS, 1);
+        resourceVersionService.channelsChanged(workspace.getId());
         return ResponseEntity.ok(ChannelDTO.fromEntity(savedChannel));
     }
 
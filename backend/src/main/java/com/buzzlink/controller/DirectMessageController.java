@@ -28,15 +28,34 @@ public class DirectMessageController {
     }
 
     /**
-     * Get conversation with a specific user
+     * Get conversation with a specific user, newest first
+     * before/after take a message id and page backwards/forwards from it.
      */
     @GetMapping("/conversation/{otherUserId}")
-    public ResponseEntity<List<DirectMessageDTO>> getConversation(
+    public ResponseEntity<?> getConversation(
             @PathVariable Long otherUserId,
             @RequestParam String clerkId,
-            @RequestParam(defaultValue = "50") int limit) {
-        List<DirectMessageDTO> messages = dmService.getConversation(clerkId, otherUserId, limit);
-        return ResponseEntity.ok(messages);
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Long after) {
+        try {
+            List<DirectMessageDTO> messages = dmService.getConversation(clerkId, otherUserId,
+                    Math.max(1, Math.min(limit, 200)), before, after);
+            return ResponseEntity.ok(messages);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Mark a conversation as read (resets this user's unread count)
+     */
+    @PostMapping("/conversation/{otherUserId}/read")
+    public ResponseEntity<Void> markConversationRead(
+            @PathVariable Long otherUserId,
+            @RequestParam String clerkId) {
+        dmService.markConversationRead(clerkId, otherUserId);
+        return ResponseEntity.ok().build();
     }
 
     /**
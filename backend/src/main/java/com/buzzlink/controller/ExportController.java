@@ -0,0 +1,64 @@
+package com.buzzlink.controller;
+
+import com.buzzlink.service.AdminService;
+import com.buzzlink.service.ExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+
+/**
+ * Bulk data export for BI tools (admin only)
+ *
+ * GET /api/export/{messages|direct-messages|reactions|memberships}?format=csv|ndjson
+ *     &from=2024-01-01&to=2024-01-31&workspaceId=1&sinceId=12345
+ */
+@RestController
+@RequestMapping("/api/export")
+@RequiredArgsConstructor
+public class ExportController {
+
+    private final ExportService exportService;
+    private final AdminService adminService;
+
+    /**
+     * Stream a dataset straight from a database cursor to the response
+     */
+    @GetMapping("/{dataset}")
+    public ResponseEntity<?> export(
+            @RequestHeader("X-Clerk-User-Id") String clerkId,
+            @PathVariable String dataset,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long workspaceId,
+            @RequestParam(required = false) Long sinceId) {
+        if (!adminService.isAdmin(clerkId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Admin access required");
+        }
+
+        ExportService.Dataset target;
+        ExportService.Format outputFormat;
+        ExportService.ExportFilter filter = new ExportService.ExportFilter(from, to, workspaceId, sinceId);
+        try {
+            target = ExportService.Dataset.fromSlug(dataset);
+            outputFormat = ExportService.Format.from(format);
+            exportService.validate(target, filter);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+
+        StreamingResponseBody body = out -> exportService.export(target, filter, outputFormat, out);
+        String filename = target.slug + "-" + LocalDate.now() + "." + outputFormat.extension;
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(outputFormat.contentType + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+}
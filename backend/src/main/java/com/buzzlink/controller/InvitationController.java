@@ -1,9 +1,12 @@
 package com.buzzlink.controller;
 
+import com.buzzlink.dto.BulkInvitationJobDTO;
 import com.buzzlink.entity.UserWorkspaceMember;
 import com.buzzlink.entity.WorkspaceInvitation;
+import com.buzzlink.service.BulkInvitationService;
 import com.buzzlink.service.InvitationService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -17,6 +20,7 @@ import java.util.Map;
 public class InvitationController {
 
     private final InvitationService invitationService;
+    private final BulkInvitationService bulkInvitationService;
 
     /**
      * POST /api/invitations - Send workspace invitation
@@ -42,6 +46,56 @@ public class InvitationController {
         }
     }
 
+    /**
+     * POST /api/invitations/bulk - Invite a list of emails in the background
+     * Returns 202 with a job id; poll GET /api/invitations/bulk/{jobId} for progress.
+     */
+    @PostMapping(value = "/bulk", consumes = "application/json")
+    public ResponseEntity<?> sendBulkInvitations(@RequestBody BulkInviteRequest request) {
+        return submitBulk(request.workspaceId(), request.emails(), request.inviterClerkId(), request.role());
+    }
+
+    /**
+     * POST /api/invitations/bulk?workspaceId=&inviterClerkId=&role= with a text/csv body (emails in the first column)
+     */
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    public ResponseEntity<?> sendBulkInvitationsCsv(
+        @RequestParam Long workspaceId,
+        @RequestParam String inviterClerkId,
+        @RequestParam(required = false) String role,
+        @RequestBody String csv
+    ) {
+        return submitBulk(workspaceId, BulkInvitationService.parseCsv(csv), inviterClerkId, role);
+    }
+
+    /**
+     * GET /api/invitations/bulk/{jobId} - Progress of a bulk invitation
+     */
+    @GetMapping("/bulk/{jobId}")
+    public ResponseEntity<?> getBulkInvitationJob(@PathVariable String jobId) {
+        try {
+            return ResponseEntity.ok(bulkInvitationService.getJob(jobId));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    private ResponseEntity<?> submitBulk(Long workspaceId, List<String> emails, String inviterClerkId, String role) {
+        try {
+            BulkInvitationJobDTO job = bulkInvitationService.submit(
+                workspaceId,
+                emails,
+                inviterClerkId,
+                UserWorkspaceMember.Role.valueOf(role != null ? role : "MEMBER")
+            );
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("message", e.getMessage()));
+        }
+    }
+
     /**
      * GET /api/invitations/pending - Get pending invitations for an email
      */
@@ -84,6 +138,13 @@ public class InvitationController {
         String role
     ) {}
 
+    public record BulkInviteRequest(
+        Long workspaceId,
+        List<String> emails,
+        String inviterClerkId,
+        String role
+    ) {}
+
     public record AcceptInvitationsRequest(
         String email,
         String clerkId
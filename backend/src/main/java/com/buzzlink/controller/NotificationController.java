@@ -15,24 +15,41 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class NotificationController {
 
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final NotificationService notificationService;
 
     /**
-     * Get all notifications for the authenticated user
+     * Get a page of notifications, newest first
+     * Pass the id of the last notification received as "before" to fetch the next page.
      */
     @GetMapping
-    public ResponseEntity<List<NotificationDTO>> getNotifications(@RequestParam String clerkId) {
-        List<NotificationDTO> notifications = notificationService.getUserNotifications(clerkId);
-        return ResponseEntity.ok(notifications);
+    public ResponseEntity<?> getNotifications(
+            @RequestParam String clerkId,
+            @RequestParam(required = false) Long before,
+            @RequestParam(defaultValue = "50") int limit) {
+        return page(clerkId, before, limit, false);
     }
 
     /**
-     * Get unread notifications
+     * Get a page of unread notifications, newest first
      */
     @GetMapping("/unread")
-    public ResponseEntity<List<NotificationDTO>> getUnreadNotifications(@RequestParam String clerkId) {
-        List<NotificationDTO> notifications = notificationService.getUnreadNotifications(clerkId);
-        return ResponseEntity.ok(notifications);
+    public ResponseEntity<?> getUnreadNotifications(
+            @RequestParam String clerkId,
+            @RequestParam(required = false) Long before,
+            @RequestParam(defaultValue = "50") int limit) {
+        return page(clerkId, before, limit, true);
+    }
+
+    private ResponseEntity<?> page(String clerkId, Long before, int limit, boolean unreadOnly) {
+        try {
+            List<NotificationDTO> notifications = notificationService.getUserNotifications(
+                    clerkId, before, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)), unreadOnly);
+            return ResponseEntity.ok(notifications);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     /**
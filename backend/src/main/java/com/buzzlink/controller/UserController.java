@@ -1,5 +1,6 @@
 package com.buzzlink.controller;
 
+import com.buzzlink.config.ReplicaRoutingContext;
 import com.buzzlink.dto.UserDTO;
 import com.buzzlink.entity.User;
 import com.buzzlink.service.UserService;
@@ -27,12 +28,13 @@ public class UserController {
      */
     @PostMapping("/sync")
     public ResponseEntity<UserDTO> syncUser(@RequestBody SyncUserRequest request) {
-        User user = userService.createOrUpdateUser(
+        // The caller is identified by the body here, so attribute the write for read-your-writes
+        User user = ReplicaRoutingContext.callAs(request.clerkId(), () -> userService.createOrUpdateUser(
             request.clerkId(),
             request.displayName(),
             request.email(),
             request.avatarUrl()
-        );
+        ));
         return ResponseEntity.ok(UserDTO.fromEntity(user));
     }
 
@@ -81,13 +83,15 @@ public class UserController {
     }
 
     /**
-     * GET /api/users/search - Search users by name or email
+     * GET /api/users/search - Search users by name or email, prefix matches first
+     * Optional workspaceId limits results to that workspace's members.
      */
     @GetMapping("/search")
-    public ResponseEntity<List<UserDTO>> searchUsers(@RequestParam String query) {
-        System.out.println("Searching for users with query: " + query);
-        List<User> users = userService.searchUsers(query);
-        System.out.println("Found " + users.size() + " users");
+    public ResponseEntity<List<UserDTO>> searchUsers(
+            @RequestParam String query,
+            @RequestParam(required = false) Long workspaceId,
+            @RequestParam(defaultValue = "20") int limit) {
+        List<User> users = userService.searchUsers(query, workspaceId, limit);
         List<UserDTO> userDTOs = users.stream()
             .map(UserDTO::fromEntity)
             .collect(Collectors.toList());
@@ -1,9 +1,14 @@
 package com.buzzlink.controller;
 
 import com.buzzlink.dto.WorkspaceDTO;
+import com.buzzlink.dto.WorkspaceMemberDTO;
 import com.buzzlink.entity.UserWorkspaceMember;
+import com.buzzlink.service.ResourceVersionService;
 import com.buzzlink.service.WorkspaceService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -15,16 +20,29 @@ import java.util.Map;
 @CrossOrigin(origins = "*")
 public class WorkspaceController {
 
+    private static final int MAX_MEMBER_PAGE_SIZE = 500;
+
     @Autowired
     private WorkspaceService workspaceService;
 
+    @Autowired
+    private ResourceVersionService resourceVersionService;
+
     /**
      * Get all workspaces for a user
+     * Carries an ETag; a matching If-None-Match gets a 304 without a query.
      */
     @GetMapping
-    public ResponseEntity<List<WorkspaceDTO>> getUserWorkspaces(@RequestParam String clerkId) {
+    public ResponseEntity<List<WorkspaceDTO>> getUserWorkspaces(
+            @RequestParam String clerkId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = resourceVersionService.userWorkspacesEtag(clerkId);
+        if (ResourceVersionService.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
         List<WorkspaceDTO> workspaces = workspaceService.getUserWorkspaces(clerkId);
-        return ResponseEntity.ok(workspaces);
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(workspaces);
     }
 
     /**
@@ -36,20 +54,13 @@ public class WorkspaceController {
             @RequestParam String clerkId) {
         var workspace = workspaceService.getWorkspaceBySlug(slug);
 
-        // Check if user is a member
-        if (!workspaceService.isUserMemberOf(clerkId, workspace.getId())) {
+        // The caller's role doubles as the membership check
+        var role = workspaceService.getRole(clerkId, workspace.getId());
+        if (role.isEmpty()) {
             return ResponseEntity.status(403).build();
         }
 
-        // Get user's role in this workspace
-        var members = workspaceService.getWorkspaceMembers(workspace.getId());
-        String role = members.stream()
-            .filter(m -> m.getUser().getClerkId().equals(clerkId))
-            .findFirst()
-            .map(m -> m.getRole().name())
-            .orElse("MEMBER");
-
-        return ResponseEntity.ok(WorkspaceDTO.from(workspace, role));
+        return ResponseEntity.ok(WorkspaceDTO.from(workspace, role.get().name()));
     }
 
     /**
@@ -102,32 +113,30 @@ public class WorkspaceController {
     }
 
     /**
-     * Get workspace members (for DM contacts)
+     * Get a page of workspace members (for DM contacts), excluding the caller
+     * Ordered by user id; pass the last id received as "after" for the next page.
+     * Carries an ETag; a matching If-None-Match gets a 304 without a query.
      */
     @GetMapping("/{workspaceId}/members")
     public ResponseEntity<?> getWorkspaceMembers(
             @PathVariable Long workspaceId,
-            @RequestParam String clerkId) {
+            @RequestParam String clerkId,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // Tags are only handed to members and change with every membership change, so the check can be skipped
+        String etag = resourceVersionService.membersEtag(workspaceId);
+        if (ResourceVersionService.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
         // Check if user is a member
         if (!workspaceService.isUserMemberOf(clerkId, workspaceId)) {
             return ResponseEntity.status(403).build();
         }
 
-        var members = workspaceService.getWorkspaceMembers(workspaceId);
-
-        // Convert to DTOs with user info
-        var memberDTOs = members.stream()
-            .filter(m -> !m.getUser().getClerkId().equals(clerkId)) // Exclude current user
-            .map(m -> Map.of(
-                "id", m.getUser().getId(),
-                "clerkId", m.getUser().getClerkId(),
-                "displayName", m.getUser().getDisplayName(),
-                "email", m.getUser().getEmail(),
-                "avatarUrl", m.getUser().getAvatarUrl() != null ? m.getUser().getAvatarUrl() : "",
-                "role", m.getRole().name()
-            ))
-            .toList();
-
-        return ResponseEntity.ok(memberDTOs);
+        List<WorkspaceMemberDTO> members = workspaceService.getMemberPage(
+            workspaceId, clerkId, after, Math.max(1, Math.min(limit, MAX_MEMBER_PAGE_SIZE)));
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(members);
     }
 }
@@ -0,0 +1,23 @@
+package com.buzzlink.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of the admin user listing
+ *
+ * Projected straight from the users table, so the message counters are the
+ * current column values rather than whatever a cached User entity holds.
+ */
+public record AdminUserDTO(
+    Long id,
+    String clerkId,
+    String displayName,
+    String email,
+    String avatarUrl,
+    Boolean isAdmin,
+    Boolean isBanned,
+    LocalDateTime createdAt,
+    Long messageCount,
+    Long directMessageCount
+) {
+}
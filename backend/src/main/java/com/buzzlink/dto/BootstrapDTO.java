@@ -0,0 +1,21 @@
+package com.buzzlink.dto;
+
+import java.util.List;
+
+/**
+ * Everything the client needs for its first paint after login
+ *
+ * workspaceId/channelId identify the workspace whose channels are included and
+ * the channel whose recent history is in messages (null when there is none).
+ */
+public record BootstrapDTO(
+    UserDTO user,
+    List<WorkspaceDTO> workspaces,
+    Long workspaceId,
+    List<ChannelDTO> channels,
+    Long channelId,
+    List<MessageDTO> messages,
+    List<ConversationDTO> conversations,
+    long unreadNotificationCount
+) {
+}
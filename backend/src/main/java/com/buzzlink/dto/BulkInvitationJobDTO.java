@@ -0,0 +1,27 @@
+package com.buzzlink.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Progress of a bulk invitation job
+ *
+ * invited: new pending invitations; addedAsMembers: existing users added straight
+ * to the workspace; skipped: already members or already invited; invalid: rows
+ * that are not email addresses.
+ */
+public record BulkInvitationJobDTO(
+    String jobId,
+    String status,
+    Long workspaceId,
+    int total,
+    int processed,
+    int invited,
+    int addedAsMembers,
+    int skipped,
+    int invalid,
+    List<String> errors,
+    LocalDateTime startedAt,
+    LocalDateTime finishedAt
+) {
+}
@@ -1,5 +1,8 @@
 package com.buzzlink.dto;
 
+import com.buzzlink.entity.DirectConversation;
+import com.buzzlink.entity.User;
+
 /**
  * Represents a DM conversation with another user
  */
@@ -8,4 +11,25 @@ public record ConversationDTO(
     DirectMessageDTO lastMessage,
     int unreadCount
 ) {
+    /**
+     * Build from a conversation summary as seen by userId; lastMessage.content is the stored preview
+     */
+    public static ConversationDTO from(DirectConversation conversation, Long userId) {
+        User other = conversation.otherUser(userId);
+        DirectMessageDTO lastMessage = null;
+        if (conversation.getLastMessageId() != null) {
+            boolean lowSent = conversation.getUserLow().getId().equals(conversation.getLastSenderId());
+            User sender = lowSent ? conversation.getUserLow() : conversation.getUserHigh();
+            User recipient = lowSent ? conversation.getUserHigh() : conversation.getUserLow();
+            lastMessage = new DirectMessageDTO(
+                conversation.getLastMessageId(),
+                UserDTO.fromEntity(sender),
+                UserDTO.fromEntity(recipient),
+                conversation.getLastMessagePreview(),
+                conversation.getLastMessageType(),
+                conversation.getLastMessageAt()
+            );
+        }
+        return new ConversationDTO(UserDTO.fromEntity(other), lastMessage, conversation.unreadCountFor(userId));
+    }
 }
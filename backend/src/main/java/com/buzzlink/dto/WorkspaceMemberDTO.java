@@ -0,0 +1,20 @@
+package com.buzzlink.dto;
+
+import com.buzzlink.entity.UserWorkspaceMember;
+
+/**
+ * A workspace member as listed by the members endpoint (read straight from a projection query)
+ */
+public record WorkspaceMemberDTO(
+    Long id,
+    String clerkId,
+    String displayName,
+    String email,
+    String avatarUrl,
+    String role
+) {
+    public WorkspaceMemberDTO(Long id, String clerkId, String displayName, String email, String avatarUrl,
+                              UserWorkspaceMember.Role role) {
+        this(id, clerkId, displayName, email, avatarUrl != null ? avatarUrl : "", role.name());
+    }
+}
@@ -0,0 +1,49 @@
+package com.buzzlink.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDate;
+
+/**
+ * Serialized HyperLogLog of the distinct message senders on one day,
+ * for one workspace or (workspace_id = 0) across all workspaces.
+ * Maintained by ActiveUserService.
+ */
+@Entity
+@Table(name = "active_user_sketches", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"stat_date", "workspace_id"})
+}, indexes = {
+    @Index(name = "idx_active_user_sketches_workspace", columnList = "workspace_id, stat_date")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActiveUserSketch {
+
+    public static final long ALL_WORKSPACES = 0L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+
+    @Column(name = "workspace_id", nullable = false)
+    private Long workspaceId;
+
+    @JdbcTypeCode(SqlTypes.VARBINARY)
+    @Column(nullable = false, length = 8192)
+    private byte[] sketch;
+
+    public ActiveUserSketch(LocalDate statDate, Long workspaceId, byte[] sketch) {
+        this.statDate = statDate;
+        this.workspaceId = workspaceId;
+        this.sketch = sketch;
+    }
+}
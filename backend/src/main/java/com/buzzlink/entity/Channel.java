@@ -1,9 +1,12 @@
 package com.buzzlink.entity;
 
+import com.buzzlink.config.CacheRegions;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
@@ -16,6 +19,8 @@ import java.time.LocalDateTime;
 @Table(name = "channels", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"name", "workspace_id"})
 })
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.CHANNELS)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
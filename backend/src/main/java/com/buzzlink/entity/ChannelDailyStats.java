@@ -0,0 +1,43 @@
+package com.buzzlink.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Daily message count per channel (analytics rollup).
+ * Maintained incrementally by AnalyticsRollupService; rebuilt by its backfill job.
+ */
+@Entity
+@Table(name = "channel_daily_stats", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"stat_date", "channel_id"})
+}, indexes = {
+    @Index(name = "idx_channel_daily_stats_channel", columnList = "channel_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChannelDailyStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+
+    @Column(name = "channel_id", nullable = false)
+    private Long channelId;
+
+    @Column(nullable = false)
+    private Long messageCount = 0L;
+
+    public ChannelDailyStats(LocalDate statDate, Long channelId, Long messageCount) {
+        this.statDate = statDate;
+        this.channelId = channelId;
+        this.messageCount = messageCount;
+    }
+}
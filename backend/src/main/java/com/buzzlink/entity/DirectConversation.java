@@ -0,0 +1,109 @@
+package com.buzzlink.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Summary of a DM conversation, one row per unordered user pair
+ * (userLow has the smaller id). Holds the last message and each side's unread
+ * count so the conversation list is a single query. Updated in the same
+ * transaction as every direct message.
+ */
+@Entity
+@Table(name = "dm_conversations", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"user_low_id", "user_high_id"})
+}, indexes = {
+    @Index(name = "idx_dm_conversations_low_last", columnList = "user_low_id,last_message_at"),
+    @Index(name = "idx_dm_conversations_high_last", columnList = "user_high_id,last_message_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class DirectConversation {
+
+    public static final int PREVIEW_LENGTH = 200;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_low_id", nullable = false)
+    private User userLow;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_high_id", nullable = false)
+    private User userHigh;
+
+    @Column(name = "last_message_id")
+    private Long lastMessageId;
+
+    @Column(name = "last_sender_id")
+    private Long lastSenderId;
+
+    @Column(name = "last_message_preview", length = PREVIEW_LENGTH)
+    private String lastMessagePreview;
+
+    @Column(name = "last_message_type", length = 16)
+    private String lastMessageType;
+
+    @Column(name = "last_message_at")
+    private LocalDateTime lastMessageAt;
+
+    @Column(name = "low_unread_count", nullable = false)
+    private Integer lowUnreadCount = 0;
+
+    @Column(name = "high_unread_count", nullable = false)
+    private Integer highUnreadCount = 0;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public DirectConversation(User a, User b) {
+        boolean aIsLow = a.getId() <= b.getId();
+        this.userLow = aIsLow ? a : b;
+        this.userHigh = aIsLow ? b : a;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    /**
+     * Record a new message: it becomes the last message (unless a newer one is
+     * already recorded) and counts as unread for the recipient
+     */
+    public void apply(DirectMessage dm) {
+        if (lastMessageId == null || dm.getId() > lastMessageId) {
+            lastMessageId = dm.getId();
+            lastSenderId = dm.getSender().getId();
+            String content = dm.getContent();
+            lastMessagePreview = content != null && content.length() > PREVIEW_LENGTH
+                    ? content.substring(0, PREVIEW_LENGTH) : content;
+            lastMessageType = dm.getType().name();
+            lastMessageAt = dm.getCreatedAt();
+        }
+        Long recipientId = dm.getRecipient().getId();
+        if (recipientId.equals(dm.getSender().getId())) {
+            return; // notes to self are never unread
+        }
+        if (recipientId.equals(userLow.getId())) {
+            lowUnreadCount++;
+        } else {
+            highUnreadCount++;
+        }
+    }
+
+    public User otherUser(Long userId) {
+        return userLow.getId().equals(userId) ? userHigh : userLow;
+    }
+
+    public int unreadCountFor(Long userId) {
+        return userLow.getId().equals(userId) ? lowUnreadCount : highUnreadCount;
+    }
+}
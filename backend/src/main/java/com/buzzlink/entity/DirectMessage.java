@@ -6,7 +6,8 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "direct_messages", indexes = {
     @Index(name = "idx_sender_recipient_created", columnList = "sender_id,recipient_id,created_at"),
-    @Index(name = "idx_recipient_sender_created", columnList = "recipient_id,sender_id,created_at")
+    @Index(name = "idx_recipient_sender_created", columnList = "recipient_id,sender_id,created_at"),
+    @Index(name = "idx_dm_pair_created_id", columnList = "user_low_id,user_high_id,created_at,id")
 })
 public class DirectMessage {
 
@@ -32,6 +33,13 @@ public class DirectMessage {
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    // Canonical conversation key: the smaller and larger of the two participant ids
+    @Column(name = "user_low_id", updatable = false)
+    private Long userLowId;
+
+    @Column(name = "user_high_id", updatable = false)
+    private Long userHighId;
+
     public enum MessageType {
         TEXT,
         FILE
@@ -40,6 +48,8 @@ public class DirectMessage {
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
+        userLowId = Math.min(sender.getId(), recipient.getId());
+        userHighId = Math.max(sender.getId(), recipient.getId());
     }
 
     // Constructors
@@ -100,4 +110,12 @@ public class DirectMessage {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+
+    public Long getUserLowId() {
+        return userLowId;
+    }
+
+    public Long getUserHighId() {
+        return userHighId;
+    }
 }
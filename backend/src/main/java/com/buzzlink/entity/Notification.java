@@ -10,7 +10,8 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "notifications", indexes = {
-    @Index(name = "idx_user_read", columnList = "user_id,is_read"),
+    @Index(name = "idx_user_read_created", columnList = "user_id,is_read,created_at,id"),
+    @Index(name = "idx_user_created", columnList = "user_id,created_at,id"),
     @Index(name = "idx_created_at", columnList = "created_at")
 })
 @Data
@@ -0,0 +1,79 @@
+package com.buzzlink.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * An email waiting to be sent, written in the same transaction as whatever
+ * triggered it and delivered later by the email dispatcher.
+ *
+ * nextAttemptAt is when the row may next be picked up: the retry time for
+ * PENDING rows, and the lease expiry for SENDING rows (so a row claimed by a
+ * node that died is retried once the lease runs out).
+ */
+@Entity
+@Table(name = "email_outbox", indexes = {
+    @Index(name = "idx_email_outbox_status_next", columnList = "status,next_attempt_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class OutboundEmail {
+
+    public enum Status {
+        PENDING,   // Waiting for its first attempt or a retry
+        SENDING,   // Claimed by a dispatcher worker
+        SENT,
+        DEAD       // Gave up; kept for inspection and manual retry
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false, length = 500)
+    private String subject;
+
+    @Column(nullable = false, length = 10000)
+    private String body;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status = Status.PENDING;
+
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    public OutboundEmail(String recipient, String subject, String body) {
+        this.recipient = recipient;
+        this.subject = subject;
+        this.body = body;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        if (nextAttemptAt == null) {
+            nextAttemptAt = createdAt;
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package com.buzzlink.entity;
 
+import com.buzzlink.config.CacheRegions;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -14,7 +17,12 @@ import java.time.LocalDateTime;
  * Maps to Clerk authentication users via clerkId.
  */
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+    @Index(name = "idx_users_message_count", columnList = "message_count"),
+    @Index(name = "idx_users_created_at", columnList = "created_at")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.USERS)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -55,8 +63,24 @@ public class User {
      */
     private String email;
 
+    /**
+     * Channel messages sent. Maintained with atomic UPDATEs by MessageService,
+     * so the entity never writes it back (a stale copy must not overwrite it).
+     * The UPDATEs leave the cached entity alone, so read it from a query.
+     */
+    @Column(name = "message_count", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "BIGINT DEFAULT 0")
+    private Long messageCount = 0L;
+
+    /**
+     * Direct messages sent, maintained the same way by DirectMessageService
+     */
+    @Column(name = "direct_message_count", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "BIGINT DEFAULT 0")
+    private Long directMessageCount = 0L;
+
     @CreationTimestamp
-    @Column(updatable = false)
+    @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
 
     @UpdateTimestamp
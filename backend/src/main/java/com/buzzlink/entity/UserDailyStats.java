@@ -0,0 +1,43 @@
+package com.buzzlink.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Daily message count per user (analytics rollup).
+ * Maintained incrementally by AnalyticsRollupService; rebuilt by its backfill job.
+ */
+@Entity
+@Table(name = "user_daily_stats", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"stat_date", "user_id"})
+}, indexes = {
+    @Index(name = "idx_user_daily_stats_user", columnList = "user_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserDailyStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private Long messageCount = 0L;
+
+    public UserDailyStats(LocalDate statDate, Long userId, Long messageCount) {
+        this.statDate = statDate;
+        this.userId = userId;
+        this.messageCount = messageCount;
+    }
+}
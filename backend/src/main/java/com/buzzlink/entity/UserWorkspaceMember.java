@@ -5,7 +5,8 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "user_workspace_members",
-       uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "workspace_id"}))
+       uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "workspace_id"}),
+       indexes = @Index(name = "idx_member_workspace_user", columnList = "workspace_id,user_id"))
 public class UserWorkspaceMember {
 
     @Id
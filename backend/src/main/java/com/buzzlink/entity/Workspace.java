@@ -1,10 +1,16 @@
 package com.buzzlink.entity;
 
+import com.buzzlink.config.CacheRegions;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "workspaces")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.WORKSPACES)
 public class Workspace {
 
     @Id
@@ -0,0 +1,43 @@
+package com.buzzlink.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Daily message count per workspace (analytics rollup).
+ * Maintained incrementally by AnalyticsRollupService; rebuilt by its backfill job.
+ */
+@Entity
+@Table(name = "workspace_daily_stats", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"stat_date", "workspace_id"})
+}, indexes = {
+    @Index(name = "idx_workspace_daily_stats_workspace", columnList = "workspace_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkspaceDailyStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+
+    @Column(name = "workspace_id", nullable = false)
+    private Long workspaceId;
+
+    @Column(nullable = false)
+    private Long messageCount = 0L;
+
+    public WorkspaceDailyStats(LocalDate statDate, Long workspaceId, Long messageCount) {
+        this.statDate = statDate;
+        this.workspaceId = workspaceId;
+        this.messageCount = messageCount;
+    }
+}
@@ -0,0 +1,16 @@
+package com.buzzlink.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by MessageService after a channel message (or thread reply) is saved.
+ * Carries ids only so listeners never touch lazy entity state.
+ */
+public record MessageCreatedEvent(
+    Long messageId,
+    Long channelId,
+    Long workspaceId,
+    Long senderId,
+    LocalDateTime createdAt
+) {
+}
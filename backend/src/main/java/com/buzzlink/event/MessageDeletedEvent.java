@@ -0,0 +1,15 @@
+package com.buzzlink.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by MessageService after a channel message is deleted
+ */
+public record MessageDeletedEvent(
+    Long messageId,
+    Long channelId,
+    Long workspaceId,
+    Long senderId,
+    LocalDateTime createdAt
+) {
+}
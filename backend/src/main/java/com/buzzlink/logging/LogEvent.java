@@ -0,0 +1,18 @@
+package com.buzzlink.logging;
+
+import java.time.Instant;
+
+/**
+ * One captured log event
+ *
+ * @param sequence global capture order, unique and increasing across all levels
+ */
+public record LogEvent(
+    long sequence,
+    Instant timestamp,
+    String level,
+    String logger,
+    String thread,
+    String message
+) {
+}
@@ -0,0 +1,247 @@
+package com.buzzlink.logging;
+
+import com.buzzlink.logging.RingBufferAppender.LogLevel;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Memory-mapped log file with a sparse block index
+ *
+ * The file is cut into blocks of roughly blockSize bytes, always on entry
+ * boundaries, and each block records the smallest and largest timestamp it
+ * contains and which levels occur in it. Queries walk the blocks from the end
+ * and only decode those that can match, so a tail touches the last block or
+ * two and a time-range query skips straight to the right region.
+ *
+ * The index is extended incrementally as the file grows; only complete lines
+ * are indexed.
+ */
+public final class LogFileIndex implements Closeable {
+
+    private static final int WINDOW_SIZE = 1 << 28;
+
+    private record Block(long start, long end, long minTimestamp, long maxTimestamp, int levelMask) {
+    }
+
+    private final Path path;
+    private final Object fileKey;
+    private final int blockSize;
+    private final ZoneId zone;
+    private final FileChannel channel;
+    private final List<MappedByteBuffer> windows = new ArrayList<>();
+    private long mappedSize;
+
+    private final List<Block> blocks = new ArrayList<>();
+    private long scanned;
+    private long openStart = -1;
+    private long openMin = Long.MAX_VALUE;
+    private long openMax = Long.MIN_VALUE;
+    private int openMask;
+
+    public LogFileIndex(Path path, int blockSize, ZoneId zone) throws IOException {
+        this.path = path;
+        this.fileKey = fileKey(path);
+        this.blockSize = blockSize;
+        this.zone = zone;
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    /**
+     * False once the path has been replaced (rotation) or truncated
+     */
+    public synchronized boolean isCurrent() throws IOException {
+        return Files.exists(path) && Objects.equals(fileKey, fileKey(path)) && Files.size(path) >= scanned;
+    }
+
+    /**
+     * Smallest timestamp in the file, or Long.MAX_VALUE if nothing is indexed yet
+     */
+    public synchronized long minTimestamp() {
+        long min = openStart >= 0 ? openMin : Long.MAX_VALUE;
+        for (Block block : blocks) {
+            min = Math.min(min, block.minTimestamp());
+        }
+        return min;
+    }
+
+    /**
+     * Index whatever has been appended since the last call
+     */
+    public synchronized void refresh() throws IOException {
+        long size = channel.size();
+        if (size <= scanned) return;
+        map(size);
+
+        long limit = lastNewline(scanned, size);
+        if (limit <= scanned) return;
+
+        byte[] header = new byte[LogLines.HEADER_BYTES];
+        long position = scanned;
+        while (position < limit) {
+            long lineEnd = indexOf('\n', position, limit);
+            int headerLength = (int) Math.min(header.length, lineEnd - position);
+            read(position, header, headerLength);
+
+            if (LogLines.isEntryStart(header, 0, headerLength)) {
+                if (openStart >= 0 && position - openStart >= blockSize) {
+                    blocks.add(new Block(openStart, position, openMin, openMax, openMask));
+                    openStart = -1;
+                }
+                if (openStart < 0) {
+                    openStart = position;
+                    openMin = Long.MAX_VALUE;
+                    openMax = Long.MIN_VALUE;
+                    openMask = 0;
+                }
+                long timestamp = LogLines.timestamp(header, 0, headerLength, zone);
+                if (timestamp >= 0) {
+                    openMin = Math.min(openMin, timestamp);
+                    openMax = Math.max(openMax, timestamp);
+                }
+                LogLevel level = LogLines.level(header, 0, headerLength);
+                if (level != null) {
+                    openMask |= 1 << level.ordinal();
+                }
+            } else if (openStart < 0) {
+                // Continuation lines before the first entry (e.g. the tail of an entry from a rotated file)
+                openStart = position;
+            }
+            position = lineEnd + 1;
+        }
+        scanned = limit;
+    }
+
+    /**
+     * Add matching entries to out, newest first, until it holds limit entries
+     *
+     * @param level exact level to match, or null for every level
+     * @return true if every entry in this file is older than from, so older files can be skipped
+     */
+    public synchronized boolean collect(LogLevel level, long from, long to, int limit, List<LogEvent> out) {
+        List<Block> candidates = new ArrayList<>(blocks);
+        if (openStart >= 0 && scanned > openStart) {
+            candidates.add(new Block(openStart, scanned, openMin, openMax, openMask));
+        }
+        int levelBit = level == null ? -1 : 1 << level.ordinal();
+
+        for (int b = candidates.size() - 1; b >= 0 && out.size() < limit; b--) {
+            Block block = candidates.get(b);
+            if (block.levelMask() == 0) {
+                continue;
+            }
+            if (block.maxTimestamp() < from) {
+                return true;
+            }
+            if (block.minTimestamp() > to || (block.levelMask() & levelBit) == 0) {
+                continue;
+            }
+            collectFromBlock(block, level, from, to, limit, out);
+        }
+        return false;
+    }
+
+    private void collectFromBlock(Block block, LogLevel level, long from, long to, int limit, List<LogEvent> out) {
+        byte[] bytes = new byte[(int) (block.end() - block.start())];
+        read(block.start(), bytes, bytes.length);
+
+        // Entry start offsets within the block, in file order
+        List<Integer> starts = new ArrayList<>();
+        for (int lineStart = 0; lineStart < bytes.length; ) {
+            int lineEnd = lineStart;
+            while (lineEnd < bytes.length && bytes[lineEnd] != '\n') lineEnd++;
+            if (LogLines.isEntryStart(bytes, lineStart, Math.min(LogLines.HEADER_BYTES, lineEnd - lineStart))) {
+                starts.add(lineStart);
+            }
+            lineStart = lineEnd + 1;
+        }
+
+        for (int i = starts.size() - 1; i >= 0 && out.size() < limit; i--) {
+            int start = starts.get(i);
+            int end = i + 1 < starts.size() ? starts.get(i + 1) : bytes.length;
+            int headerLength = Math.min(LogLines.HEADER_BYTES, end - start);
+
+            if (level != null && LogLines.level(bytes, start, headerLength) != level) continue;
+            long timestamp = LogLines.timestamp(bytes, start, headerLength, zone);
+            if (timestamp < from || timestamp > to) continue;
+
+            // The file offset doubles as a sequence: it orders entries within one file
+            out.add(LogLines.toEvent(block.start() + start, bytes, start, end - start, zone));
+        }
+    }
+
+    private void map(long size) throws IOException {
+        if (size <= mappedSize) return;
+        // The last window may have been mapped while the file was shorter
+        if (!windows.isEmpty() && mappedSize % WINDOW_SIZE != 0) {
+            windows.remove(windows.size() - 1);
+        }
+        for (long start = (long) windows.size() * WINDOW_SIZE; start < size; start += WINDOW_SIZE) {
+            windows.add(channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW_SIZE, size - start)));
+        }
+        mappedSize = size;
+    }
+
+    private byte byteAt(long position) {
+        return windows.get((int) (position / WINDOW_SIZE)).get((int) (position % WINDOW_SIZE));
+    }
+
+    private void read(long position, byte[] dst, int length) {
+        int copied = 0;
+        while (copied < length) {
+            MappedByteBuffer window = windows.get((int) ((position + copied) / WINDOW_SIZE));
+            int offset = (int) ((position + copied) % WINDOW_SIZE);
+            int chunk = Math.min(length - copied, window.capacity() - offset);
+            window.get(offset, dst, copied, chunk);
+            copied += chunk;
+        }
+    }
+
+    private long indexOf(char c, long from, long limit) {
+        long position = from;
+        while (position < limit) {
+            MappedByteBuffer window = windows.get((int) (position / WINDOW_SIZE));
+            int offset = (int) (position % WINDOW_SIZE);
+            int end = (int) Math.min(window.capacity(), offset + (limit - position));
+            for (int i = offset; i < end; i++) {
+                if (window.get(i) == c) return position + (i - offset);
+            }
+            position += end - offset;
+        }
+        return limit;
+    }
+
+    /**
+     * Offset just past the last newline in [from, size), or from if there is none
+     */
+    private long lastNewline(long from, long size) {
+        for (long i = size - 1; i >= from; i--) {
+            if (byteAt(i) == '\n') return i + 1;
+        }
+        return from;
+    }
+
+    private static Object fileKey(Path path) throws IOException {
+        return Files.readAttributes(path, BasicFileAttributes.class).fileKey();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        windows.clear();
+        channel.close();
+    }
+}
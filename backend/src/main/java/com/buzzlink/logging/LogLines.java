@@ -0,0 +1,149 @@
+package com.buzzlink.logging;
+
+import com.buzzlink.logging.RingBufferAppender.LogLevel;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * Byte-level parsing of Spring Boot file log lines
+ *
+ * Expects the default file pattern: an ISO timestamp, the level, then
+ * "pid --- [thread] logger : message". Lines that do not start with a
+ * timestamp are continuations (e.g. stack traces) of the previous entry.
+ */
+final class LogLines {
+
+    /** Bytes of a line inspected for the timestamp and level */
+    static final int HEADER_BYTES = 48;
+
+    private static final LogLevel[] LEVELS = LogLevel.values();
+
+    private LogLines() {
+    }
+
+    static boolean isEntryStart(byte[] b, int off, int len) {
+        return len >= 19
+                && isDigit(b[off]) && isDigit(b[off + 1]) && isDigit(b[off + 2]) && isDigit(b[off + 3])
+                && b[off + 4] == '-' && b[off + 7] == '-'
+                && (b[off + 10] == 'T' || b[off + 10] == ' ')
+                && b[off + 13] == ':';
+    }
+
+    /**
+     * Epoch millis of the entry starting at off, or -1 if it cannot be read
+     */
+    static long timestamp(byte[] b, int off, int len, ZoneId defaultZone) {
+        try {
+            int year = digits(b, off, 4);
+            int month = digits(b, off + 5, 2);
+            int day = digits(b, off + 8, 2);
+            int hour = digits(b, off + 11, 2);
+            int minute = digits(b, off + 14, 2);
+            int second = digits(b, off + 17, 2);
+            int i = off + 19;
+            int end = off + len;
+            int millis = 0;
+            if (i + 3 < end && (b[i] == '.' || b[i] == ',')) {
+                millis = digits(b, i + 1, 3);
+                i += 4;
+                while (i < end && isDigit(b[i])) i++;
+            }
+
+            long epochSecond = LocalDate.of(year, month, day).toEpochDay() * 86_400L
+                    + hour * 3_600L + minute * 60L + second;
+            if (i < end && b[i] == 'Z') {
+                // UTC
+            } else if (i + 2 < end && (b[i] == '+' || b[i] == '-')) {
+                int offsetHours = digits(b, i + 1, 2);
+                int offsetMinutes = i + 5 < end && b[i + 3] == ':' ? digits(b, i + 4, 2)
+                        : i + 4 < end && isDigit(b[i + 3]) ? digits(b, i + 3, 2) : 0;
+                int offsetSeconds = offsetHours * 3_600 + offsetMinutes * 60;
+                epochSecond -= b[i] == '+' ? offsetSeconds : -offsetSeconds;
+            } else {
+                ZoneOffset offset = defaultZone.getRules()
+                        .getOffset(LocalDateTime.of(year, month, day, hour, minute, second));
+                epochSecond -= offset.getTotalSeconds();
+            }
+            return epochSecond * 1_000L + millis;
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Level of the entry starting at off, or null if there is none
+     */
+    static LogLevel level(byte[] b, int off, int len) {
+        int i = off;
+        int end = off + len;
+        while (i < end && b[i] != ' ') i++;
+        while (i < end && b[i] == ' ') i++;
+        if (i + 3 >= end) return null;
+        for (LogLevel level : LEVELS) {
+            String name = level.name();
+            if (i + name.length() <= end && matches(b, i, name)) {
+                return level;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Decode one entry (header line plus continuation lines)
+     */
+    static LogEvent toEvent(long sequence, byte[] b, int off, int len, ZoneId defaultZone) {
+        String text = new String(b, off, len, StandardCharsets.UTF_8);
+        int lineEnd = text.indexOf('\n');
+        String header = lineEnd < 0 ? text : text.substring(0, lineEnd);
+        String continuation = lineEnd < 0 ? "" : text.substring(lineEnd).stripTrailing();
+
+        LogLevel level = level(b, off, Math.min(len, HEADER_BYTES));
+        String thread = null;
+        String logger = null;
+        String message = header;
+
+        int separator = header.indexOf(" : ");
+        if (separator > 0) {
+            message = header.substring(separator + 3);
+            int threadEnd = header.lastIndexOf(']', separator);
+            int threadStart = threadEnd > 0 ? header.lastIndexOf('[', threadEnd) : -1;
+            if (threadStart >= 0) {
+                thread = header.substring(threadStart + 1, threadEnd).trim();
+                logger = header.substring(threadEnd + 1, separator).trim();
+            }
+        }
+
+        return new LogEvent(
+                sequence,
+                Instant.ofEpochMilli(timestamp(b, off, Math.min(len, HEADER_BYTES), defaultZone)),
+                level != null ? level.name() : null,
+                logger,
+                thread,
+                (message + continuation).stripTrailing());
+    }
+
+    private static boolean matches(byte[] b, int off, String word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (b[off + i] != word.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private static boolean isDigit(byte c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static int digits(byte[] b, int off, int count) {
+        int value = 0;
+        for (int i = off; i < off + count; i++) {
+            if (!isDigit(b[i])) throw new IllegalArgumentException("Not a digit");
+            value = value * 10 + (b[i] - '0');
+        }
+        return value;
+    }
+}
@@ -0,0 +1,89 @@
+package com.buzzlink.logging;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-size, lock-free ring of the most recent log events
+ *
+ * Writers claim a slot index with one atomic increment and publish with a
+ * volatile array store, so logging threads never block each other. Each slot
+ * remembers the index it was written for. Snapshot readers skip slots that
+ * have been lapped or are still being written; cursor readers stop at the
+ * first slot still being written and pick it up on their next read.
+ */
+final class LogRingBuffer {
+
+    private record Slot(long index, LogEvent event) {
+    }
+
+    /**
+     * Events read from a cursor, oldest first, and where the next read starts
+     */
+    record Batch(List<LogEvent> events, long nextIndex) {
+    }
+
+    private final AtomicReferenceArray<Slot> slots;
+    private final int mask;
+    private final AtomicLong writeIndex = new AtomicLong();
+
+    LogRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    void add(LogEvent event) {
+        long index = writeIndex.getAndIncrement();
+        slots.set((int) (index & mask), new Slot(index, event));
+    }
+
+    /**
+     * Index the next event will be written at
+     */
+    long head() {
+        return writeIndex.get();
+    }
+
+    /**
+     * Up to limit of the most recent events, newest first
+     */
+    List<LogEvent> newest(int limit) {
+        List<LogEvent> result = new ArrayList<>(Math.min(limit, slots.length()));
+        long head = writeIndex.get();
+        long oldest = Math.max(0, head - slots.length());
+        for (long index = head - 1; index >= oldest && result.size() < limit; index--) {
+            Slot slot = slots.get((int) (index & mask));
+            if (slot == null || slot.index() != index) continue;
+            result.add(slot.event());
+        }
+        return result;
+    }
+
+    /**
+     * Up to limit events from index fromIndex on, oldest first
+     *
+     * Stops at the first claimed but unpublished slot, so a reader never moves
+     * past an event it has not seen. Events already overwritten are skipped.
+     */
+    Batch readFrom(long fromIndex, int limit) {
+        List<LogEvent> events = new ArrayList<>();
+        long index = Math.max(fromIndex, writeIndex.get() - slots.length());
+        while (events.size() < limit && index < writeIndex.get()) {
+            Slot slot = slots.get((int) (index & mask));
+            if (slot == null || slot.index() < index) {
+                break;
+            }
+            if (slot.index() > index) {
+                // Lapped while reading; resume at the oldest event still held
+                index = Math.max(index + 1, writeIndex.get() - slots.length());
+                continue;
+            }
+            events.add(slot.event());
+            index++;
+        }
+        return new Batch(events, index);
+    }
+}
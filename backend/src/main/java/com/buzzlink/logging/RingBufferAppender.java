@@ -0,0 +1,144 @@
+package com.buzzlink.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logback appender that keeps the most recent events of each level in memory
+ *
+ * One ring per level means a burst of DEBUG output cannot push recent errors
+ * out of the buffer, and a single-level tail is a straight O(limit) walk.
+ * Extends UnsynchronizedAppenderBase so appending takes no lock.
+ *
+ * Live readers follow each ring by slot index rather than by global sequence:
+ * sequences are taken before slots are claimed, so they can land in a ring out
+ * of order.
+ */
+public class RingBufferAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+
+    public enum LogLevel { ERROR, WARN, INFO, DEBUG, TRACE }
+
+    private static final int MAX_MESSAGE_LENGTH = 8192;
+
+    private final Map<LogLevel, LogRingBuffer> rings = new EnumMap<>(LogLevel.class);
+    private final AtomicLong sequence = new AtomicLong();
+
+    public RingBufferAppender(int capacityPerLevel) {
+        for (LogLevel level : LogLevel.values()) {
+            rings.put(level, new LogRingBuffer(capacityPerLevel));
+        }
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        LogLevel level = toLogLevel(event.getLevel());
+        rings.get(level).add(new LogEvent(
+                sequence.incrementAndGet(),
+                Instant.ofEpochMilli(event.getTimeStamp()),
+                level.name(),
+                event.getLoggerName(),
+                event.getThreadName(),
+                render(event)));
+    }
+
+    /**
+     * A reader positioned after the events captured so far
+     *
+     * @param level a single level, or null for every level
+     */
+    public Follower follow(LogLevel level) {
+        return new Follower(level);
+    }
+
+    /**
+     * Up to limit of the most recent events, oldest first
+     *
+     * @param level a single level, or null for every level
+     */
+    public List<LogEvent> tail(LogLevel level, int limit) {
+        List<LogEvent> newestFirst;
+        if (level != null) {
+            newestFirst = rings.get(level).newest(limit);
+        } else {
+            // Each ring is already newest-first, so limit per ring bounds the merge at O(levels * limit)
+            newestFirst = new ArrayList<>();
+            for (LogRingBuffer ring : rings.values()) {
+                newestFirst.addAll(ring.newest(limit));
+            }
+            newestFirst.sort(Comparator.comparingLong(LogEvent::sequence).reversed());
+            if (newestFirst.size() > limit) {
+                newestFirst = new ArrayList<>(newestFirst.subList(0, limit));
+            }
+        }
+
+        List<LogEvent> oldestFirst = new ArrayList<>(newestFirst.size());
+        for (int i = newestFirst.size() - 1; i >= 0; i--) {
+            oldestFirst.add(newestFirst.get(i));
+        }
+        return oldestFirst;
+    }
+
+    /**
+     * Cursor over one level's ring (or all of them); not thread-safe, poll from one thread at a time
+     */
+    public final class Follower {
+
+        private final Map<LogLevel, Long> nextIndex = new EnumMap<>(LogLevel.class);
+
+        private Follower(LogLevel level) {
+            for (LogLevel ringLevel : LogLevel.values()) {
+                if (level == null || level == ringLevel) {
+                    nextIndex.put(ringLevel, rings.get(ringLevel).head());
+                }
+            }
+        }
+
+        /**
+         * Events published since the last poll, up to limit per level, oldest first
+         */
+        public List<LogEvent> poll(int limit) {
+            List<LogEvent> events = new ArrayList<>();
+            for (Map.Entry<LogLevel, Long> cursor : nextIndex.entrySet()) {
+                LogRingBuffer.Batch batch = rings.get(cursor.getKey()).readFrom(cursor.getValue(), limit);
+                events.addAll(batch.events());
+                cursor.setValue(batch.nextIndex());
+            }
+            if (nextIndex.size() > 1) {
+                events.sort(Comparator.comparingLong(LogEvent::sequence));
+            }
+            return events;
+        }
+    }
+
+    private static LogLevel toLogLevel(Level level) {
+        return switch (level.toInt()) {
+            case Level.ERROR_INT -> LogLevel.ERROR;
+            case Level.WARN_INT -> LogLevel.WARN;
+            case Level.INFO_INT -> LogLevel.INFO;
+            case Level.DEBUG_INT -> LogLevel.DEBUG;
+            default -> LogLevel.TRACE;
+        };
+    }
+
+    private static String render(ILoggingEvent event) {
+        String message = event.getFormattedMessage();
+        IThrowableProxy throwable = event.getThrowableProxy();
+        if (throwable != null) {
+            message = message + " | " + throwable.getClassName() + ": " + throwable.getMessage();
+        }
+        if (message != null && message.length() > MAX_MESSAGE_LENGTH) {
+            message = message.substring(0, MAX_MESSAGE_LENGTH) + "…";
+        }
+        return message;
+    }
+}
@@ -0,0 +1,25 @@
+package com.buzzlink.repository;
+
+import com.buzzlink.entity.ActiveUserSketch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ActiveUserSketchRepository extends JpaRepository<ActiveUserSketch, Long> {
+
+    Optional<ActiveUserSketch> findByStatDateAndWorkspaceId(LocalDate statDate, Long workspaceId);
+
+    /**
+     * All sketches (every workspace and the global one) since the given date
+     */
+    List<ActiveUserSketch> findByStatDateGreaterThanEqual(LocalDate from);
+
+    /**
+     * One scope's sketches in a date range (inclusive), for windows older than the in-memory cache
+     */
+    List<ActiveUserSketch> findByWorkspaceIdAndStatDateBetween(Long workspaceId, LocalDate from, LocalDate to);
+}
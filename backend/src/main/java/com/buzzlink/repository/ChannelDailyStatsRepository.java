@@ -0,0 +1,46 @@
+package com.buzzlink.repository;
+
+import com.buzzlink.entity.ChannelDailyStats;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ChannelDailyStatsRepository extends JpaRepository<ChannelDailyStats, Long> {
+
+    /**
+     * Add delta to an existing day row; returns 0 if the row does not exist yet
+     */
+    @Modifying
+    @Query("UPDATE ChannelDailyStats s SET s.messageCount = s.messageCount + :delta " +
+           "WHERE s.statDate = :statDate AND s.channelId = :channelId")
+    int increment(@Param("statDate") LocalDate statDate, @Param("channelId") Long channelId, @Param("delta") long delta);
+
+    /**
+     * Rebuild rows from the messages table (used by the backfill job)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO channel_daily_stats (stat_date, channel_id, message_count) " +
+           "SELECT CAST(m.created_at AS DATE), m.channel_id, COUNT(*) FROM messages m " +
+           "WHERE m.id <= :maxMessageId " +
+           "GROUP BY CAST(m.created_at AS DATE), m.channel_id", nativeQuery = true)
+    int backfillFromMessages(@Param("maxMessageId") long maxMessageId);
+
+    /**
+     * Channel ids with their all-time message totals, busiest first: [channelId, total]
+     */
+    @Query("SELECT s.channelId, SUM(s.messageCount) FROM ChannelDailyStats s " +
+           "GROUP BY s.channelId ORDER BY SUM(s.messageCount) DESC")
+    List<Object[]> findTopChannels(Pageable pageable);
+
+    /**
+     * Per-channel day rows since the given date (used to rebuild the in-memory top-k sketches)
+     */
+    List<ChannelDailyStats> findByStatDateGreaterThanEqual(LocalDate from);
+}
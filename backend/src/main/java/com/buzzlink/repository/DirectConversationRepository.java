@@ -0,0 +1,81 @@
+package com.buzzlink.repository;
+
+import com.buzzlink.entity.DirectConversation;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DirectConversationRepository extends JpaRepository<DirectConversation, Long> {
+
+    /**
+     * Lock a pair's summary row for the rest of the transaction (lowId <= highId)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM DirectConversation c WHERE c.userLow.id = :lowId AND c.userHigh.id = :highId")
+    Optional<DirectConversation> findPairForUpdate(@Param("lowId") Long lowId, @Param("highId") Long highId);
+
+    /**
+     * Create a pair's empty summary row unless it exists (PostgreSQL)
+     * A concurrent insert of the same pair is skipped rather than failing the
+     * transaction. The native-space hint keeps this per-DM statement from
+     * invalidating the second-level cache.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO dm_conversations (user_low_id, user_high_id, low_unread_count, high_unread_count, " +
+           "created_at) VALUES (:lowId, :highId, 0, 0, CURRENT_TIMESTAMP) " +
+           "ON CONFLICT (user_low_id, user_high_id) DO NOTHING", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "dm_conversations"))
+    int insertPairIfAbsent(@Param("lowId") Long lowId, @Param("highId") Long highId);
+
+    /**
+     * Same as insertPairIfAbsent for databases without ON CONFLICT (H2 in development)
+     */
+    @Modifying
+    @Query(value = "MERGE INTO dm_conversations c USING (SELECT CAST(:lowId AS BIGINT) AS low_id, " +
+           "CAST(:highId AS BIGINT) AS high_id) p ON (c.user_low_id = p.low_id AND c.user_high_id = p.high_id) " +
+           "WHEN NOT MATCHED THEN INSERT (user_low_id, user_high_id, low_unread_count, high_unread_count, created_at) " +
+           "VALUES (p.low_id, p.high_id, 0, 0, CURRENT_TIMESTAMP)", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "dm_conversations"))
+    int mergePairIfAbsent(@Param("lowId") Long lowId, @Param("highId") Long highId);
+
+    /**
+     * Every conversation of a user with both participants loaded, most recent first
+     */
+    @Query("SELECT c FROM DirectConversation c JOIN FETCH c.userLow JOIN FETCH c.userHigh " +
+           "WHERE (c.userLow.id = :userId OR c.userHigh.id = :userId) AND c.lastMessageId IS NOT NULL " +
+           "ORDER BY c.lastMessageAt DESC")
+    List<DirectConversation> findForUser(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE DirectConversation c SET c.lowUnreadCount = 0 WHERE c.userLow.id = :userId AND c.userHigh.id = :otherUserId")
+    int clearLowUnread(@Param("userId") Long userId, @Param("otherUserId") Long otherUserId);
+
+    @Modifying
+    @Query("UPDATE DirectConversation c SET c.highUnreadCount = 0 WHERE c.userHigh.id = :userId AND c.userLow.id = :otherUserId")
+    int clearHighUnread(@Param("userId") Long userId, @Param("otherUserId") Long otherUserId);
+
+    /**
+     * Build a summary for every pair from its latest message (unread counts start at zero)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO dm_conversations (user_low_id, user_high_id, last_message_id, last_sender_id, " +
+           "last_message_preview, last_message_type, last_message_at, low_unread_count, high_unread_count, created_at) " +
+           "SELECT LEAST(d.sender_id, d.recipient_id), GREATEST(d.sender_id, d.recipient_id), d.id, d.sender_id, " +
+           "CAST(SUBSTRING(d.content, 1, 200) AS VARCHAR(200)), d.type, d.created_at, 0, 0, CURRENT_TIMESTAMP " +
+           "FROM direct_messages d WHERE d.id IN (" +
+           "  SELECT MAX(id) FROM direct_messages " +
+           "  GROUP BY LEAST(sender_id, recipient_id), GREATEST(sender_id, recipient_id))",
+           nativeQuery = true)
+    int backfillFromDirectMessages();
+}
@@ -3,32 +3,49 @@ package com.buzzlink.repository;
 import com.buzzlink.entity.DirectMessage;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface DirectMessageRepository extends JpaRepository<DirectMessage, Long> {
 
-    // Get conversation between two users
-    @Query("SELECT dm FROM DirectMessage dm WHERE " +
-           "(dm.sender.id = :userId1 AND dm.recipient.id = :userId2) OR " +
-           "(dm.sender.id = :userId2 AND dm.recipient.id = :userId1) " +
-           "ORDER BY dm.createdAt DESC")
-    List<DirectMessage> findConversation(@Param("userId1") Long userId1,
-                                         @Param("userId2") Long userId2,
+    // Latest messages of a conversation (lowId <= highId), newest first
+    @Query("SELECT dm FROM DirectMessage dm WHERE dm.userLowId = :lowId AND dm.userHighId = :highId " +
+           "ORDER BY dm.createdAt DESC, dm.id DESC")
+    List<DirectMessage> findConversation(@Param("lowId") Long lowId,
+                                         @Param("highId") Long highId,
                                          Pageable pageable);
 
-    // Get all conversation partners for a user (users they've messaged with)
-    @Query(value = "SELECT DISTINCT u.* FROM users u " +
-           "WHERE u.id IN (" +
-           "  SELECT DISTINCT recipient_id FROM direct_messages WHERE sender_id = :userId " +
-           "  UNION " +
-           "  SELECT DISTINCT sender_id FROM direct_messages WHERE recipient_id = :userId AND sender_id != :userId" +
-           ")", nativeQuery = true)
-    List<com.buzzlink.entity.User> findConversationPartners(@Param("userId") Long userId);
+    // Messages older than the cursor (createdAt, id), newest first
+    @Query("SELECT dm FROM DirectMessage dm WHERE dm.userLowId = :lowId AND dm.userHighId = :highId " +
+           "AND (dm.createdAt, dm.id) < (:createdAt, :id) " +
+           "ORDER BY dm.createdAt DESC, dm.id DESC")
+    List<DirectMessage> findConversationBefore(@Param("lowId") Long lowId,
+                                               @Param("highId") Long highId,
+                                               @Param("createdAt") LocalDateTime createdAt,
+                                               @Param("id") Long id,
+                                               Pageable pageable);
+
+    // Messages newer than the cursor (createdAt, id), oldest first
+    @Query("SELECT dm FROM DirectMessage dm WHERE dm.userLowId = :lowId AND dm.userHighId = :highId " +
+           "AND (dm.createdAt, dm.id) > (:createdAt, :id) " +
+           "ORDER BY dm.createdAt ASC, dm.id ASC")
+    List<DirectMessage> findConversationAfter(@Param("lowId") Long lowId,
+                                              @Param("highId") Long highId,
+                                              @Param("createdAt") LocalDateTime createdAt,
+                                              @Param("id") Long id,
+                                              Pageable pageable);
+
+    // Fill the conversation key on rows written before it existed (or by bulk loaders)
+    @Modifying
+    @Query(value = "UPDATE direct_messages SET user_low_id = LEAST(sender_id, recipient_id), " +
+           "user_high_id = GREATEST(sender_id, recipient_id) WHERE user_low_id IS NULL", nativeQuery = true)
+    int backfillConversationKeys();
 
     // Get recent DMs for a user
     @Query("SELECT dm FROM DirectMessage dm WHERE dm.sender.id = :userId OR dm.recipient.id = :userId " +
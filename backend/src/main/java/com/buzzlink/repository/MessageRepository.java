@@ -2,12 +2,16 @@ package com.buzzlink.repository;
 
 import com.buzzlink.entity.Channel;
 import com.buzzlink.entity.Message;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface MessageRepository extends JpaRepository<Message, Long> {
@@ -45,4 +49,18 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
      * Count messages by sender (for admin dashboard)
      */
     long countBySender(com.buzzlink.entity.User sender);
+
+    /**
+     * Highest message id (0 if empty), used as the backfill watermark
+     */
+    @Query("SELECT COALESCE(MAX(m.id), 0) FROM Message m")
+    long findMaxId();
+
+    /**
+     * Every message as [createdAt, workspaceId, senderId], streamed with a large fetch size.
+     * Used to rebuild the active-user sketches; must be consumed inside a transaction.
+     */
+    @Query("SELECT m.createdAt, c.workspace.id, m.sender.id FROM Message m JOIN m.channel c")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    Stream<Object[]> streamSenderActivity();
 }
@@ -1,38 +1,57 @@
 package com.buzzlink.repository;
 
 import com.buzzlink.entity.Notification;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
 
-    // Get all notifications for a user, ordered by most recent first
-    List<Notification> findByUserClerkIdOrderByCreatedAtDesc(String clerkId);
-
-    // Get unread notifications for a user
-    List<Notification> findByUserClerkIdAndIsReadFalseOrderByCreatedAtDesc(String clerkId);
+    // Newest notifications for a user (idx_user_created)
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findPage(@Param("userId") Long userId, Pageable pageable);
+
+    // Notifications older than the cursor (createdAt, id)
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId AND (n.createdAt, n.id) < (:createdAt, :id) " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findPageBefore(@Param("userId") Long userId,
+                                      @Param("createdAt") LocalDateTime createdAt,
+                                      @Param("id") Long id,
+                                      Pageable pageable);
+
+    // Newest notifications with the given read flag (idx_user_read_created)
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId AND n.isRead = :isRead " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findPageByRead(@Param("userId") Long userId,
+                                      @Param("isRead") Boolean isRead,
+                                      Pageable pageable);
+
+    // Notifications with the given read flag older than the cursor (createdAt, id)
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId AND n.isRead = :isRead " +
+           "AND (n.createdAt, n.id) < (:createdAt, :id) ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findPageByReadBefore(@Param("userId") Long userId,
+                                            @Param("isRead") Boolean isRead,
+                                            @Param("createdAt") LocalDateTime createdAt,
+                                            @Param("id") Long id,
+                                            Pageable pageable);
 
     // Count unread notifications for a user
     Long countByUserClerkIdAndIsReadFalse(String clerkId);
 
     // Mark a notification as read
     @Modifying
-    @Query("UPDATE Notification n SET n.isRead = true WHERE n.id = :notificationId AND n.user.clerkId = :clerkId")
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.id = :notificationId AND n.user.clerkId = :clerkId AND n.isRead = false")
     int markAsRead(@Param("notificationId") Long notificationId, @Param("clerkId") String clerkId);
 
     // Mark all notifications as read for a user
     @Modifying
     @Query("UPDATE Notification n SET n.isRead = true WHERE n.user.clerkId = :clerkId AND n.isRead = false")
     int markAllAsRead(@Param("clerkId") String clerkId);
-
-    // Delete old read notifications (optional cleanup)
-    @Modifying
-    @Query("DELETE FROM Notification n WHERE n.user.clerkId = :clerkId AND n.isRead = true AND n.createdAt < :cutoffDate")
-    int deleteOldReadNotifications(@Param("clerkId") String clerkId, @Param("cutoffDate") java.time.LocalDateTime cutoffDate);
 }
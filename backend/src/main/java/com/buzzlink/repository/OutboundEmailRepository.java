@@ -0,0 +1,51 @@
+package com.buzzlink.repository;
+
+import com.buzzlink.entity.OutboundEmail;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboundEmailRepository extends JpaRepository<OutboundEmail, Long> {
+
+    /**
+     * Lock the next due emails, skipping rows another worker has already locked
+     * (PENDING rows whose retry time has come, and SENDING rows whose lease expired)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM OutboundEmail e WHERE e.status IN :statuses AND e.nextAttemptAt <= :now " +
+           "ORDER BY e.nextAttemptAt")
+    List<OutboundEmail> findDueForUpdate(@Param("statuses") List<OutboundEmail.Status> statuses,
+                                         @Param("now") LocalDateTime now,
+                                         Pageable pageable);
+
+    long countByStatus(OutboundEmail.Status status);
+
+    @Modifying
+    @Query("UPDATE OutboundEmail e SET e.status = com.buzzlink.entity.OutboundEmail.Status.SENT, " +
+           "e.attempts = e.attempts + 1, e.sentAt = :now, e.lastError = null WHERE e.id IN :ids")
+    int markSent(@Param("ids") List<Long> ids, @Param("now") LocalDateTime now);
+
+    // Put dead emails back in the queue with a fresh retry budget
+    @Modifying
+    @Query("UPDATE OutboundEmail e SET e.status = com.buzzlink.entity.OutboundEmail.Status.PENDING, " +
+           "e.attempts = 0, e.nextAttemptAt = :now WHERE e.status = com.buzzlink.entity.OutboundEmail.Status.DEAD")
+    int requeueDead(@Param("now") LocalDateTime now);
+
+    // Forget delivered emails older than the cutoff
+    @Modifying
+    @Query("DELETE FROM OutboundEmail e WHERE e.status = com.buzzlink.entity.OutboundEmail.Status.SENT " +
+           "AND e.sentAt < :cutoff")
+    int deleteSentBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,53 @@
+package com.buzzlink.repository;
+
+import com.buzzlink.entity.UserDailyStats;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface UserDailyStatsRepository extends JpaRepository<UserDailyStats, Long> {
+
+    /**
+     * Add delta to an existing day row; returns 0 if the row does not exist yet
+     */
+    @Modifying
+    @Query("UPDATE UserDailyStats s SET s.messageCount = s.messageCount + :delta " +
+           "WHERE s.statDate = :statDate AND s.userId = :userId")
+    int increment(@Param("statDate") LocalDate statDate, @Param("userId") Long userId, @Param("delta") long delta);
+
+    /**
+     * Rebuild rows from the messages table (used by the backfill job)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO user_daily_stats (stat_date, user_id, message_count) " +
+           "SELECT CAST(m.created_at AS DATE), m.sender_id, COUNT(*) FROM messages m " +
+           "WHERE m.id <= :maxMessageId " +
+           "GROUP BY CAST(m.created_at AS DATE), m.sender_id", nativeQuery = true)
+    int backfillFromMessages(@Param("maxMessageId") long maxMessageId);
+
+    /**
+     * User ids with their all-time message totals, most active first: [userId, total]
+     */
+    @Query("SELECT s.userId, SUM(s.messageCount) FROM UserDailyStats s " +
+           "GROUP BY s.userId ORDER BY SUM(s.messageCount) DESC")
+    List<Object[]> findTopUsers(Pageable pageable);
+
+    /**
+     * Users whose all-time total exceeds the threshold: [userId, total]
+     */
+    @Query("SELECT s.userId, SUM(s.messageCount) FROM UserDailyStats s " +
+           "GROUP BY s.userId HAVING SUM(s.messageCount) > :threshold")
+    List<Object[]> findUserTotalsAbove(@Param("threshold") long threshold);
+
+    /**
+     * Per-user day rows since the given date (used to rebuild the in-memory top-k sketches)
+     */
+    List<UserDailyStats> findByStatDateGreaterThanEqual(LocalDate from);
+}
@@ -1,20 +1,35 @@
 package com.buzzlink.repository;
 
+import com.buzzlink.config.CacheRegions;
+import com.buzzlink.dto.AdminUserDTO;
 import com.buzzlink.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
     /**
      * Find user by Clerk ID (used for authentication mapping)
+     * The id is served from the query cache and the user from the entity cache.
      */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.USER_LOOKUPS)
+    })
     Optional<User> findByClerkId(String clerkId);
 
     /**
@@ -27,9 +42,95 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     Optional<User> findByEmail(String email);
 
+    /**
+     * Users with any of the given lower-case emails as [id, clerkId, email] (bulk invitations)
+     * Matches case-insensitively; on PostgreSQL idx_users_email_lower serves the LOWER(email) lookup.
+     */
+    @Query("SELECT u.id, u.clerkId, u.email FROM User u WHERE LOWER(u.email) IN :emails")
+    List<Object[]> findIdentitiesByEmailIn(@Param("emails") Collection<String> emails);
+
     /**
      * Search users by display name or email (case-insensitive)
      */
     @Query("SELECT u FROM User u WHERE LOWER(u.displayName) LIKE LOWER(CONCAT('%', :query, '%')) OR LOWER(u.email) LIKE LOWER(CONCAT('%', :query, '%'))")
-    List<User> searchUsers(@Param("query") String query);
+    List<User> searchUsers(@Param("query") String query, Pageable pageable);
+
+    /**
+     * Search members of one workspace by display name or email (case-insensitive)
+     */
+    @Query("SELECT u FROM UserWorkspaceMember uwm JOIN uwm.user u WHERE uwm.workspace.id = :workspaceId AND " +
+           "(LOWER(u.displayName) LIKE LOWER(CONCAT('%', :query, '%')) OR LOWER(u.email) LIKE LOWER(CONCAT('%', :query, '%')))")
+    List<User> searchWorkspaceMembers(@Param("query") String query, @Param("workspaceId") Long workspaceId,
+                                      Pageable pageable);
+
+    /**
+     * Every user as [id, displayName, email], streamed with a large fetch size.
+     * Used to build the in-memory search index; must be consumed inside a transaction.
+     */
+    @Query("SELECT u.id, u.displayName, u.email FROM User u")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    Stream<Object[]> streamSearchFields();
+
+    /**
+     * Count users by banned flag (system stats reconciliation)
+     */
+    long countByIsBanned(Boolean isBanned);
+
+    /**
+     * Count users by admin flag (system stats reconciliation)
+     */
+    long countByIsAdmin(Boolean isAdmin);
+
+    /**
+     * Admin listing: case-insensitive name/email pattern plus optional banned/admin flags
+     * Projected rather than loading entities, so the counters are read from the row, never a cached User.
+     *
+     * @param pattern lower-case LIKE pattern ("%" matches everyone)
+     */
+    @Query(value = "SELECT new com.buzzlink.dto.AdminUserDTO(u.id, u.clerkId, u.displayName, u.email, u.avatarUrl, " +
+           "u.isAdmin, u.isBanned, u.createdAt, u.messageCount, u.directMessageCount) FROM User u " +
+           "WHERE (LOWER(u.displayName) LIKE :pattern OR LOWER(u.email) LIKE :pattern) " +
+           "AND (:banned IS NULL OR u.isBanned = :banned) AND (:admin IS NULL OR u.isAdmin = :admin)",
+           countQuery = "SELECT COUNT(u) FROM User u " +
+           "WHERE (LOWER(u.displayName) LIKE :pattern OR LOWER(u.email) LIKE :pattern) " +
+           "AND (:banned IS NULL OR u.isBanned = :banned) AND (:admin IS NULL OR u.isAdmin = :admin)")
+    Page<AdminUserDTO> findForAdmin(@Param("pattern") String pattern,
+                            @Param("banned") Boolean banned,
+                            @Param("admin") Boolean admin,
+                            Pageable pageable);
+
+    /**
+     * Atomically adjust a user's channel message counter
+     * The counter columns are never read from cached users, so the native-space hint keeps this
+     * per-message UPDATE from invalidating the user caches (without it Hibernate clears every region).
+     */
+    @Modifying
+    @Query(value = "UPDATE users SET message_count = message_count + :delta WHERE id = :userId", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_message_counters"))
+    int incrementMessageCount(@Param("userId") Long userId, @Param("delta") long delta);
+
+    /**
+     * Atomically adjust a user's direct message counter
+     */
+    @Modifying
+    @Query(value = "UPDATE users SET direct_message_count = direct_message_count + :delta WHERE id = :userId",
+           nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_message_counters"))
+    int incrementDirectMessageCount(@Param("userId") Long userId, @Param("delta") long delta);
+
+    /**
+     * Sum of every user's counters (0 on a database that predates them)
+     */
+    @Query("SELECT COALESCE(SUM(u.messageCount + u.directMessageCount), 0) FROM User u")
+    long sumMessageCounters();
+
+    /**
+     * Recompute both counters from the message tables (after bulk imports)
+     */
+    @Modifying
+    @Query(value = "UPDATE users SET " +
+           "message_count = (SELECT COUNT(*) FROM messages m WHERE m.sender_id = users.id), " +
+           "direct_message_count = (SELECT COUNT(*) FROM direct_messages d WHERE d.sender_id = users.id)",
+           nativeQuery = true)
+    int recountMessageCounters();
 }
@@ -1,13 +1,21 @@
 package com.buzzlink.repository;
 
+import com.buzzlink.config.CacheRegions;
+import com.buzzlink.dto.WorkspaceMemberDTO;
 import com.buzzlink.entity.UserWorkspaceMember;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserWorkspaceMemberRepository extends JpaRepository<UserWorkspaceMember, Long> {
@@ -15,12 +23,45 @@ public interface UserWorkspaceMemberRepository extends JpaRepository<UserWorkspa
     @Query("SELECT uwm FROM UserWorkspaceMember uwm WHERE uwm.user.id = :userId")
     List<UserWorkspaceMember> findByUserId(@Param("userId") Long userId);
 
+    @Query("SELECT uwm.workspace.id FROM UserWorkspaceMember uwm WHERE uwm.user.id = :userId")
+    List<Long> findWorkspaceIdsByUserId(@Param("userId") Long userId);
+
     @Query("SELECT uwm FROM UserWorkspaceMember uwm WHERE uwm.workspace.id = :workspaceId")
     List<UserWorkspaceMember> findByWorkspaceId(@Param("workspaceId") Long workspaceId);
 
     @Query("SELECT uwm FROM UserWorkspaceMember uwm WHERE uwm.user.id = :userId AND uwm.workspace.id = :workspaceId")
     Optional<UserWorkspaceMember> findByUserIdAndWorkspaceId(@Param("userId") Long userId, @Param("workspaceId") Long workspaceId);
 
+    // Which of the given users already belong to the workspace
+    @Query("SELECT uwm.user.id FROM UserWorkspaceMember uwm WHERE uwm.workspace.id = :workspaceId AND uwm.user.id IN :userIds")
+    List<Long> findMemberUserIds(@Param("workspaceId") Long workspaceId, @Param("userIds") Collection<Long> userIds);
+
+    // A user's role in a workspace, if they are a member (users.clerk_id and the (user_id, workspace_id) key)
+    // Query-cached; JDBC inserts that bypass Hibernate must evict the region (see BulkInvitationService)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.MEMBERSHIP_ROLES)
+    })
+    @Query("SELECT uwm.role FROM UserWorkspaceMember uwm WHERE uwm.user.clerkId = :clerkId AND uwm.workspace.id = :workspaceId")
+    Optional<UserWorkspaceMember.Role> findRole(@Param("clerkId") String clerkId, @Param("workspaceId") Long workspaceId);
+
+    // A page of members ordered by user id, after the given user id (idx_member_workspace_user)
+    @Query("SELECT new com.buzzlink.dto.WorkspaceMemberDTO(u.id, u.clerkId, u.displayName, u.email, u.avatarUrl, uwm.role) " +
+           "FROM UserWorkspaceMember uwm JOIN uwm.user u " +
+           "WHERE uwm.workspace.id = :workspaceId AND u.id > :afterUserId AND u.clerkId <> :excludeClerkId ORDER BY u.id")
+    List<WorkspaceMemberDTO> findMemberPage(@Param("workspaceId") Long workspaceId,
+                                            @Param("afterUserId") Long afterUserId,
+                                            @Param("excludeClerkId") String excludeClerkId,
+                                            Pageable pageable);
+
     @Query("SELECT uwm FROM UserWorkspaceMember uwm WHERE uwm.user.clerkId = :clerkId")
     List<UserWorkspaceMember> findByUserClerkId(@Param("clerkId") String clerkId);
+
+    /**
+     * Every membership as [userId, workspaceId], streamed with a large fetch size.
+     * Used to build the in-memory search index; must be consumed inside a transaction.
+     */
+    @Query("SELECT uwm.user.id, uwm.workspace.id FROM UserWorkspaceMember uwm")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    Stream<Object[]> streamMemberships();
 }
@@ -0,0 +1,67 @@
+package com.buzzlink.repository;
+
+import com.buzzlink.entity.WorkspaceDailyStats;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface WorkspaceDailyStatsRepository extends JpaRepository<WorkspaceDailyStats, Long> {
+
+    /**
+     * Add delta to an existing day row; returns 0 if the row does not exist yet
+     */
+    @Modifying
+    @Query("UPDATE WorkspaceDailyStats s SET s.messageCount = s.messageCount + :delta " +
+           "WHERE s.statDate = :statDate AND s.workspaceId = :workspaceId")
+    int increment(@Param("statDate") LocalDate statDate, @Param("workspaceId") Long workspaceId, @Param("delta") long delta);
+
+    /**
+     * Rebuild rows from the messages table (used by the backfill job)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO workspace_daily_stats (stat_date, workspace_id, message_count) " +
+           "SELECT CAST(m.created_at AS DATE), c.workspace_id, COUNT(*) FROM messages m " +
+           "JOIN channels c ON c.id = m.channel_id " +
+           "WHERE m.id <= :maxMessageId " +
+           "GROUP BY CAST(m.created_at AS DATE), c.workspace_id", nativeQuery = true)
+    int backfillFromMessages(@Param("maxMessageId") long maxMessageId);
+
+    /**
+     * Total messages across all workspaces
+     */
+    @Query("SELECT COALESCE(SUM(s.messageCount), 0) FROM WorkspaceDailyStats s")
+    long sumMessageCount();
+
+    /**
+     * Messages per day since the given date: [statDate, total]
+     */
+    @Query("SELECT s.statDate, SUM(s.messageCount) FROM WorkspaceDailyStats s " +
+           "WHERE s.statDate >= :from GROUP BY s.statDate")
+    List<Object[]> sumByDaySince(@Param("from") LocalDate from);
+
+    /**
+     * Messages per day across the whole history: [statDate, total].
+     * One row per day, so it yields both the grand total and the timeline.
+     */
+    @Query("SELECT s.statDate, SUM(s.messageCount) FROM WorkspaceDailyStats s GROUP BY s.statDate")
+    List<Object[]> sumByDay();
+
+    /**
+     * Workspace ids with their all-time message totals, busiest first: [workspaceId, total]
+     */
+    @Query("SELECT s.workspaceId, SUM(s.messageCount) FROM WorkspaceDailyStats s " +
+           "GROUP BY s.workspaceId ORDER BY SUM(s.messageCount) DESC")
+    List<Object[]> findTopWorkspaces(Pageable pageable);
+
+    /**
+     * Per-workspace day rows since the given date (used to rebuild the in-memory top-k sketches)
+     */
+    List<WorkspaceDailyStats> findByStatDateGreaterThanEqual(LocalDate from);
+}
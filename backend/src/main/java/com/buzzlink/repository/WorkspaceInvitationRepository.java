@@ -2,8 +2,11 @@ package com.buzzlink.repository;
 
 import com.buzzlink.entity.WorkspaceInvitation;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,6 +28,15 @@ public interface WorkspaceInvitationRepository extends JpaRepository<WorkspaceIn
      */
     List<WorkspaceInvitation> findByWorkspaceId(Long workspaceId);
 
+    /**
+     * Which of the given emails already have an invitation with the given status for the workspace
+     */
+    @Query("SELECT i.email FROM WorkspaceInvitation i WHERE i.workspace.id = :workspaceId " +
+           "AND i.status = :status AND i.email IN :emails")
+    List<String> findInvitedEmails(@Param("workspaceId") Long workspaceId,
+                                   @Param("status") WorkspaceInvitation.Status status,
+                                   @Param("emails") Collection<String> emails);
+
     /**
      * Find pending invitation by email and workspace
      */
@@ -0,0 +1,371 @@
+package com.buzzlink.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory index over user display names and emails
+ *
+ * Every user occupies a slot; postings map terms to ascending slot lists.
+ * Terms are the trigrams of the lower-cased name and email (for substring
+ * queries of three or more characters) and the one- and two-character
+ * prefixes of each word (for the first keystrokes). A query intersects the
+ * postings of its terms, verifies the survivors against the actual strings
+ * and keeps the best K by rank:
+ *
+ *   0 name starts with the query, 1 a name word does,
+ *   2 email starts with it, 3 an email part does,
+ *   4 name contains it, 5 email contains it
+ *
+ * ties broken by shorter name, then name, then id.
+ *
+ * Updating a user's name or email moves it to a new slot and leaves a
+ * tombstone; postings are rebuilt once a quarter of the slots are dead.
+ * Reads share a read lock; writes take the write lock.
+ */
+public final class UserSearchIndex {
+
+    public record Hit(long userId, String displayName, String email, int rank) {
+    }
+
+    private record Doc(long userId, String displayName, String email,
+                       String nameKey, String emailKey, long[] workspaceIds) {
+    }
+
+    private static final long[] NO_WORKSPACES = new long[0];
+    private static final int MIN_COMPACT_TOMBSTONES = 1024;
+
+    private static final Comparator<Scored> WORST_FIRST = Comparator
+            .comparingInt(Scored::rank)
+            .thenComparingInt((Scored s) -> s.doc().nameKey().length())
+            .thenComparing((Scored s) -> s.doc().nameKey())
+            .thenComparingLong((Scored s) -> s.doc().userId())
+            .reversed();
+
+    private record Scored(Doc doc, int rank) {
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Doc[] docs = new Doc[1024];
+    private int slotCount;
+    private int tombstones;
+    private final Map<Long, Integer> slotByUser = new HashMap<>();
+    private final Map<Long, IntList> postings = new HashMap<>();
+
+    /**
+     * Add or update a user; a no-op if the name and email are unchanged
+     */
+    public void upsert(long userId, String displayName, String email) {
+        lock.writeLock().lock();
+        try {
+            put(userId, displayName, email, true);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add a user only if it is not indexed yet (bulk loads racing live updates)
+     */
+    public void load(long userId, String displayName, String email) {
+        lock.writeLock().lock();
+        try {
+            put(userId, displayName, email, false);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long userId) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotByUser.remove(userId);
+            if (slot != null) {
+                kill(slot);
+                compactIfNeeded();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Record that a user belongs to a workspace (ignored for unknown users)
+     */
+    public void addMembership(long userId, long workspaceId) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotByUser.get(userId);
+            if (slot == null) return;
+            Doc doc = docs[slot];
+            int at = Arrays.binarySearch(doc.workspaceIds(), workspaceId);
+            if (at >= 0) return;
+            int insert = -at - 1;
+            long[] workspaces = new long[doc.workspaceIds().length + 1];
+            System.arraycopy(doc.workspaceIds(), 0, workspaces, 0, insert);
+            workspaces[insert] = workspaceId;
+            System.arraycopy(doc.workspaceIds(), insert, workspaces, insert + 1, doc.workspaceIds().length - insert);
+            docs[slot] = withWorkspaces(doc, workspaces);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotByUser.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Best matches for query, best first
+     *
+     * @param workspaceId only users in this workspace, or null for everyone
+     */
+    public List<Hit> search(String query, Long workspaceId, int limit) {
+        String q = normalize(query);
+        if (q.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            int[] candidates = candidates(q);
+            PriorityQueue<Scored> top = new PriorityQueue<>(limit + 1, WORST_FIRST);
+            for (int slot : candidates) {
+                Doc doc = docs[slot];
+                if (doc == null) continue;
+                if (workspaceId != null && Arrays.binarySearch(doc.workspaceIds(), workspaceId) < 0) continue;
+                int rank = rank(doc, q);
+                if (rank < 0) continue;
+                if (top.size() == limit && rank > top.peek().rank()) continue;
+
+                Scored scored = new Scored(doc, rank);
+                if (top.size() < limit) {
+                    top.add(scored);
+                } else if (WORST_FIRST.compare(scored, top.peek()) > 0) {
+                    top.poll();
+                    top.add(scored);
+                }
+            }
+
+            List<Hit> hits = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                Scored scored = top.poll();
+                hits.add(new Hit(scored.doc().userId(), scored.doc().displayName(), scored.doc().email(), scored.rank()));
+            }
+            Collections.reverse(hits);
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int[] candidates(String q) {
+        if (q.length() < 3) {
+            IntList list = postings.get(prefixKey(q));
+            return list == null ? new int[0] : list.toArray();
+        }
+
+        Set<Long> keys = new HashSet<>();
+        for (int i = 0; i + 3 <= q.length(); i++) {
+            keys.add(trigramKey(q, i));
+        }
+        List<IntList> lists = new ArrayList<>(keys.size());
+        for (Long key : keys) {
+            IntList list = postings.get(key);
+            if (list == null) return new int[0];
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(IntList::size));
+
+        int[] result = lists.get(0).toArray();
+        int length = result.length;
+        for (int i = 1; i < lists.size() && length > 0; i++) {
+            length = intersect(result, length, lists.get(i));
+        }
+        return Arrays.copyOf(result, length);
+    }
+
+    /**
+     * Keep the first length entries of result that also occur in other; returns the new length
+     */
+    private static int intersect(int[] result, int length, IntList other) {
+        int[] values = other.values;
+        int size = other.size;
+        int kept = 0;
+        int j = 0;
+        for (int i = 0; i < length && j < size; i++) {
+            int target = result[i];
+            // Gallop: the smaller list usually skips far ahead in the larger one
+            int step = 1;
+            while (j + step < size && values[j + step] < target) {
+                j += step;
+                step <<= 1;
+            }
+            while (j < size && values[j] < target) j++;
+            if (j < size && values[j] == target) {
+                result[kept++] = target;
+                j++;
+            }
+        }
+        return kept;
+    }
+
+    private static int rank(Doc doc, String q) {
+        String name = doc.nameKey();
+        String email = doc.emailKey();
+        if (name.startsWith(q)) return 0;
+        if (startsWord(name, q)) return 1;
+        if (email.startsWith(q)) return 2;
+        if (startsWord(email, q)) return 3;
+        if (name.contains(q)) return 4;
+        if (email.contains(q)) return 5;
+        return -1;
+    }
+
+    private static boolean startsWord(String text, String q) {
+        for (int i = text.indexOf(q); i >= 0; i = text.indexOf(q, i + 1)) {
+            if (i == 0 || isSeparator(text.charAt(i - 1))) return true;
+        }
+        return false;
+    }
+
+    private void put(long userId, String displayName, String email, boolean replace) {
+        String nameKey = normalize(displayName);
+        String emailKey = normalize(email);
+        long[] workspaces = NO_WORKSPACES;
+
+        Integer existing = slotByUser.get(userId);
+        if (existing != null) {
+            Doc doc = docs[existing];
+            if (!replace || (doc.nameKey().equals(nameKey) && doc.emailKey().equals(emailKey))) {
+                if (replace) {
+                    docs[existing] = new Doc(userId, displayName, email, nameKey, emailKey, doc.workspaceIds());
+                }
+                return;
+            }
+            workspaces = doc.workspaceIds();
+            kill(existing);
+        }
+
+        Doc doc = new Doc(userId, displayName, email, nameKey, emailKey, workspaces);
+        slotByUser.put(userId, addSlot(doc));
+        compactIfNeeded();
+    }
+
+    private int addSlot(Doc doc) {
+        if (slotCount == docs.length) {
+            docs = Arrays.copyOf(docs, docs.length * 2);
+        }
+        int slot = slotCount++;
+        docs[slot] = doc;
+        for (long key : terms(doc)) {
+            postings.computeIfAbsent(key, k -> new IntList()).add(slot);
+        }
+        return slot;
+    }
+
+    private void kill(int slot) {
+        docs[slot] = null;
+        tombstones++;
+    }
+
+    private void compactIfNeeded() {
+        if (tombstones < MIN_COMPACT_TOMBSTONES || tombstones * 4 < slotCount) return;
+
+        Doc[] live = new Doc[Math.max(1024, slotByUser.size() * 2)];
+        int liveCount = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (docs[slot] != null) live[liveCount++] = docs[slot];
+        }
+        docs = new Doc[live.length];
+        slotCount = 0;
+        tombstones = 0;
+        postings.clear();
+        slotByUser.clear();
+        for (int i = 0; i < liveCount; i++) {
+            slotByUser.put(live[i].userId(), addSlot(live[i]));
+        }
+    }
+
+    private static Set<Long> terms(Doc doc) {
+        Set<Long> terms = new HashSet<>();
+        addTerms(doc.nameKey(), terms);
+        addTerms(doc.emailKey(), terms);
+        return terms;
+    }
+
+    private static void addTerms(String text, Set<Long> terms) {
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            terms.add(trigramKey(text, i));
+        }
+        for (int i = 0; i < text.length(); i++) {
+            if (i == 0 || isSeparator(text.charAt(i - 1))) {
+                if (isSeparator(text.charAt(i))) continue;
+                terms.add(prefixKey(text.substring(i, i + 1)));
+                if (i + 1 < text.length()) {
+                    terms.add(prefixKey(text.substring(i, i + 2)));
+                }
+            }
+        }
+    }
+
+    private static long trigramKey(String text, int at) {
+        return (3L << 48) | ((long) text.charAt(at) << 32) | ((long) text.charAt(at + 1) << 16) | text.charAt(at + 2);
+    }
+
+    private static long prefixKey(String prefix) {
+        long key = (long) prefix.length() << 48 | ((long) prefix.charAt(0) << 32);
+        if (prefix.length() > 1) key |= (long) prefix.charAt(1) << 16;
+        return key;
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == ' ' || c == '.' || c == '_' || c == '-' || c == '@' || c == '+';
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Doc withWorkspaces(Doc doc, long[] workspaceIds) {
+        return new Doc(doc.userId(), doc.displayName(), doc.email(), doc.nameKey(), doc.emailKey(), workspaceIds);
+    }
+
+    /**
+     * Growable int array; appends keep it sorted because slots only increase
+     */
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.buzzlink.service;
+
+import com.buzzlink.analytics.HyperLogLog;
+import com.buzzlink.entity.ActiveUserSketch;
+import com.buzzlink.event.MessageCreatedEvent;
+import com.buzzlink.repository.ActiveUserSketchRepository;
+import com.buzzlink.repository.MessageRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Distinct active users (message senders) per day, per workspace and overall
+ *
+ * Each (day, workspace) keeps a HyperLogLog of sender ids in memory for the last
+ * {@code analytics.hll.retention-days} days, fed by committed message events and
+ * persisted to active_user_sketches on a fixed delay. Any window is answered by
+ * unioning the day sketches in range, so DAU/WAU/MAU or custom ranges cost a few
+ * register merges instead of a scan of the messages table.
+ *
+ * Sketch unions are idempotent, so flushes merge with the stored copy and a
+ * rebuild can run while events keep arriving without double counting.
+ */
+@Service
+@Slf4j
+public class ActiveUserService {
+
+    record SketchKey(LocalDate day, long workspaceId) {
+    }
+
+    private final ActiveUserSketchRepository sketchRepository;
+    private final MessageRepository messageRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int retentionDays;
+
+    private final ConcurrentHashMap<SketchKey, HyperLogLog> sketches = new ConcurrentHashMap<>();
+    private final Set<SketchKey> dirty = ConcurrentHashMap.newKeySet();
+
+    public ActiveUserService(ActiveUserSketchRepository sketchRepository,
+                             MessageRepository messageRepository,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${analytics.hll.retention-days:90}") int retentionDays) {
+        this.sketchRepository = sketchRepository;
+        this.messageRepository = messageRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retentionDays = retentionDays;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMessageCreated(MessageCreatedEvent event) {
+        if (event.senderId() == null) return;
+        LocalDate day = event.createdAt().toLocalDate();
+        record(new SketchKey(day, ActiveUserSketch.ALL_WORKSPACES), event.senderId());
+        if (event.workspaceId() != null) {
+            record(new SketchKey(day, event.workspaceId()), event.senderId());
+        }
+    }
+
+    private void record(SketchKey key, long userId) {
+        sketches.computeIfAbsent(key, k -> new HyperLogLog()).add(userId);
+        dirty.add(key);
+    }
+
+    /**
+     * Estimated distinct senders between two days (inclusive)
+     *
+     * @param workspaceId a workspace, or null for all workspaces
+     */
+    public long countActiveUsers(Long workspaceId, LocalDate from, LocalDate to) {
+        long scope = workspaceId == null ? ActiveUserSketch.ALL_WORKSPACES : workspaceId;
+        Map<LocalDate, HyperLogLog> days = loadDays(scope, from, to);
+        HyperLogLog union = new HyperLogLog();
+        days.values().forEach(union::merge);
+        return union.estimate();
+    }
+
+    /**
+     * Distinct senders over a trailing window ending on each of the last {@code days} days
+     *
+     * The range is cut into blocks of windowDays days, each with running unions
+     * from its start (prefix) and to its end (suffix). Every window spans at most
+     * two blocks, so it is the suffix of one unioned with the prefix of the next:
+     * O(days + windowDays) merges in total instead of days * windowDays.
+     *
+     * @return day -> estimate, oldest first
+     */
+    public Map<LocalDate, Long> activeUserTrend(Long workspaceId, int days, int windowDays) {
+        long scope = workspaceId == null ? ActiveUserSketch.ALL_WORKSPACES : workspaceId;
+        LocalDate today = LocalDate.now();
+        LocalDate firstPoint = today.minusDays(days - 1L);
+        LocalDate rangeStart = firstPoint.minusDays(windowDays - 1L);
+        Map<LocalDate, HyperLogLog> sketchesByDay = loadDays(scope, rangeStart, today);
+
+        int span = days + windowDays - 1;
+        HyperLogLog[] prefix = new HyperLogLog[span];
+        HyperLogLog[] suffix = new HyperLogLog[span];
+        for (int i = 0; i < span; i++) {
+            prefix[i] = i % windowDays == 0 ? new HyperLogLog() : copyOf(prefix[i - 1]);
+            mergeDay(prefix[i], sketchesByDay, rangeStart.plusDays(i));
+        }
+        for (int i = span - 1; i >= 0; i--) {
+            suffix[i] = i % windowDays == windowDays - 1 || i == span - 1 ? new HyperLogLog() : copyOf(suffix[i + 1]);
+            mergeDay(suffix[i], sketchesByDay, rangeStart.plusDays(i));
+        }
+
+        Map<LocalDate, Long> trend = new LinkedHashMap<>();
+        for (int end = windowDays - 1; end < span; end++) {
+            int start = end - windowDays + 1;
+            long estimate;
+            if (start % windowDays == 0) {
+                estimate = prefix[end].estimate();
+            } else {
+                HyperLogLog window = copyOf(suffix[start]);
+                window.merge(prefix[end]);
+                estimate = window.estimate();
+            }
+            trend.put(rangeStart.plusDays(end), estimate);
+        }
+        return trend;
+    }
+
+    private static HyperLogLog copyOf(HyperLogLog sketch) {
+        HyperLogLog copy = new HyperLogLog();
+        copy.merge(sketch);
+        return copy;
+    }
+
+    private static void mergeDay(HyperLogLog target, Map<LocalDate, HyperLogLog> sketchesByDay, LocalDate day) {
+        HyperLogLog sketch = sketchesByDay.get(day);
+        if (sketch != null) target.merge(sketch);
+    }
+
+    /**
+     * Day sketches for one scope: recent days from memory, older days from the table
+     */
+    private Map<LocalDate, HyperLogLog> loadDays(long scope, LocalDate from, LocalDate to) {
+        Map<LocalDate, HyperLogLog> result = new HashMap<>();
+        LocalDate cacheStart = cacheStart();
+
+        if (from.isBefore(cacheStart)) {
+            LocalDate storedTo = to.isBefore(cacheStart) ? to : cacheStart.minusDays(1);
+            for (ActiveUserSketch row : sketchRepository.findByWorkspaceIdAndStatDateBetween(scope, from, storedTo)) {
+                result.put(row.getStatDate(), HyperLogLog.fromBytes(row.getSketch()));
+            }
+        }
+        for (LocalDate day = from.isBefore(cacheStart) ? cacheStart : from; !day.isAfter(to); day = day.plusDays(1)) {
+            HyperLogLog sketch = sketches.get(new SketchKey(day, scope));
+            if (sketch != null) result.put(day, sketch);
+        }
+        return result;
+    }
+
+    /**
+     * Persist changed sketches, merging with whatever another node may have stored
+     */
+    @Scheduled(fixedDelayString = "${analytics.hll.flush-interval-ms:10000}")
+    public synchronized void flush() {
+        for (SketchKey key : Set.copyOf(dirty)) {
+            dirty.remove(key);
+            HyperLogLog sketch = sketches.get(key);
+            if (sketch == null) continue;
+            try {
+                transactionTemplate.executeWithoutResult(status -> persist(key, sketch));
+            } catch (RuntimeException e) {
+                log.warn("Failed to persist active-user sketch {}: {}", key, e.getMessage());
+                dirty.add(key);
+            }
+        }
+        LocalDate cacheStart = cacheStart();
+        sketches.keySet().removeIf(key -> key.day().isBefore(cacheStart) && !dirty.contains(key));
+    }
+
+    private void persist(SketchKey key, HyperLogLog sketch) {
+        ActiveUserSketch row = sketchRepository.findByStatDateAndWorkspaceId(key.day(), key.workspaceId())
+                .orElse(null);
+        if (row == null) {
+            sketchRepository.save(new ActiveUserSketch(key.day(), key.workspaceId(), sketch.toBytes()));
+            return;
+        }
+        sketch.merge(HyperLogLog.fromBytes(row.getSketch()));
+        row.setSketch(sketch.toBytes());
+        sketchRepository.save(row);
+    }
+
+    /**
+     * Load the cached window on startup, rebuilding from messages if nothing is stored yet
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (sketchRepository.count() == 0) {
+            if (messageRepository.findMaxId() > 0) {
+                rebuild();
+            }
+            return;
+        }
+        for (ActiveUserSketch row : sketchRepository.findByStatDateGreaterThanEqual(cacheStart())) {
+            HyperLogLog stored = HyperLogLog.fromBytes(row.getSketch());
+            sketches.merge(new SketchKey(row.getStatDate(), row.getWorkspaceId()), stored, (current, loaded) -> {
+                current.merge(loaded);
+                return current;
+            });
+        }
+        log.info("Loaded {} active-user sketches", sketches.size());
+    }
+
+    /**
+     * Recompute every day sketch from the messages table in one streaming pass
+     */
+    public synchronized void rebuild() {
+        Map<SketchKey, HyperLogLog> rebuilt = new HashMap<>();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+            try (Stream<Object[]> rows = messageRepository.streamSenderActivity()) {
+                rows.forEach(row -> {
+                    LocalDate day = ((LocalDateTime) row[0]).toLocalDate();
+                    long senderId = (Long) row[2];
+                    rebuilt.computeIfAbsent(new SketchKey(day, ActiveUserSketch.ALL_WORKSPACES),
+                            k -> new HyperLogLog()).add(senderId);
+                    rebuilt.computeIfAbsent(new SketchKey(day, (Long) row[1]), k -> new HyperLogLog()).add(senderId);
+                });
+            }
+        });
+
+        transactionTemplate.executeWithoutResult(status -> {
+            sketchRepository.deleteAllInBatch();
+            rebuilt.forEach((key, sketch) ->
+                    sketchRepository.save(new ActiveUserSketch(key.day(), key.workspaceId(), sketch.toBytes())));
+        });
+
+        // Union with live sketches so events that raced with the scan are kept
+        LocalDate cacheStart = cacheStart();
+        rebuilt.forEach((key, sketch) -> {
+            if (!key.day().isBefore(cacheStart)) {
+                sketches.merge(key, sketch, (current, fresh) -> {
+                    current.merge(fresh);
+                    return current;
+                });
+                dirty.add(key);
+            }
+        });
+        log.info("Rebuilt {} active-user sketches from messages", rebuilt.size());
+    }
+
+    private LocalDate cacheStart() {
+        return LocalDate.now().minusDays(retentionDays - 1L);
+    }
+}
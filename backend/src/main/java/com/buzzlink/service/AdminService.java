@@ -1,28 +1,33 @@
 package com.buzzlink.service;
 
+import com.buzzlink.dto.AdminUserDTO;
 import com.buzzlink.entity.User;
-import com.buzzlink.repository.ChannelRepository;
 import com.buzzlink.repository.DirectMessageRepository;
 import com.buzzlink.repository.MessageRepository;
 import com.buzzlink.repository.UserRepository;
-import com.buzzlink.repository.WorkspaceRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashMap;
-import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 @Service
+@Slf4j
 @RequiredArgsConstructor
 public class AdminService {
 
     private final UserRepository userRepository;
     private final MessageRepository messageRepository;
     private final DirectMessageRepository directMessageRepository;
-    private final ChannelRepository channelRepository;
-    private final WorkspaceRepository workspaceRepository;
+    private final SystemStatsService systemStatsService;
 
     /**
      * Check if user is admin
@@ -34,43 +39,92 @@ public class AdminService {
     }
 
     /**
-     * Get all users with their stats
+     * Sort keys accepted by the admin user listing, mapped to indexed entity properties
      */
-    public List<Map<String, Object>> getAllUsers() {
-        List<User> users = userRepository.findAll();
-        return users.stream().map(user -> {
-            Map<String, Object> userMap = new HashMap<>();
-            userMap.put("id", user.getId());
-            userMap.put("clerkId", user.getClerkId());
-            userMap.put("displayName", user.getDisplayName());
-            userMap.put("email", user.getEmail());
-            userMap.put("avatarUrl", user.getAvatarUrl());
-            userMap.put("isAdmin", user.getIsAdmin());
-            userMap.put("isBanned", user.getIsBanned());
-            userMap.put("createdAt", user.getCreatedAt());
-
-            // Count messages sent by user
-            long messageCount = messageRepository.countBySender(user);
-            long dmCount = directMessageRepository.countBySender(user);
-            userMap.put("messageCount", messageCount + dmCount);
-
-            return userMap;
-        }).toList();
+    private static final Map<String, String> USER_SORT_PROPERTIES = Map.of(
+            "messages", "messageCount",
+            "directMessages", "directMessageCount",
+            "createdAt", "createdAt",
+            "displayName", "displayName"
+    );
+
+    /**
+     * Get one page of users with their stats
+     *
+     * @param search    optional case-insensitive match on display name or email
+     * @param banned    optional banned filter
+     * @param admin     optional admin filter
+     * @param sort      one of messages, directMessages, createdAt, displayName
+     * @param ascending sort direction
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getUsers(String search, Boolean banned, Boolean admin,
+                                        int page, int size, String sort, boolean ascending) {
+        String property = USER_SORT_PROPERTIES.get(sort);
+        if (property == null) {
+            throw new IllegalArgumentException("Unsupported sort: " + sort);
+        }
+        Sort order = Sort.by(ascending ? Sort.Direction.ASC : Sort.Direction.DESC, property).and(Sort.by("id"));
+        String pattern = search == null || search.isBlank()
+                ? "%"
+                : "%" + search.trim().toLowerCase(Locale.ROOT) + "%";
+
+        Page<AdminUserDTO> users = userRepository.findForAdmin(pattern, banned, admin,
+                PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), 200), order));
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("content", users.getContent().stream().map(this::toAdminUser).toList());
+        result.put("page", users.getNumber());
+        result.put("size", users.getSize());
+        result.put("totalElements", users.getTotalElements());
+        result.put("totalPages", users.getTotalPages());
+        return result;
+    }
+
+    private Map<String, Object> toAdminUser(AdminUserDTO user) {
+        Map<String, Object> userMap = new HashMap<>();
+        userMap.put("id", user.id());
+        userMap.put("clerkId", user.clerkId());
+        userMap.put("displayName", user.displayName());
+        userMap.put("email", user.email());
+        userMap.put("avatarUrl", user.avatarUrl());
+        userMap.put("isAdmin", user.isAdmin());
+        userMap.put("isBanned", user.isBanned());
+        userMap.put("createdAt", user.createdAt());
+        userMap.put("channelMessageCount", user.messageCount());
+        userMap.put("directMessageCount", user.directMessageCount());
+        userMap.put("messageCount", user.messageCount() + user.directMessageCount());
+        return userMap;
+    }
+
+    /**
+     * Recompute every user's message counters from the message tables
+     *
+     * @return number of users updated
+     */
+    @Transactional
+    public int recountUserMessageCounters() {
+        return userRepository.recountMessageCounters();
+    }
+
+    /**
+     * Fill the counters on first start against a database that already has messages
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void recountUserMessageCountersIfEmpty() {
+        if (userRepository.sumMessageCounters() == 0
+                && (messageRepository.findMaxId() > 0 || directMessageRepository.count() > 0)) {
+            int updated = userRepository.recountMessageCounters();
+            log.info("Recounted message counters on {} users", updated);
+        }
     }
 
     /**
      * Get system statistics
      */
     public Map<String, Object> getSystemStats() {
-        Map<String, Object> stats = new HashMap<>();
-        stats.put("totalUsers", userRepository.count());
-        stats.put("totalWorkspaces", workspaceRepository.count());
-        stats.put("totalChannels", channelRepository.count());
-        stats.put("totalMessages", messageRepository.count());
-        stats.put("totalDirectMessages", directMessageRepository.count());
-        stats.put("bannedUsers", userRepository.findAll().stream().filter(User::getIsBanned).count());
-        stats.put("adminUsers", userRepository.findAll().stream().filter(User::getIsAdmin).count());
-        return stats;
+        return systemStatsService.snapshot();
     }
 
     /**
@@ -80,6 +134,7 @@ public class AdminService {
     public User banUser(Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
+        systemStatsService.flagChanged(SystemStatsService.Stat.BANNED_USERS, user.getIsBanned(), true);
         user.setIsBanned(true);
         return userRepository.save(user);
     }
@@ -91,6 +146,7 @@ public class AdminService {
     public User unbanUser(Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
+        systemStatsService.flagChanged(SystemStatsService.Stat.BANNED_USERS, user.getIsBanned(), false);
         user.setIsBanned(false);
         return userRepository.save(user);
     }
@@ -109,6 +165,7 @@ public class AdminService {
 
         // For demo, we'll just ban the user instead of hard delete
         // In production, you'd want to handle cascade deletes or anonymize data
+        systemStatsService.flagChanged(SystemStatsService.Stat.BANNED_USERS, user.getIsBanned(), true);
         user.setIsBanned(true);
         userRepository.save(user);
     }
@@ -120,6 +177,7 @@ public class AdminService {
     public User toggleAdmin(Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
+        systemStatsService.flagChanged(SystemStatsService.Stat.ADMIN_USERS, user.getIsAdmin(), !user.getIsAdmin());
         user.setIsAdmin(!user.getIsAdmin());
         return userRepository.save(user);
     }
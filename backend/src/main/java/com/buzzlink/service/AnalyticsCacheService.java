@@ -0,0 +1,199 @@
+package com.buzzlink.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Stale-while-revalidate cache for analytics query results
+ *
+ * - younger than refresh-after: served as is
+ * - between refresh-after and ttl: served fresh, refreshed in the background
+ * - between ttl and ttl + max-stale: served stale, refreshed in the background
+ * - older, or missing: the caller waits for a recomputation
+ *
+ * At most one computation per key runs at a time; concurrent callers share it.
+ * Results are only stored if no invalidateAll() happened while they were
+ * computed, and the cache holds at most max-entries keys.
+ */
+@Service
+@Slf4j
+public class AnalyticsCacheService {
+
+    public enum State { FRESH, STALE, MISS }
+
+    /**
+     * A result and how old it was when served
+     */
+    public record CachedResult<T>(T value, long computedAtMillis, long ageMillis, State state) {
+    }
+
+    private record Entry(Object value, long computedAtMillis) {
+    }
+
+    private final long ttlMillis;
+    private final long refreshAfterMillis;
+    private final long maxStaleMillis;
+    private final int maxEntries;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Entry>> inFlight = new ConcurrentHashMap<>();
+    // Bumped by invalidateAll(); results computed under an older generation are not stored
+    private final AtomicLong generation = new AtomicLong();
+    private final ThreadPoolExecutor refreshExecutor;
+
+    public AnalyticsCacheService(MeterRegistry meterRegistry,
+                                 @Value("${analytics.cache.ttl-seconds:60}") long ttlSeconds,
+                                 @Value("${analytics.cache.refresh-after-seconds:45}") long refreshAfterSeconds,
+                                 @Value("${analytics.cache.max-stale-seconds:300}") long maxStaleSeconds,
+                                 @Value("${analytics.cache.max-entries:1000}") int maxEntries,
+                                 @Value("${analytics.cache.refresh-threads:2}") int refreshThreads) {
+        this.meterRegistry = meterRegistry;
+        this.ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+        this.refreshAfterMillis = TimeUnit.SECONDS.toMillis(Math.min(refreshAfterSeconds, ttlSeconds));
+        this.maxStaleMillis = TimeUnit.SECONDS.toMillis(maxStaleSeconds);
+        this.maxEntries = maxEntries;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        // Bounded: refreshes are single-flight per key, and a rejected one is retried on the next request
+        this.refreshExecutor = new ThreadPoolExecutor(refreshThreads, refreshThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(64), runnable -> {
+                    Thread thread = new Thread(runnable, "analytics-refresh-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Return the cached value for key, computing or refreshing it with loader as needed
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CachedResult<T> get(String key, Supplier<T> loader) {
+        long start = System.nanoTime();
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(key);
+        State state;
+
+        if (entry == null || now - entry.computedAtMillis() >= ttlMillis + maxStaleMillis) {
+            entry = await(recompute(key, loader, true));
+            state = State.MISS;
+        } else {
+            long age = now - entry.computedAtMillis();
+            if (age >= refreshAfterMillis) {
+                recompute(key, loader, false);
+            }
+            state = age < ttlMillis ? State.FRESH : State.STALE;
+        }
+
+        long ageMillis = Math.max(0, System.currentTimeMillis() - entry.computedAtMillis());
+        Timer.builder("analytics.cache.serve")
+                .description("Time spent serving analytics results, by cache state")
+                .tag("state", state.name().toLowerCase())
+                .register(meterRegistry)
+                .record(Duration.ofNanos(System.nanoTime() - start));
+        DistributionSummary.builder("analytics.cache.age")
+                .description("Age of served analytics results")
+                .baseUnit("milliseconds")
+                .tag("state", state.name().toLowerCase())
+                .register(meterRegistry)
+                .record(ageMillis);
+
+        return new CachedResult<>((T) entry.value(), entry.computedAtMillis(), ageMillis, state);
+    }
+
+    /**
+     * Drop every cached result (e.g. after the underlying rollups were rebuilt)
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        entries.clear();
+        inFlight.clear();
+    }
+
+    /**
+     * Start (or join) the single computation for key
+     */
+    private CompletableFuture<Entry> recompute(String key, Supplier<?> loader, boolean callerWaits) {
+        CompletableFuture<Entry> created = new CompletableFuture<>();
+        CompletableFuture<Entry> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing;
+        }
+
+        long startedIn = generation.get();
+        Runnable task = () -> {
+            try {
+                Entry fresh = new Entry(loader.get(), System.currentTimeMillis());
+                store(key, fresh, startedIn);
+                created.complete(fresh);
+            } catch (RuntimeException e) {
+                log.warn("Analytics cache refresh failed for {}: {}", key, e.getMessage());
+                created.completeExceptionally(e);
+            } finally {
+                inFlight.remove(key, created);
+            }
+        };
+
+        if (callerWaits) {
+            // Compute on the request thread rather than queueing behind background refreshes
+            task.run();
+        } else {
+            try {
+                refreshExecutor.execute(task);
+            } catch (RejectedExecutionException e) {
+                // Queue full: a waiting caller may already have joined this future, so compute it here
+                task.run();
+            }
+        }
+        return created;
+    }
+
+    private void store(String key, Entry entry, long startedIn) {
+        if (entries.size() >= maxEntries && !entries.containsKey(key)) {
+            long oldest = System.currentTimeMillis() - ttlMillis - maxStaleMillis;
+            entries.values().removeIf(e -> e.computedAtMillis() < oldest);
+            if (entries.size() >= maxEntries) {
+                entries.clear();
+            }
+        }
+        entries.put(key, entry);
+        // An invalidation may have cleared the map while this was loading; drop the stale result
+        if (generation.get() != startedIn) {
+            entries.remove(key, entry);
+        }
+    }
+
+    private static Entry await(CompletableFuture<Entry> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,116 @@
+package com.buzzlink.service;
+
+import com.buzzlink.repository.*;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Builds every dashboard panel in one call
+ *
+ * Each table is read once: one COUNT per entity table, one GROUP BY day over the
+ * workspace rollup (total messages and the timeline), and one grouped pass over
+ * the user rollup (activity distribution). Leaderboards come from the in-memory
+ * sketches. The independent reads run in parallel on a small bounded pool.
+ */
+@Service
+public class AnalyticsDashboardService {
+
+    private final AnalyticsService analyticsService;
+    private final UserRepository userRepository;
+    private final WorkspaceRepository workspaceRepository;
+    private final ChannelRepository channelRepository;
+    private final ReactionRepository reactionRepository;
+    private final UserWorkspaceMemberRepository memberRepository;
+    private final WorkspaceDailyStatsRepository workspaceStatsRepository;
+    private final UserDailyStatsRepository userStatsRepository;
+    private final ThreadPoolExecutor executor;
+
+    public AnalyticsDashboardService(AnalyticsService analyticsService,
+                                     UserRepository userRepository,
+                                     WorkspaceRepository workspaceRepository,
+                                     ChannelRepository channelRepository,
+                                     ReactionRepository reactionRepository,
+                                     UserWorkspaceMemberRepository memberRepository,
+                                     WorkspaceDailyStatsRepository workspaceStatsRepository,
+                                     UserDailyStatsRepository userStatsRepository,
+                                     @Value("${analytics.dashboard.threads:4}") int threads) {
+        this.analyticsService = analyticsService;
+        this.userRepository = userRepository;
+        this.workspaceRepository = workspaceRepository;
+        this.channelRepository = channelRepository;
+        this.reactionRepository = reactionRepository;
+        this.memberRepository = memberRepository;
+        this.workspaceStatsRepository = workspaceStatsRepository;
+        this.userStatsRepository = userStatsRepository;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        // Caller-runs when saturated, so a burst degrades to sequential work instead of failing
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(64), runnable -> {
+                    Thread thread = new Thread(runnable, "analytics-dashboard-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    public Map<String, Object> getDashboard() {
+        CompletableFuture<Long> totalUsers = async(userRepository::count);
+        CompletableFuture<Long> totalWorkspaces = async(workspaceRepository::count);
+        CompletableFuture<Long> totalChannels = async(channelRepository::count);
+        CompletableFuture<Long> totalReactions = async(reactionRepository::count);
+        CompletableFuture<Long> totalMembers = async(memberRepository::count);
+        CompletableFuture<List<Object[]>> dayTotals = async(workspaceStatsRepository::sumByDay);
+        CompletableFuture<List<Object[]>> busyUsers = async(() -> userStatsRepository.findUserTotalsAbove(10));
+        CompletableFuture<Map<String, Object>> topWorkspaces = async(() -> analyticsService.getTopWorkspaces(null));
+        CompletableFuture<Map<String, Object>> topUsers = async(() -> analyticsService.getTopUsers(null));
+        CompletableFuture<Map<String, Object>> messagesByChannel = async(() -> analyticsService.getMessagesByChannel(null));
+
+        long totalMessages = 0;
+        for (Object[] row : join(dayTotals)) {
+            totalMessages += ((Number) row[1]).longValue();
+        }
+
+        Map<String, Object> dashboard = new LinkedHashMap<>();
+        dashboard.put("kpis", analyticsService.buildKpis(join(totalUsers), totalMessages, join(totalWorkspaces),
+                join(totalChannels), join(totalReactions), join(totalMembers)));
+        dashboard.put("messagesTimeline", analyticsService.buildTimeline(join(dayTotals)));
+        dashboard.put("topWorkspaces", join(topWorkspaces));
+        dashboard.put("topUsers", join(topUsers));
+        dashboard.put("messagesByChannel", join(messagesByChannel));
+        dashboard.put("userActivityDistribution",
+                analyticsService.buildActivityDistribution(join(totalUsers), join(busyUsers)));
+        return dashboard;
+    }
+
+    private <T> CompletableFuture<T> async(Supplier<T> supplier) {
+        return CompletableFuture.supplyAsync(supplier, executor);
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
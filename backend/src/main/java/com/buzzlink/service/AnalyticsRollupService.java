@@ -0,0 +1,238 @@
+package com.buzzlink.service;
+
+import com.buzzlink.entity.ChannelDailyStats;
+import com.buzzlink.entity.UserDailyStats;
+import com.buzzlink.entity.WorkspaceDailyStats;
+import com.buzzlink.event.MessageCreatedEvent;
+import com.buzzlink.event.MessageDeletedEvent;
+import com.buzzlink.repository.ChannelDailyStatsRepository;
+import com.buzzlink.repository.MessageRepository;
+import com.buzzlink.repository.UserDailyStatsRepository;
+import com.buzzlink.repository.WorkspaceDailyStatsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Maintains the daily message rollups (per channel, workspace and user)
+ *
+ * Committed message events are coalesced in memory and flushed on a fixed delay,
+ * so the send path only does a map merge and each flush touches one row per
+ * (scope, day) instead of one per message. backfill() rebuilds all rollups from
+ * the messages table, e.g. after a bulk import.
+ *
+ * Message writes hold a read lock from publishing their event until their
+ * transaction completes; backfill() takes the write lock just long enough to
+ * drop the queued deltas and pin its snapshot. Every write is then either
+ * committed and visible to the rebuild (its delta dropped) or not yet
+ * committed (its delta queued afterwards), so none is lost or counted twice.
+ */
+@Service
+@Slf4j
+public class AnalyticsRollupService {
+
+    enum Scope { CHANNEL, WORKSPACE, USER }
+
+    record RollupKey(Scope scope, LocalDate day, Long id) {
+    }
+
+    private final ChannelDailyStatsRepository channelStatsRepository;
+    private final WorkspaceDailyStatsRepository workspaceStatsRepository;
+    private final UserDailyStatsRepository userStatsRepository;
+    private final MessageRepository messageRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate snapshotTransaction;
+
+    private volatile ConcurrentHashMap<RollupKey, Long> pending = new ConcurrentHashMap<>();
+
+    private final ReentrantReadWriteLock writesInFlight = new ReentrantReadWriteLock();
+
+    public AnalyticsRollupService(ChannelDailyStatsRepository channelStatsRepository,
+                                  WorkspaceDailyStatsRepository workspaceStatsRepository,
+                                  UserDailyStatsRepository userStatsRepository,
+                                  MessageRepository messageRepository,
+                                  PlatformTransactionManager transactionManager) {
+        this.channelStatsRepository = channelStatsRepository;
+        this.workspaceStatsRepository = workspaceStatsRepository;
+        this.userStatsRepository = userStatsRepository;
+        this.messageRepository = messageRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    /**
+     * Runs inside the writing transaction: hold off backfill snapshots until it completes
+     */
+    @EventListener({MessageCreatedEvent.class, MessageDeletedEvent.class})
+    public void onMessageWrite() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+        writesInFlight.readLock().lock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                writesInFlight.readLock().unlock();
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMessageCreated(MessageCreatedEvent event) {
+        record(event.createdAt().toLocalDate(), event.channelId(), event.workspaceId(), event.senderId(), 1);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMessageDeleted(MessageDeletedEvent event) {
+        record(event.createdAt().toLocalDate(), event.channelId(), event.workspaceId(), event.senderId(), -1);
+    }
+
+    private void record(LocalDate day, Long channelId, Long workspaceId, Long senderId, long delta) {
+        ConcurrentHashMap<RollupKey, Long> target = pending;
+        target.merge(new RollupKey(Scope.CHANNEL, day, channelId), delta, Long::sum);
+        target.merge(new RollupKey(Scope.WORKSPACE, day, workspaceId), delta, Long::sum);
+        target.merge(new RollupKey(Scope.USER, day, senderId), delta, Long::sum);
+    }
+
+    /**
+     * Write coalesced deltas to the rollup tables
+     */
+    @Scheduled(fixedDelayString = "${analytics.rollup.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        ConcurrentHashMap<RollupKey, Long> source = pending;
+        if (source.isEmpty()) return;
+
+        // remove() is atomic, so increments arriving mid-drain start a fresh entry
+        Map<RollupKey, Long> batch = new HashMap<>();
+        for (RollupKey key : source.keySet()) {
+            Long delta = source.remove(key);
+            if (delta != null && delta != 0) {
+                batch.put(key, delta);
+            }
+        }
+        if (batch.isEmpty()) return;
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> batch.forEach(this::apply));
+        } catch (DataIntegrityViolationException e) {
+            // Another node inserted the same day row first; requeue and UPDATE it next time
+            log.warn("Rollup flush raced on insert, retrying {} deltas: {}", batch.size(), e.getMessage());
+            requeue(batch);
+        } catch (RuntimeException e) {
+            log.error("Rollup flush failed, retrying {} deltas: {}", batch.size(), e.getMessage());
+            requeue(batch);
+        }
+    }
+
+    private void requeue(Map<RollupKey, Long> batch) {
+        ConcurrentHashMap<RollupKey, Long> target = pending;
+        batch.forEach((key, delta) -> target.merge(key, delta, Long::sum));
+    }
+
+    private void apply(RollupKey key, long delta) {
+        switch (key.scope()) {
+            case CHANNEL -> {
+                if (channelStatsRepository.increment(key.day(), key.id(), delta) == 0) {
+                    channelStatsRepository.save(new ChannelDailyStats(key.day(), key.id(), delta));
+                }
+            }
+            case WORKSPACE -> {
+                if (workspaceStatsRepository.increment(key.day(), key.id(), delta) == 0) {
+                    workspaceStatsRepository.save(new WorkspaceDailyStats(key.day(), key.id(), delta));
+                }
+            }
+            case USER -> {
+                if (userStatsRepository.increment(key.day(), key.id(), delta) == 0) {
+                    userStatsRepository.save(new UserDailyStats(key.day(), key.id(), delta));
+                }
+            }
+        }
+    }
+
+    /**
+     * Rebuild every rollup from the messages table with set-based GROUP BY inserts
+     *
+     * @return number of message rows covered
+     */
+    public synchronized long backfill() {
+        long maxMessageId = snapshotTransaction.execute(status -> {
+            long maxId;
+            writesInFlight.writeLock().lock();
+            try {
+                // Everything queued so far was committed, so the rebuild below covers it;
+                // the first read pins the snapshot before any new write can commit
+                pending = new ConcurrentHashMap<>();
+                maxId = messageRepository.findMaxId();
+            } finally {
+                writesInFlight.writeLock().unlock();
+            }
+
+            channelStatsRepository.deleteAllInBatch();
+            workspaceStatsRepository.deleteAllInBatch();
+            userStatsRepository.deleteAllInBatch();
+            channelStatsRepository.backfillFromMessages(maxId);
+            workspaceStatsRepository.backfillFromMessages(maxId);
+            userStatsRepository.backfillFromMessages(maxId);
+            return maxId;
+        });
+
+        long covered = workspaceStatsRepository.sumMessageCount();
+        log.info("Analytics rollups rebuilt from {} messages (watermark id {})", covered, maxMessageId);
+        return covered;
+    }
+
+    /**
+     * Read the rollup tables in a snapshot that covers exactly the message events delivered so far
+     *
+     * Message writes are paused while queued deltas are flushed and the snapshot
+     * is pinned; atSnapshot runs at that point, so a listener that starts
+     * buffering there sees every later event and none that the tables include.
+     */
+    public synchronized <T> T readConsistent(Runnable atSnapshot, Supplier<T> reader) {
+        writesInFlight.writeLock().lock();
+        try {
+            flush();
+            if (!pending.isEmpty()) {
+                throw new IllegalStateException("Rollup flush failed; tables are behind the delivered events");
+            }
+            return snapshotTransaction.execute(status -> {
+                messageRepository.findMaxId();
+                atSnapshot.run();
+                writesInFlight.writeLock().unlock();
+                return reader.get();
+            });
+        } finally {
+            if (writesInFlight.isWriteLockedByCurrentThread()) {
+                writesInFlight.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Build the rollups on first start against a database that already has messages
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void backfillIfEmpty() {
+        if (workspaceStatsRepository.count() == 0 && messageRepository.findMaxId() > 0) {
+            backfill();
+        }
+    }
+}
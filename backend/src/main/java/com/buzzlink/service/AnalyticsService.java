@@ -1,28 +1,33 @@
 package com.buzzlink.service;
 
-import com.buzzlink.entity.Message;
+import com.buzzlink.analytics.SpaceSavingSketch;
+import com.buzzlink.entity.Channel;
 import com.buzzlink.entity.User;
 import com.buzzlink.entity.Workspace;
-import com.buzzlink.entity.Channel;
 import com.buzzlink.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+/**
+ * Dashboard analytics
+ * Message-derived figures are read from the daily rollup tables maintained by
+ * AnalyticsRollupService, never from the messages table itself.
+ * Read-only throughout, so it is served by a read replica when one is configured.
+ */
 @Service
+@Transactional(readOnly = true)
 public class AnalyticsService {
 
     @Autowired
     private UserRepository userRepository;
 
-    @Autowired
-    private MessageRepository messageRepository;
-
     @Autowired
     private WorkspaceRepository workspaceRepository;
 
@@ -35,26 +40,35 @@ public class AnalyticsService {
     @Autowired
     private UserWorkspaceMemberRepository memberRepository;
 
-    public Map<String, Object> getKPIs() {
-        Map<String, Object> kpis = new HashMap<>();
+    @Autowired
+    private WorkspaceDailyStatsRepository workspaceStatsRepository;
+
+    @Autowired
+    private UserDailyStatsRepository userStatsRepository;
 
-        long totalUsers = userRepository.count();
-        long totalMessages = messageRepository.count();
-        long totalWorkspaces = workspaceRepository.count();
-        long totalChannels = channelRepository.count();
-        long totalReactions = reactionRepository.count();
-        long totalMembers = memberRepository.count();
+    @Autowired
+    private HeavyHitterService heavyHitterService;
 
-        // Active users in last 30 days
-        LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
-        List<Message> recentMessages = messageRepository.findAll().stream()
-                .filter(m -> m.getCreatedAt().isAfter(thirtyDaysAgo))
-                .collect(Collectors.toList());
+    @Autowired
+    private ActiveUserService activeUserService;
 
-        long activeUsers = recentMessages.stream()
-                .map(m -> m.getSender().getId())
-                .distinct()
-                .count();
+    public Map<String, Object> getKPIs() {
+        return buildKpis(userRepository.count(), workspaceStatsRepository.sumMessageCount(),
+                workspaceRepository.count(), channelRepository.count(),
+                reactionRepository.count(), memberRepository.count());
+    }
+
+    /**
+     * Assemble the KPI panel from entity totals; active users come from the HyperLogLog day sketches
+     */
+    Map<String, Object> buildKpis(long totalUsers, long totalMessages, long totalWorkspaces,
+                                  long totalChannels, long totalReactions, long totalMembers) {
+        Map<String, Object> kpis = new HashMap<>();
+
+        LocalDate today = LocalDate.now();
+        long dailyActiveUsers = activeUserService.countActiveUsers(null, today, today);
+        long weeklyActiveUsers = activeUserService.countActiveUsers(null, today.minusDays(6), today);
+        long activeUsers = activeUserService.countActiveUsers(null, today.minusDays(29), today);
 
         kpis.put("totalUsers", totalUsers);
         kpis.put("totalMessages", totalMessages);
@@ -63,31 +77,34 @@ public class AnalyticsService {
         kpis.put("totalReactions", totalReactions);
         kpis.put("totalMembers", totalMembers);
         kpis.put("activeUsers", activeUsers);
-        kpis.put("engagementRate", totalUsers > 0 ? (int) ((activeUsers * 100.0) / totalUsers) : 0);
+        kpis.put("dailyActiveUsers", dailyActiveUsers);
+        kpis.put("weeklyActiveUsers", weeklyActiveUsers);
+        // Sketch estimates can overshoot slightly, so cap at 100%
+        kpis.put("engagementRate", totalUsers > 0 ? (int) Math.min(100, (activeUsers * 100.0) / totalUsers) : 0);
 
         return kpis;
     }
 
     public Map<String, Object> getMessagesTimeline() {
-        List<Message> allMessages = messageRepository.findAll();
-
-        // Group messages by date
-        Map<LocalDate, Long> messagesByDate = allMessages.stream()
-                .collect(Collectors.groupingBy(
-                        m -> m.getCreatedAt().toLocalDate(),
-                        Collectors.counting()));
-
-        // Get last 90 days
-        List<LocalDate> last90Days = new ArrayList<>();
-        for (int i = 89; i >= 0; i--) {
-            last90Days.add(LocalDate.now().minusDays(i));
+        return buildTimeline(workspaceStatsRepository.sumByDaySince(LocalDate.now().minusDays(89)));
+    }
+
+    /**
+     * Last 90 days of message counts from [statDate, total] rows; older rows are ignored
+     */
+    Map<String, Object> buildTimeline(List<Object[]> dayTotals) {
+        LocalDate from = LocalDate.now().minusDays(89);
+
+        Map<LocalDate, Long> messagesByDate = new HashMap<>();
+        for (Object[] row : dayTotals) {
+            messagesByDate.put((LocalDate) row[0], ((Number) row[1]).longValue());
         }
 
         List<String> labels = new ArrayList<>();
         List<Long> data = new ArrayList<>();
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM dd");
 
-        for (LocalDate date : last90Days) {
+        for (LocalDate date = from; !date.isAfter(LocalDate.now()); date = date.plusDays(1)) {
             labels.add(date.format(formatter));
             data.add(messagesByDate.getOrDefault(date, 0L));
         }
@@ -99,32 +116,19 @@ public class AnalyticsService {
         return result;
     }
 
-    public Map<String, Object> getTopWorkspaces() {
-        List<Workspace> workspaces = workspaceRepository.findAll();
-
-        // Count messages per workspace
-        Map<String, Long> workspaceMessageCounts = new HashMap<>();
-
-        for (Workspace workspace : workspaces) {
-            long messageCount = channelRepository.findByWorkspace(workspace).stream()
-                    .mapToLong(channel -> messageRepository.countByChannel(channel))
-                    .sum();
-            workspaceMessageCounts.put(workspace.getName(), messageCount);
-        }
-
-        // Sort and get top 5
-        List<Map.Entry<String, Long>> sortedWorkspaces = workspaceMessageCounts.entrySet().stream()
-                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
-                .limit(5)
-                .collect(Collectors.toList());
+    /**
+     * Distinct active users over a trailing window ending on each of the last {@code days} days
+     */
+    public Map<String, Object> getActiveUsersTrend(Long workspaceId, int days, int window) {
+        Map<LocalDate, Long> trend = activeUserService.activeUserTrend(workspaceId, days, window);
 
-        List<String> labels = sortedWorkspaces.stream()
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toList());
-
-        List<Long> data = sortedWorkspaces.stream()
-                .map(Map.Entry::getValue)
-                .collect(Collectors.toList());
+        List<String> labels = new ArrayList<>();
+        List<Long> data = new ArrayList<>();
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM dd");
+        trend.forEach((date, count) -> {
+            labels.add(date.format(formatter));
+            data.add(count);
+        });
 
         Map<String, Object> result = new HashMap<>();
         result.put("labels", labels);
@@ -133,92 +137,55 @@ public class AnalyticsService {
         return result;
     }
 
-    public Map<String, Object> getTopUsers() {
-        List<User> users = userRepository.findAll();
-
-        // Count messages per user
-        Map<String, Long> userMessageCounts = new HashMap<>();
-
-        for (User user : users) {
-            long messageCount = messageRepository.countBySender(user);
-            if (messageCount > 0) {
-                userMessageCounts.put(user.getDisplayName(), messageCount);
-            }
-        }
-
-        // Sort and get top 10
-        List<Map.Entry<String, Long>> sortedUsers = userMessageCounts.entrySet().stream()
-                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
-                .limit(10)
-                .collect(Collectors.toList());
-
-        List<String> labels = sortedUsers.stream()
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toList());
-
-        List<Long> data = sortedUsers.stream()
-                .map(Map.Entry::getValue)
-                .collect(Collectors.toList());
-
-        Map<String, Object> result = new HashMap<>();
-        result.put("labels", labels);
-        result.put("data", data);
-
-        return result;
+    /**
+     * Top workspaces by messages, all-time or over the last {@code days} days
+     */
+    public Map<String, Object> getTopWorkspaces(Integer days) {
+        List<Object[]> rows = leaderboard(HeavyHitterService.Board.WORKSPACE, 5, days);
+        Map<Long, String> names = namesById(rows, workspaceRepository::findAllById, Workspace::getId, Workspace::getName);
+        return toChartData(rows, names);
     }
 
-    public Map<String, Object> getMessagesByChannel() {
-        List<Channel> channels = channelRepository.findAll();
-
-        // Count messages per channel
-        Map<String, Long> channelMessageCounts = new HashMap<>();
-
-        for (Channel channel : channels) {
-            long messageCount = messageRepository.countByChannel(channel);
-            if (messageCount > 0) {
-                channelMessageCounts.put(channel.getName(), messageCount);
-            }
-        }
-
-        // Sort and get top 10
-        List<Map.Entry<String, Long>> sortedChannels = channelMessageCounts.entrySet().stream()
-                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
-                .limit(10)
-                .collect(Collectors.toList());
-
-        List<String> labels = sortedChannels.stream()
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toList());
-
-        List<Long> data = sortedChannels.stream()
-                .map(Map.Entry::getValue)
-                .collect(Collectors.toList());
-
-        Map<String, Object> result = new HashMap<>();
-        result.put("labels", labels);
-        result.put("data", data);
+    /**
+     * Top users by messages sent, all-time or over the last {@code days} days
+     */
+    public Map<String, Object> getTopUsers(Integer days) {
+        List<Object[]> rows = leaderboard(HeavyHitterService.Board.USER, 10, days);
+        Map<Long, String> names = namesById(rows, userRepository::findAllById, User::getId, User::getDisplayName);
+        return toChartData(rows, names);
+    }
 
-        return result;
+    /**
+     * Busiest channels, all-time or over the last {@code days} days
+     */
+    public Map<String, Object> getMessagesByChannel(Integer days) {
+        List<Object[]> rows = leaderboard(HeavyHitterService.Board.CHANNEL, 10, days);
+        Map<Long, String> names = namesById(rows, channelRepository::findAllById, Channel::getId, Channel::getName);
+        return toChartData(rows, names);
     }
 
     public Map<String, Object> getUserActivityDistribution() {
-        List<User> users = userRepository.findAll();
+        return buildActivityDistribution(userRepository.count(), userStatsRepository.findUserTotalsAbove(10));
+    }
 
-        // Categorize users by message count
-        int lowActivity = 0; // 0-10 messages
+    /**
+     * Bucket users by message count; only users above 10 messages need to be read
+     *
+     * @param totalsAbove10 [userId, total] rows for users with more than 10 messages
+     */
+    Map<String, Object> buildActivityDistribution(long totalUsers, List<Object[]> totalsAbove10) {
         int mediumActivity = 0; // 11-50 messages
         int highActivity = 0; // 51+ messages
 
-        for (User user : users) {
-            long messageCount = messageRepository.countBySender(user);
-            if (messageCount <= 10) {
-                lowActivity++;
-            } else if (messageCount <= 50) {
+        for (Object[] row : totalsAbove10) {
+            long messageCount = ((Number) row[1]).longValue();
+            if (messageCount <= 50) {
                 mediumActivity++;
             } else {
                 highActivity++;
             }
         }
+        long lowActivity = Math.max(0, totalUsers - mediumActivity - highActivity); // 0-10 messages
 
         Map<String, Object> result = new HashMap<>();
         result.put("labels", Arrays.asList("0-10 messages", "11-50 messages", "51+ messages"));
@@ -226,4 +193,47 @@ public class AnalyticsService {
 
         return result;
     }
+
+    /**
+     * Top k from the in-memory sketches as [id, count] rows
+     */
+    private List<Object[]> leaderboard(HeavyHitterService.Board board, int k, Integer days) {
+        List<SpaceSavingSketch.Entry> entries = days == null
+                ? heavyHitterService.top(board, k)
+                : heavyHitterService.top(board, k, Math.max(days, 1));
+        List<Object[]> rows = new ArrayList<>(entries.size());
+        for (SpaceSavingSketch.Entry entry : entries) {
+            rows.add(new Object[]{entry.id(), entry.count()});
+        }
+        return rows;
+    }
+
+    /**
+     * Resolve display names for the ids in [id, total] rows with one batched lookup
+     */
+    private <T> Map<Long, String> namesById(List<Object[]> rows,
+                                            Function<List<Long>, List<T>> loader,
+                                            Function<T, Long> idOf,
+                                            Function<T, String> nameOf) {
+        List<Long> ids = rows.stream().map(row -> (Long) row[0]).collect(Collectors.toList());
+        return loader.apply(ids).stream().collect(Collectors.toMap(idOf, nameOf));
+    }
+
+    /**
+     * Convert [id, total] rows into the labels/data shape the dashboard charts expect
+     */
+    private Map<String, Object> toChartData(List<Object[]> rows, Map<Long, String> names) {
+        List<String> labels = new ArrayList<>();
+        List<Long> data = new ArrayList<>();
+        for (Object[] row : rows) {
+            labels.add(names.getOrDefault((Long) row[0], "Unknown"));
+            data.add(((Number) row[1]).longValue());
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("labels", labels);
+        result.put("data", data);
+
+        return result;
+    }
 }
@@ -0,0 +1,246 @@
+package com.buzzlink.service;
+
+import com.buzzlink.config.ReplicaRoutingContext;
+import com.buzzlink.dto.BootstrapDTO;
+import com.buzzlink.dto.ChannelDTO;
+import com.buzzlink.dto.ConversationDTO;
+import com.buzzlink.dto.MessageDTO;
+import com.buzzlink.dto.UserDTO;
+import com.buzzlink.dto.WorkspaceDTO;
+import com.buzzlink.entity.Channel;
+import com.buzzlink.entity.User;
+import com.buzzlink.repository.ChannelRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Assembles the first-paint payload of /api/bootstrap
+ *
+ * The user is synced first (creating them and accepting pending invitations
+ * commits before anything is read); the resolved user is then shared by the
+ * independent parts, which run concurrently on a bounded executor, each in its
+ * own read-only transaction: workspaces, DM conversations, the unread
+ * notification count, and the selected workspace's channels with the first
+ * channel's history. When no workspace is requested the channels wait for the
+ * workspace list and use its first entry, as the client does. On a timeout or
+ * failure every part is cancelled, so parts still queued never run.
+ */
+@Service
+@Slf4j
+public class BootstrapService {
+
+    private record ChannelHistory(Long workspaceId, List<ChannelDTO> channels, Long channelId,
+                                  List<MessageDTO> messages) {
+        static final ChannelHistory NONE = new ChannelHistory(null, List.of(), null, List.of());
+    }
+
+    /**
+     * Parts started for one request; a part started after cancelAll() is cancelled immediately
+     */
+    private static final class Parts {
+        private final Queue<CompletableFuture<?>> futures = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+
+        <T> CompletableFuture<T> add(CompletableFuture<T> future) {
+            futures.add(future);
+            if (cancelled.get()) {
+                future.cancel(true);
+            }
+            return future;
+        }
+
+        void cancelAll() {
+            cancelled.set(true);
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private final UserService userService;
+    private final WorkspaceService workspaceService;
+    private final DirectMessageService directMessageService;
+    private final NotificationService notificationService;
+    private final MessageService messageService;
+    private final ChannelRepository channelRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+
+    public BootstrapService(UserService userService,
+                            WorkspaceService workspaceService,
+                            DirectMessageService directMessageService,
+                            NotificationService notificationService,
+                            MessageService messageService,
+                            ChannelRepository channelRepository,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${bootstrap.threads:8}") int threads,
+                            @Value("${bootstrap.queue-size:200}") int queueSize,
+                            @Value("${bootstrap.timeout-ms:5000}") long timeoutMillis) {
+        this.userService = userService;
+        this.workspaceService = workspaceService;
+        this.directMessageService = directMessageService;
+        this.notificationService = notificationService;
+        this.messageService = messageService;
+        this.channelRepository = channelRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.meterRegistry = meterRegistry;
+        this.timeoutMillis = timeoutMillis;
+
+        // When the queue is full the request thread builds the part itself rather than failing
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), runnable -> {
+                    Thread thread = new Thread(runnable, "bootstrap-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Sync the user and load everything for the first paint
+     *
+     * @param workspaceId preferred workspace; the first workspace is used when null or the user is not a member
+     * @param channelId   preferred channel in that workspace; the first channel is used when null or not found
+     */
+    public BootstrapDTO bootstrap(String clerkId, String displayName, String email, String avatarUrl,
+                                  Long workspaceId, Long channelId, int messageLimit) {
+        long start = System.nanoTime();
+        String outcome = "error";
+        Parts parts = new Parts();
+        try {
+            User user = ReplicaRoutingContext.callAs(clerkId,
+                    () -> userService.createOrUpdateUser(clerkId, displayName, email, avatarUrl));
+
+            CompletableFuture<List<WorkspaceDTO>> workspaces =
+                    async(parts, clerkId, "workspaces", () -> workspaceService.getUserWorkspaces(user));
+            CompletableFuture<List<ConversationDTO>> conversations =
+                    async(parts, clerkId, "conversations", () -> directMessageService.getUserConversations(user));
+            CompletableFuture<Long> unreadCount =
+                    async(parts, clerkId, "unread-count", () -> notificationService.getUnreadCount(clerkId));
+
+            CompletableFuture<Long> firstWorkspace = parts.add(
+                    workspaces.thenApply(list -> list.isEmpty() ? null : list.get(0).id()));
+            CompletableFuture<ChannelHistory> channels;
+            if (workspaceId != null) {
+                // Start right away; fall back to the first workspace if the caller is not a member
+                channels = async(parts, clerkId, "channels", () -> workspaceService.isUserMemberOf(clerkId, workspaceId)
+                                ? loadChannels(workspaceId, channelId, messageLimit)
+                                : null)
+                        .thenCompose(history -> history != null
+                                ? CompletableFuture.completedFuture(history)
+                                : firstWorkspace.thenCompose(id -> channelsOf(parts, clerkId, id, null, messageLimit)));
+            } else {
+                channels = firstWorkspace.thenCompose(id -> channelsOf(parts, clerkId, id, channelId, messageLimit));
+            }
+            parts.add(channels);
+
+            CompletableFuture.allOf(workspaces, conversations, unreadCount, channels)
+                    .get(timeoutMillis, TimeUnit.MILLISECONDS);
+
+            ChannelHistory history = channels.join();
+            outcome = "ok";
+            return new BootstrapDTO(
+                    UserDTO.fromEntity(user),
+                    workspaces.join(),
+                    history.workspaceId(),
+                    history.channels(),
+                    history.channelId(),
+                    history.messages(),
+                    conversations.join(),
+                    unreadCount.join());
+        } catch (TimeoutException e) {
+            outcome = "timeout";
+            throw new RuntimeException("Bootstrap timed out after " + timeoutMillis + " ms");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException runtime ? runtime : new RuntimeException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Bootstrap interrupted");
+        } finally {
+            if (!"ok".equals(outcome)) {
+                // Nobody will read the rest; free the executor for other requests
+                parts.cancelAll();
+            }
+            long elapsed = System.nanoTime() - start;
+            Timer.builder("buzzlink.bootstrap.duration")
+                    .description("First-paint latency: time to assemble the bootstrap payload")
+                    .tag("outcome", outcome)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+            log.debug("Bootstrap for {} {} in {} ms", clerkId, outcome, TimeUnit.NANOSECONDS.toMillis(elapsed));
+        }
+    }
+
+    private CompletableFuture<ChannelHistory> channelsOf(Parts parts, String clerkId, Long workspaceId,
+                                                         Long channelId, int messageLimit) {
+        return workspaceId == null
+                ? CompletableFuture.completedFuture(ChannelHistory.NONE)
+                : async(parts, clerkId, "channels", () -> loadChannels(workspaceId, channelId, messageLimit));
+    }
+
+    private ChannelHistory loadChannels(Long workspaceId, Long channelId, int messageLimit) {
+        List<Channel> channels = channelRepository.findByWorkspaceId(workspaceId);
+        if (channels.isEmpty()) {
+            return new ChannelHistory(workspaceId, List.of(), null, List.of());
+        }
+        Channel selected = channels.stream()
+                .filter(channel -> channel.getId().equals(channelId))
+                .findFirst()
+                .orElse(channels.get(0));
+        return new ChannelHistory(
+                workspaceId,
+                channels.stream().map(ChannelDTO::fromEntity).collect(Collectors.toList()),
+                selected.getId(),
+                messageService.getRecentMessages(selected, messageLimit));
+    }
+
+    /**
+     * Run one part on the executor in its own read-only transaction, as the user (for read-your-writes), timing it
+     *
+     * A part cancelled before a thread picks it up is skipped; one already running finishes and is discarded.
+     */
+    private <T> CompletableFuture<T> async(Parts parts, String clerkId, String part, Supplier<T> loader) {
+        return parts.add(CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            try {
+                return ReplicaRoutingContext.callAs(clerkId,
+                        () -> readOnlyTransaction.execute(status -> loader.get()));
+            } finally {
+                Timer.builder("buzzlink.bootstrap.part")
+                        .description("Time to load one part of the bootstrap payload")
+                        .tag("part", part)
+                        .register(meterRegistry)
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }, executor));
+    }
+}
@@ -0,0 +1,376 @@
+package com.buzzlink.service;
+
+import com.buzzlink.config.CacheRegions;
+import com.buzzlink.dto.BulkInvitationJobDTO;
+import com.buzzlink.entity.User;
+import com.buzzlink.entity.UserWorkspaceMember;
+import com.buzzlink.entity.Workspace;
+import com.buzzlink.entity.WorkspaceInvitation;
+import com.buzzlink.repository.UserRepository;
+import com.buzzlink.repository.UserWorkspaceMemberRepository;
+import com.buzzlink.repository.WorkspaceInvitationRepository;
+import com.buzzlink.repository.WorkspaceRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Invites many emails to a workspace in the background
+ *
+ * Emails are processed in chunks, one transaction per chunk: existing users,
+ * current members and pending invitations are resolved with one IN query
+ * each, then invitations, memberships (for emails that already have an
+ * account, as the single invite does) and invitation emails are inserted
+ * with JDBC batches. Emails go through the outbox, so no chunk waits on SMTP.
+ * Jobs are tracked in memory and can be polled for progress. Existing users
+ * are matched on LOWER(email), backed by an expression index on PostgreSQL.
+ */
+@Service
+@Slf4j
+public class BulkInvitationService {
+
+    public enum JobStatus {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s,;]+@[^@\\s,;]+\\.[^@\\s,;]+$");
+    private static final int MAX_ERRORS = 20;
+    private static final long JOB_RETENTION_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private final WorkspaceRepository workspaceRepository;
+    private final UserRepository userRepository;
+    private final UserWorkspaceMemberRepository memberRepository;
+    private final WorkspaceInvitationRepository invitationRepository;
+    private final EmailService emailService;
+    private final UserSearchService userSearchService;
+    private final ResourceVersionService resourceVersionService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final DataSource dataSource;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ThreadPoolExecutor executor;
+    private final int chunkSize;
+    private final int maxEmails;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    public BulkInvitationService(WorkspaceRepository workspaceRepository,
+                                 UserRepository userRepository,
+                                 UserWorkspaceMemberRepository memberRepository,
+                                 WorkspaceInvitationRepository invitationRepository,
+                                 EmailService emailService,
+                                 UserSearchService userSearchService,
+                                 ResourceVersionService resourceVersionService,
+                                 DataSource dataSource,
+                                 PlatformTransactionManager transactionManager,
+                                 EntityManagerFactory entityManagerFactory,
+                                 @Value("${invitations.bulk.chunk-size:1000}") int chunkSize,
+                                 @Value("${invitations.bulk.max-emails:20000}") int maxEmails,
+                                 @Value("${invitations.bulk.threads:2}") int threads) {
+        this.workspaceRepository = workspaceRepository;
+        this.userRepository = userRepository;
+        this.memberRepository = memberRepository;
+        this.invitationRepository = invitationRepository;
+        this.emailService = emailService;
+        this.userSearchService = userSearchService;
+        this.resourceVersionService = resourceVersionService;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.dataSource = dataSource;
+        this.entityManagerFactory = entityManagerFactory;
+        this.chunkSize = chunkSize;
+        this.maxEmails = maxEmails;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(100), runnable -> {
+                    Thread thread = new Thread(runnable, "bulk-invitations-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Create the LOWER(email) index the existing-user lookup relies on (PostgreSQL; Hibernate cannot declare it)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureEmailIndex() {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT).contains("postgres")) return;
+        } catch (SQLException e) {
+            log.warn("Could not determine the database type: {}", e.getMessage());
+            return;
+        }
+        try {
+            // Built without blocking user writes; a failed build leaves an invalid index to replace
+            Boolean valid = jdbcTemplate.queryForList("SELECT x.indisvalid FROM pg_index x " +
+                "WHERE x.indexrelid = to_regclass('idx_users_email_lower')", Boolean.class)
+                .stream().findFirst().orElse(null);
+            if (Boolean.FALSE.equals(valid)) {
+                jdbcTemplate.execute("DROP INDEX CONCURRENTLY idx_users_email_lower");
+            }
+            jdbcTemplate.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_email_lower ON users (LOWER(email))");
+        } catch (DataAccessException e) {
+            log.warn("Could not create idx_users_email_lower; bulk invitations will scan users: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Extract emails from CSV text: the first column of each row, skipping a header row
+     */
+    public static List<String> parseCsv(String csv) {
+        List<String> emails = new ArrayList<>();
+        String[] lines = csv.split("\\r?\\n");
+        for (int i = 0; i < lines.length; i++) {
+            String first = lines[i].split("[,;\\t]", 2)[0].trim().replace("\"", "");
+            if (first.isEmpty() || (i == 0 && !first.contains("@"))) continue;
+            emails.add(first);
+        }
+        return emails;
+    }
+
+    /**
+     * Validate the request and queue a job
+     *
+     * @return the job's initial progress (poll getJob with its id)
+     */
+    public BulkInvitationJobDTO submit(Long workspaceId, List<String> emails, String inviterClerkId,
+                                       UserWorkspaceMember.Role role) {
+        if (emails == null || emails.isEmpty()) {
+            throw new IllegalArgumentException("No emails given");
+        }
+        if (emails.size() > maxEmails) {
+            throw new IllegalArgumentException("At most " + maxEmails + " emails per bulk invitation");
+        }
+        Workspace workspace = workspaceRepository.findById(workspaceId)
+            .orElseThrow(() -> new RuntimeException("Workspace not found"));
+        User inviter = userRepository.findByClerkId(inviterClerkId)
+            .orElseThrow(() -> new RuntimeException("Inviter not found"));
+        UserWorkspaceMember.Role inviterRole = memberRepository.findByUserIdAndWorkspaceId(inviter.getId(), workspaceId)
+            .map(UserWorkspaceMember::getRole)
+            .orElse(null);
+        if (inviterRole != UserWorkspaceMember.Role.OWNER && inviterRole != UserWorkspaceMember.Role.ADMIN) {
+            throw new RuntimeException("Only workspace owners and admins can send bulk invitations");
+        }
+
+        // Normalise and de-duplicate, keeping the caller's order
+        Set<String> unique = new LinkedHashSet<>();
+        int invalid = 0;
+        for (String email : emails) {
+            String normalised = email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+            if (EMAIL.matcher(normalised).matches()) {
+                unique.add(normalised);
+            } else {
+                invalid++;
+            }
+        }
+
+        removeExpiredJobs();
+        int duplicates = emails.size() - invalid - unique.size();
+        Job job = new Job(UUID.randomUUID().toString(), workspace.getId(), emails.size());
+        job.processed.set(invalid + duplicates);
+        job.invalid.set(invalid);
+        job.skipped.set(duplicates);
+        jobs.put(job.id, job);
+
+        List<String> toInvite = new ArrayList<>(unique);
+        try {
+            executor.execute(() -> run(job, workspace, inviter, role, toInvite));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            throw new RuntimeException("Too many bulk invitations in progress; try again later");
+        }
+        return job.snapshot();
+    }
+
+    public BulkInvitationJobDTO getJob(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            throw new RuntimeException("Bulk invitation job not found: " + jobId);
+        }
+        return job.snapshot();
+    }
+
+    private void run(Job job, Workspace workspace, User inviter, UserWorkspaceMember.Role role, List<String> emails) {
+        job.status = JobStatus.RUNNING;
+        long start = System.currentTimeMillis();
+        try {
+            for (int from = 0; from < emails.size(); from += chunkSize) {
+                List<String> chunk = emails.subList(from, Math.min(emails.size(), from + chunkSize));
+                try {
+                    processChunk(job, workspace, inviter, role, chunk);
+                } catch (DataIntegrityViolationException e) {
+                    // A concurrent invite or join touched one of these emails; the lookups pick it up on retry
+                    log.info("Bulk invitation chunk conflicted, retrying: {}", e.getMessage());
+                    try {
+                        processChunk(job, workspace, inviter, role, chunk);
+                    } catch (RuntimeException retryError) {
+                        job.error("Failed to invite " + chunk.size() + " emails: " + retryError.getMessage());
+                    }
+                } catch (RuntimeException e) {
+                    job.error("Failed to invite " + chunk.size() + " emails: " + e.getMessage());
+                }
+                job.processed.addAndGet(chunk.size());
+            }
+            job.status = JobStatus.COMPLETED;
+        } catch (RuntimeException e) {
+            job.error(e.getMessage());
+            job.status = JobStatus.FAILED;
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+        }
+        log.info("Bulk invitation {} to workspace {}: {} invited, {} added as members, {} skipped, {} invalid in {} ms",
+            job.id, workspace.getId(), job.invited.get(), job.addedAsMembers.get(), job.skipped.get(),
+            job.invalid.get(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Invite one chunk of normalised, unique emails in a single transaction
+     */
+    private void processChunk(Job job, Workspace workspace, User inviter, UserWorkspaceMember.Role role,
+                              List<String> emails) {
+        int[] counts = transaction.execute(status -> {
+            Long workspaceId = workspace.getId();
+            Map<String, Long> userIdByEmail = new HashMap<>();
+            Map<Long, String> clerkIdByUserId = new HashMap<>();
+            for (Object[] row : userRepository.findIdentitiesByEmailIn(emails)) {
+                userIdByEmail.put(((String) row[2]).toLowerCase(Locale.ROOT), (Long) row[0]);
+                clerkIdByUserId.put((Long) row[0], (String) row[1]);
+            }
+            Set<Long> members = userIdByEmail.isEmpty()
+                ? Set.of()
+                : new HashSet<>(memberRepository.findMemberUserIds(workspaceId, userIdByEmail.values()));
+            Set<String> pending = new HashSet<>(invitationRepository.findInvitedEmails(
+                workspaceId, WorkspaceInvitation.Status.PENDING, emails));
+
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            Timestamp expiresAt = Timestamp.valueOf(LocalDateTime.now().plusDays(7));
+            List<Object[]> invitations = new ArrayList<>();
+            List<Object[]> memberships = new ArrayList<>();
+            List<Long> newMemberIds = new ArrayList<>();
+            Map<String, String> tokensByEmail = new LinkedHashMap<>();
+            int skipped = 0;
+            for (String email : emails) {
+                Long userId = userIdByEmail.get(email);
+                if ((userId != null && members.contains(userId)) || pending.contains(email)) {
+                    skipped++;
+                    continue;
+                }
+                String token = UUID.randomUUID().toString();
+                WorkspaceInvitation.Status invitationStatus = userId != null
+                    ? WorkspaceInvitation.Status.ACCEPTED
+                    : WorkspaceInvitation.Status.PENDING;
+                invitations.add(new Object[]{email, workspaceId, inviter.getId(), role.name(),
+                    invitationStatus.name(), token, expiresAt, now});
+                tokensByEmail.put(email, token);
+                if (userId != null) {
+                    memberships.add(new Object[]{userId, workspaceId, role.name(), now});
+                    newMemberIds.add(userId);
+                }
+            }
+
+            jdbcTemplate.batchUpdate("INSERT INTO workspace_invitations (email, workspace_id, inviter_id, role, " +
+                "status, token, expires_at, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", invitations);
+            jdbcTemplate.batchUpdate("INSERT INTO user_workspace_members (user_id, workspace_id, role, joined_at) " +
+                "VALUES (?, ?, ?, ?)", memberships);
+            emailService.sendWorkspaceInvitations(workspace.getName(), inviter.getDisplayName(), tokensByEmail);
+            newMemberIds.forEach(userId -> userSearchService.membershipAdded(userId, workspaceId));
+            if (!newMemberIds.isEmpty()) {
+                resourceVersionService.membershipChanged(workspaceId,
+                    newMemberIds.stream().map(clerkIdByUserId::get).toList());
+            }
+            return new int[]{invitations.size() - memberships.size(), memberships.size(), skipped};
+        });
+        if (counts[1] > 0) {
+            // The JDBC inserts bypass Hibernate, so cached "not a member" answers must go
+            entityManagerFactory.getCache().unwrap(org.hibernate.Cache.class)
+                .evictQueryRegion(CacheRegions.MEMBERSHIP_ROLES);
+        }
+        job.invited.addAndGet(counts[0]);
+        job.addedAsMembers.addAndGet(counts[1]);
+        job.skipped.addAndGet(counts[2]);
+    }
+
+    private void removeExpiredJobs() {
+        long cutoff = System.currentTimeMillis() - JOB_RETENTION_MILLIS;
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAtMillis() < cutoff);
+    }
+
+    private static final class Job {
+        final String id;
+        final Long workspaceId;
+        final int total;
+        final AtomicInteger processed = new AtomicInteger();
+        final AtomicInteger invited = new AtomicInteger();
+        final AtomicInteger addedAsMembers = new AtomicInteger();
+        final AtomicInteger skipped = new AtomicInteger();
+        final AtomicInteger invalid = new AtomicInteger();
+        final List<String> errors = Collections.synchronizedList(new ArrayList<>());
+        final LocalDateTime startedAt = LocalDateTime.now();
+        volatile JobStatus status = JobStatus.QUEUED;
+        volatile LocalDateTime finishedAt;
+
+        Job(String id, Long workspaceId, int total) {
+            this.id = id;
+            this.workspaceId = workspaceId;
+            this.total = total;
+        }
+
+        void error(String message) {
+            if (errors.size() < MAX_ERRORS) {
+                errors.add(message);
+            }
+        }
+
+        long finishedAtMillis() {
+            return Timestamp.valueOf(finishedAt).getTime();
+        }
+
+        BulkInvitationJobDTO snapshot() {
+            List<String> errorsCopy;
+            synchronized (errors) {
+                errorsCopy = List.copyOf(errors);
+            }
+            return new BulkInvitationJobDTO(id, status.name(), workspaceId, total, processed.get(), invited.get(),
+                addedAsMembers.get(), skipped.get(), invalid.get(), errorsCopy, startedAt, finishedAt);
+        }
+    }
+}
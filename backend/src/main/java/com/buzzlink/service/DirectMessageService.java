@@ -2,21 +2,30 @@ package com.buzzlink.service;
 
 import com.buzzlink.dto.DirectMessageDTO;
 import com.buzzlink.dto.ConversationDTO;
-import com.buzzlink.dto.UserDTO;
+import com.buzzlink.entity.DirectConversation;
 import com.buzzlink.entity.DirectMessage;
 import com.buzzlink.entity.User;
+import com.buzzlink.repository.DirectConversationRepository;
 import com.buzzlink.repository.DirectMessageRepository;
 import com.buzzlink.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
+@Slf4j
 public class DirectMessageService {
 
         @Autowired
@@ -25,6 +34,17 @@ public class DirectMessageService {
         @Autowired
         private UserRepository userRepository;
 
+        @Autowired
+        private SystemStatsService systemStatsService;
+
+        @Autowired
+        private DirectConversationRepository conversationRepository;
+
+        @Autowired
+        private EntityManagerFactory entityManagerFactory;
+
+        private volatile Boolean postgres;
+
         /**
          * Send a direct message
          */
@@ -40,55 +60,116 @@ public class DirectMessageService {
 
                 DirectMessage dm = new DirectMessage(sender, recipient, content, messageType);
                 dm = dmRepository.save(dm);
+                userRepository.incrementDirectMessageCount(sender.getId(), 1);
+                systemStatsService.adjust(SystemStatsService.Stat.DIRECT_MESSAGES, 1);
+                lockConversation(sender, recipient).apply(dm);
 
                 return DirectMessageDTO.from(dm);
         }
 
         /**
-         * Get conversation between two users
+         * The pair's summary row, locked until the current transaction ends
+         * The row is created if absent in the same transaction; concurrent first
+         * messages between the same pair skip the duplicate insert and then wait
+         * on the row lock.
          */
-        public List<DirectMessageDTO> getConversation(String clerkId, Long otherUserId, int limit) {
+        private DirectConversation lockConversation(User a, User b) {
+                Long lowId = Math.min(a.getId(), b.getId());
+                Long highId = Math.max(a.getId(), b.getId());
+                return conversationRepository.findPairForUpdate(lowId, highId).orElseGet(() -> {
+                        if (isPostgres()) {
+                                conversationRepository.insertPairIfAbsent(lowId, highId);
+                        } else {
+                                conversationRepository.mergePairIfAbsent(lowId, highId);
+                        }
+                        return conversationRepository.findPairForUpdate(lowId, highId)
+                                        .orElseThrow(() -> new RuntimeException("Conversation not found"));
+                });
+        }
+
+        private boolean isPostgres() {
+                Boolean known = postgres;
+                if (known == null) {
+                        known = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                                        .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+                        postgres = known;
+                }
+                return known;
+        }
+
+        /**
+         * Mark a conversation as read by this user
+         */
+        @Transactional
+        public void markConversationRead(String clerkId, Long otherUserId) {
                 User user = userRepository.findByClerkId(clerkId)
                                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-                List<DirectMessage> messages = dmRepository.findConversation(
-                                user.getId(),
-                                otherUserId,
-                                PageRequest.of(0, limit));
+                if (user.getId() <= otherUserId) {
+                        conversationRepository.clearLowUnread(user.getId(), otherUserId);
+                } else {
+                        conversationRepository.clearHighUnread(user.getId(), otherUserId);
+                }
+        }
+
+        /**
+         * Get a page of the conversation between two users, newest first
+         * With before (or after) set, returns the messages just older (or newer) than that message.
+         */
+        public List<DirectMessageDTO> getConversation(String clerkId, Long otherUserId, int limit,
+                                                      Long before, Long after) {
+                User user = userRepository.findByClerkId(clerkId)
+                                .orElseThrow(() -> new RuntimeException("User not found"));
+                if (before != null && after != null) {
+                        throw new IllegalArgumentException("Use either before or after, not both");
+                }
+
+                Long lowId = Math.min(user.getId(), otherUserId);
+                Long highId = Math.max(user.getId(), otherUserId);
+                PageRequest page = PageRequest.of(0, limit);
+
+                List<DirectMessage> messages;
+                if (before != null) {
+                        DirectMessage cursor = findCursor(before);
+                        messages = dmRepository.findConversationBefore(lowId, highId,
+                                        cursor.getCreatedAt(), cursor.getId(), page);
+                } else if (after != null) {
+                        DirectMessage cursor = findCursor(after);
+                        messages = new ArrayList<>(dmRepository.findConversationAfter(lowId, highId,
+                                        cursor.getCreatedAt(), cursor.getId(), page));
+                        Collections.reverse(messages);
+                } else {
+                        messages = dmRepository.findConversation(lowId, highId, page);
+                }
 
                 return messages.stream()
                                 .map(DirectMessageDTO::from)
                                 .collect(Collectors.toList());
         }
 
+        private DirectMessage findCursor(Long messageId) {
+                return dmRepository.findById(messageId)
+                                .orElseThrow(() -> new IllegalArgumentException("Unknown cursor message: " + messageId));
+        }
+
         /**
-         * Get all conversations for a user
+         * Get all conversations for a user, most recent first (one query over the summaries)
          */
+        @Transactional(readOnly = true)
         public List<ConversationDTO> getUserConversations(String clerkId) {
                 User user = userRepository.findByClerkId(clerkId)
                                 .orElseThrow(() -> new RuntimeException("User not found"));
+                return getUserConversations(user);
+        }
 
-                List<User> conversationPartners = dmRepository.findConversationPartners(user.getId());
-
-                List<ConversationDTO> conversations = new ArrayList<>();
-                for (User partner : conversationPartners) {
-                        // Get last message with this user
-                        List<DirectMessage> recentMessages = dmRepository.findConversation(
-                                        user.getId(),
-                                        partner.getId(),
-                                        PageRequest.of(0, 1));
-
-                        if (!recentMessages.isEmpty()) {
-                                DirectMessage lastMessage = recentMessages.get(0);
-                                conversations.add(new ConversationDTO(
-                                                UserDTO.fromEntity(partner),
-                                                DirectMessageDTO.from(lastMessage),
-                                                0 // TODO: Implement unread count tracking
-                                ));
-                        }
-                }
-
-                return conversations;
+        /**
+         * Get all conversations of an already resolved user, most recent first
+         */
+        @Transactional(readOnly = true)
+        public List<ConversationDTO> getUserConversations(User user) {
+                return conversationRepository.findForUser(user.getId()).stream()
+                                .map(conversation -> ConversationDTO.from(conversation, user.getId()))
+                                .collect(Collectors.toList());
         }
 
         /**
@@ -106,4 +187,39 @@ public class DirectMessageService {
                                 .map(DirectMessageDTO::from)
                                 .collect(Collectors.toList());
         }
+
+        /**
+         * Fill the canonical conversation key on messages stored before it existed
+         */
+        @EventListener(ApplicationReadyEvent.class)
+        @Transactional
+        public void backfillConversationKeys() {
+                int updated = dmRepository.backfillConversationKeys();
+                if (updated > 0) {
+                        log.info("Backfilled conversation keys on {} direct messages", updated);
+                }
+        }
+
+        /**
+         * Build the conversation summaries on first start against a database that already has DMs
+         */
+        @EventListener(ApplicationReadyEvent.class)
+        @Transactional
+        public void backfillConversationsIfEmpty() {
+                if (conversationRepository.count() == 0 && dmRepository.count() > 0) {
+                        rebuildConversationSummaries();
+                }
+        }
+
+        /**
+         * Rebuild every conversation summary from direct_messages (e.g. after a bulk import)
+         * Unread counts restart at zero.
+         */
+        @Transactional
+        public int rebuildConversationSummaries() {
+                conversationRepository.deleteAllInBatch();
+                int created = conversationRepository.backfillFromDirectMessages();
+                log.info("Rebuilt {} DM conversation summaries", created);
+                return created;
+        }
 }
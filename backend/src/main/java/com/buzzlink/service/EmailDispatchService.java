@@ -0,0 +1,330 @@
+package com.buzzlink.service;
+
+import com.buzzlink.entity.OutboundEmail;
+import com.buzzlink.repository.OutboundEmailRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers queued emails (see EmailService) from the email_outbox table
+ *
+ * Worker threads claim due rows in batches (FOR UPDATE SKIP LOCKED, so several
+ * nodes can share the queue), send them over an SMTP connection each worker
+ * keeps open between batches, and record the outcome. Failures are retried
+ * with exponential backoff and jitter; permanent failures (rejected
+ * recipients) and emails that exhaust max-attempts are marked DEAD.
+ *
+ * Metrics: buzzlink.email.send{outcome=sent|retry|dead} (SMTP send latency)
+ * and buzzlink.email.queue.depth{status=pending|dead}.
+ */
+@Service
+@Slf4j
+public class EmailDispatchService {
+
+    private static final List<OutboundEmail.Status> CLAIMABLE =
+            List.of(OutboundEmail.Status.PENDING, OutboundEmail.Status.SENDING);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OutboundEmailRepository outboundEmailRepository;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transaction;
+    private final MeterRegistry meterRegistry;
+    private final String fromEmail;
+    private final int threads;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+    private final long pollMillis;
+    private final long idleCloseMillis;
+    private final int sentRetentionDays;
+
+    private final AtomicLong pendingDepth = new AtomicLong();
+    private final AtomicLong deadDepth = new AtomicLong();
+    private final Object signal = new Object();
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    public EmailDispatchService(OutboundEmailRepository outboundEmailRepository,
+                                ObjectProvider<JavaMailSender> mailSender,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${spring.mail.username:noreply@buzzlink.com}") String fromEmail,
+                                @Value("${email.dispatch.threads:2}") int threads,
+                                @Value("${email.dispatch.batch-size:20}") int batchSize,
+                                @Value("${email.dispatch.max-attempts:8}") int maxAttempts,
+                                @Value("${email.dispatch.initial-backoff-ms:30000}") long initialBackoffMillis,
+                                @Value("${email.dispatch.max-backoff-ms:3600000}") long maxBackoffMillis,
+                                @Value("${email.dispatch.lease-ms:300000}") long leaseMillis,
+                                @Value("${email.dispatch.poll-interval-ms:5000}") long pollMillis,
+                                @Value("${email.dispatch.idle-close-ms:30000}") long idleCloseMillis,
+                                @Value("${email.outbox.sent-retention-days:7}") int sentRetentionDays) {
+        this.outboundEmailRepository = outboundEmailRepository;
+        this.mailSender = mailSender.getIfAvailable();
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.fromEmail = fromEmail;
+        this.threads = threads;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = Duration.ofMillis(initialBackoffMillis);
+        this.maxBackoff = Duration.ofMillis(maxBackoffMillis);
+        this.lease = Duration.ofMillis(leaseMillis);
+        this.pollMillis = pollMillis;
+        this.idleCloseMillis = idleCloseMillis;
+        this.sentRetentionDays = sentRetentionDays;
+
+        Gauge.builder("buzzlink.email.queue.depth", pendingDepth, AtomicLong::get)
+                .description("Emails waiting in the outbox")
+                .tag("status", "pending")
+                .register(meterRegistry);
+        Gauge.builder("buzzlink.email.queue.depth", deadDepth, AtomicLong::get)
+                .description("Emails waiting in the outbox")
+                .tag("status", "dead")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        refreshQueueDepth();
+        if (mailSender == null) {
+            log.warn("Mail sender not configured; queued emails will be delivered once SMTP is configured");
+            return;
+        }
+        running = true;
+        for (int i = 1; i <= threads; i++) {
+            Thread worker = new Thread(this::work, "email-dispatch-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+        log.info("Email dispatcher started with {} workers", threads);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+    }
+
+    /**
+     * Have idle workers check the queue now instead of at their next poll
+     */
+    public void wake() {
+        synchronized (signal) {
+            signal.notifyAll();
+        }
+    }
+
+    /**
+     * Put every dead email back in the queue
+     */
+    public int retryDead() {
+        Integer requeued = transaction.execute(status -> outboundEmailRepository.requeueDead(LocalDateTime.now()));
+        refreshQueueDepth();
+        wake();
+        return requeued == null ? 0 : requeued;
+    }
+
+    public Map<String, Long> queueStats() {
+        refreshQueueDepth();
+        return Map.of("pending", pendingDepth.get(), "dead", deadDepth.get());
+    }
+
+    @Scheduled(fixedDelayString = "${email.dispatch.depth-refresh-ms:15000}")
+    public void refreshQueueDepth() {
+        pendingDepth.set(outboundEmailRepository.countByStatus(OutboundEmail.Status.PENDING)
+                + outboundEmailRepository.countByStatus(OutboundEmail.Status.SENDING));
+        deadDepth.set(outboundEmailRepository.countByStatus(OutboundEmail.Status.DEAD));
+    }
+
+    @Scheduled(cron = "${email.outbox.cleanup-cron:0 0 4 * * *}")
+    public void deleteOldSentEmails() {
+        Integer deleted = transaction.execute(status ->
+                outboundEmailRepository.deleteSentBefore(LocalDateTime.now().minusDays(sentRetentionDays)));
+        log.info("Deleted {} delivered emails from the outbox", deleted);
+    }
+
+    private void work() {
+        SmtpConnection connection = new SmtpConnection();
+        long lastSendMillis = System.currentTimeMillis();
+        while (running) {
+            try {
+                List<OutboundEmail> batch = claim();
+                if (batch.isEmpty()) {
+                    if (System.currentTimeMillis() - lastSendMillis >= idleCloseMillis) {
+                        connection.close();
+                    }
+                    synchronized (signal) {
+                        signal.wait(pollMillis);
+                    }
+                    continue;
+                }
+                deliver(batch, connection);
+                lastSendMillis = System.currentTimeMillis();
+            } catch (InterruptedException e) {
+                break;
+            } catch (Exception e) {
+                log.error("Email dispatch worker error", e);
+                connection.close();
+                sleepQuietly(pollMillis);
+            }
+        }
+        connection.close();
+    }
+
+    /**
+     * Claim the next due emails for this worker: they become SENDING until the lease expires
+     */
+    private List<OutboundEmail> claim() {
+        return transaction.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboundEmail> due = outboundEmailRepository.findDueForUpdate(CLAIMABLE, now,
+                    PageRequest.of(0, batchSize));
+            for (OutboundEmail email : due) {
+                email.setStatus(OutboundEmail.Status.SENDING);
+                email.setNextAttemptAt(now.plus(lease));
+            }
+            return due;
+        });
+    }
+
+    private void deliver(List<OutboundEmail> batch, SmtpConnection connection) {
+        List<Long> sent = new ArrayList<>();
+        List<OutboundEmail> failed = new ArrayList<>();
+        for (OutboundEmail email : batch) {
+            long start = System.nanoTime();
+            String outcome;
+            try {
+                connection.send(email);
+                sent.add(email.getId());
+                outcome = "sent";
+            } catch (MessagingException | RuntimeException e) {
+                boolean permanent = e instanceof SendFailedException sfe
+                        && sfe.getInvalidAddresses() != null && sfe.getInvalidAddresses().length > 0;
+                // The connection may be unusable; reconnect for the next email
+                connection.close();
+                outcome = scheduleRetry(email, e, permanent);
+                failed.add(email);
+            }
+            Timer.builder("buzzlink.email.send")
+                    .description("SMTP send latency by outcome")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(Duration.ofNanos(System.nanoTime() - start));
+        }
+
+        transaction.executeWithoutResult(status -> {
+            if (!sent.isEmpty()) {
+                outboundEmailRepository.markSent(sent, LocalDateTime.now());
+            }
+            outboundEmailRepository.saveAll(failed);
+        });
+    }
+
+    /**
+     * Record a failed attempt: back off exponentially, or give up
+     *
+     * @return the metric outcome ("retry" or "dead")
+     */
+    private String scheduleRetry(OutboundEmail email, Exception error, boolean permanent) {
+        int attempts = email.getAttempts() + 1;
+        email.setAttempts(attempts);
+        String message = error.getClass().getSimpleName() + ": " + error.getMessage();
+        email.setLastError(message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message);
+
+        if (permanent || attempts >= maxAttempts) {
+            email.setStatus(OutboundEmail.Status.DEAD);
+            log.warn("Giving up on email {} to {} after {} attempts: {}", email.getId(), email.getRecipient(),
+                    attempts, email.getLastError());
+            return "dead";
+        }
+
+        long backoff = Math.min(maxBackoff.toMillis(), initialBackoff.toMillis() << Math.min(attempts - 1, 30));
+        // Jitter between half and all of the backoff spreads retries out after an SMTP outage
+        long delay = backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+        email.setStatus(OutboundEmail.Status.PENDING);
+        email.setNextAttemptAt(LocalDateTime.now().plus(Duration.ofMillis(delay)));
+        log.info("Email {} to {} failed (attempt {}), retrying in {} ms: {}", email.getId(), email.getRecipient(),
+                attempts, delay, email.getLastError());
+        return "retry";
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * One worker's SMTP connection, opened on first use and kept across batches
+     * (JavaMailSender.send would connect and disconnect for every call)
+     */
+    private final class SmtpConnection {
+        private Transport transport;
+
+        void send(OutboundEmail email) throws MessagingException {
+            if (!(mailSender instanceof JavaMailSenderImpl sender)) {
+                mailSender.send(toMimeMessage(mailSender.createMimeMessage(), email));
+                return;
+            }
+            if (transport == null || !transport.isConnected()) {
+                close();
+                transport = sender.getSession().getTransport(sender.getProtocol());
+                transport.connect(sender.getHost(), sender.getPort(), sender.getUsername(), sender.getPassword());
+            }
+            MimeMessage message = toMimeMessage(sender.createMimeMessage(), email);
+            message.saveChanges();
+            transport.sendMessage(message, message.getAllRecipients());
+        }
+
+        void close() {
+            if (transport == null) return;
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                log.debug("Error closing SMTP connection: {}", e.getMessage());
+            }
+            transport = null;
+        }
+
+        private MimeMessage toMimeMessage(MimeMessage message, OutboundEmail email) throws MessagingException {
+            MimeMessageHelper helper = new MimeMessageHelper(message, "UTF-8");
+            helper.setFrom(fromEmail);
+            helper.setTo(email.getRecipient());
+            helper.setSubject(email.getSubject());
+            helper.setText(email.getBody());
+            return message;
+        }
+    }
+}
@@ -1,30 +1,51 @@
 package com.buzzlink.service;
 
-import org.springframework.beans.factory.annotation.Autowired;
+import com.buzzlink.entity.OutboundEmail;
+import com.buzzlink.repository.OutboundEmailRepository;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Email service for sending invitations
- * Uses Spring Mail with SMTP
+ *
+ * Emails are queued in the email_outbox table as part of the caller's
+ * transaction and delivered by EmailDispatchService, so SMTP latency never
+ * holds a database connection or blocks a request, and an email is queued
+ * if and only if the invitation that caused it commits.
  */
 @Service
+@Slf4j
 public class EmailService {
 
-    @Autowired(required = false)
-    private JavaMailSender mailSender;
-
-    @Value("${spring.mail.username:noreply@buzzlink.com}")
-    private String fromEmail;
+    private final OutboundEmailRepository outboundEmailRepository;
+    private final EmailDispatchService emailDispatchService;
+    private final JdbcTemplate jdbcTemplate;
 
     @Value("${app.frontend.url:http://localhost:3000}")
     private String frontendUrl;
 
+    public EmailService(OutboundEmailRepository outboundEmailRepository,
+                        EmailDispatchService emailDispatchService,
+                        DataSource dataSource) {
+        this.outboundEmailRepository = outboundEmailRepository;
+        this.emailDispatchService = emailDispatchService;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
     /**
-     * Send workspace invitation email
+     * Queue workspace invitation email
      */
+    @Transactional
     public void sendWorkspaceInvitation(
         String toEmail,
         String workspaceName,
@@ -33,32 +54,36 @@ public class EmailService {
     ) {
         String subject = String.format("You've been invited to join %s on BuzzLink", workspaceName);
         String message = buildInvitationEmail(workspaceName, inviterName, invitationToken);
+        enqueue(toEmail, subject, message);
+    }
+
+    /**
+     * Queue invitation emails for many recipients (email -> invitation token) with one JDBC batch
+     */
+    @Transactional
+    public void sendWorkspaceInvitations(String workspaceName, String inviterName, Map<String, String> tokensByEmail) {
+        if (tokensByEmail.isEmpty()) return;
+        String subject = String.format("You've been invited to join %s on BuzzLink", workspaceName);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(tokensByEmail.size());
+        tokensByEmail.forEach((email, token) -> rows.add(new Object[]{
+            email, subject, buildInvitationEmail(workspaceName, inviterName, token),
+            OutboundEmail.Status.PENDING.name(), 0, now, now
+        }));
+        jdbcTemplate.batchUpdate("INSERT INTO email_outbox (recipient, subject, body, status, attempts, " +
+            "next_attempt_at, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+        AfterCommit.run(emailDispatchService::wake);
+    }
 
-        // Log to console for debugging
-        System.out.println("=== EMAIL INVITATION ===");
-        System.out.println("To: " + toEmail);
-        System.out.println("Subject: " + subject);
-        System.out.println("=======================");
-
-        // Send actual email if mail sender is configured
-        if (mailSender != null) {
-            try {
-                SimpleMailMessage mailMessage = new SimpleMailMessage();
-                mailMessage.setFrom(fromEmail);
-                mailMessage.setTo(toEmail);
-                mailMessage.setSubject(subject);
-                mailMessage.setText(message);
-
-                mailSender.send(mailMessage);
-                System.out.println("✓ Email sent successfully to " + toEmail);
-            } catch (Exception e) {
-                System.err.println("✗ Failed to send email: " + e.getMessage());
-                System.err.println("  Email content logged above for reference");
-            }
-        } else {
-            System.out.println("⚠ Mail sender not configured. Email content logged above.");
-            System.out.println("  To enable emails, configure SMTP in application.properties");
-        }
+    /**
+     * Queue a plain-text email; workers are woken once the transaction commits
+     */
+    @Transactional
+    public OutboundEmail enqueue(String toEmail, String subject, String body) {
+        OutboundEmail email = outboundEmailRepository.save(new OutboundEmail(toEmail, subject, body));
+        log.debug("Queued email {} to {}: {}", email.getId(), toEmail, subject);
+        AfterCommit.run(emailDispatchService::wake);
+        return email;
     }
 
     private String buildInvitationEmail(String workspaceName, String inviterName, String token) {
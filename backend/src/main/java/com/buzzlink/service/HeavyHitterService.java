@@ -0,0 +1,230 @@
+package com.buzzlink.service;
+
+import com.buzzlink.analytics.SpaceSavingSketch;
+import com.buzzlink.entity.ChannelDailyStats;
+import com.buzzlink.entity.UserDailyStats;
+import com.buzzlink.entity.WorkspaceDailyStats;
+import com.buzzlink.event.MessageCreatedEvent;
+import com.buzzlink.event.MessageDeletedEvent;
+import com.buzzlink.repository.ChannelDailyStatsRepository;
+import com.buzzlink.repository.UserDailyStatsRepository;
+import com.buzzlink.repository.WorkspaceDailyStatsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+/**
+ * In-memory leaderboards of the most active users, channels and workspaces
+ *
+ * Each board keeps an all-time Space-Saving sketch plus one sketch per day for
+ * the last {@code analytics.topk.window-days} days, fed by committed message
+ * events. All-time leaderboards are answered in O(k) from the cumulative sketch;
+ * windowed leaderboards merge the day sketches in range. Everything is rebuilt
+ * from the daily rollup tables on startup and after a rollup backfill; events
+ * arriving while a rebuild reads the tables are applied to the old generation
+ * and replayed into the new one before it is swapped in.
+ */
+@Service
+@Slf4j
+public class HeavyHitterService {
+
+    public enum Board { USER, CHANNEL, WORKSPACE }
+
+    private final ChannelDailyStatsRepository channelStatsRepository;
+    private final WorkspaceDailyStatsRepository workspaceStatsRepository;
+    private final UserDailyStatsRepository userStatsRepository;
+    private final AnalyticsRollupService rollupService;
+    private final int capacity;
+    private final int windowDays;
+
+    // Swapped wholesale on rebuild; event handlers and queries read the current reference
+    private volatile Sketches sketches;
+
+    // Updates since the running rebuild's snapshot, replayed into the new generation; null when idle
+    private volatile List<Consumer<Sketches>> replay;
+
+    public HeavyHitterService(ChannelDailyStatsRepository channelStatsRepository,
+                              WorkspaceDailyStatsRepository workspaceStatsRepository,
+                              UserDailyStatsRepository userStatsRepository,
+                              AnalyticsRollupService rollupService,
+                              @Value("${analytics.topk.capacity:1000}") int capacity,
+                              @Value("${analytics.topk.window-days:30}") int windowDays) {
+        this.channelStatsRepository = channelStatsRepository;
+        this.workspaceStatsRepository = workspaceStatsRepository;
+        this.userStatsRepository = userStatsRepository;
+        this.rollupService = rollupService;
+        this.capacity = capacity;
+        this.windowDays = windowDays;
+        this.sketches = new Sketches();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMessageCreated(MessageCreatedEvent event) {
+        LocalDate day = event.createdAt().toLocalDate();
+        apply(current -> {
+            current.offer(Board.CHANNEL, day, event.channelId(), 1);
+            current.offer(Board.WORKSPACE, day, event.workspaceId(), 1);
+            current.offer(Board.USER, day, event.senderId(), 1);
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMessageDeleted(MessageDeletedEvent event) {
+        LocalDate day = event.createdAt().toLocalDate();
+        apply(current -> {
+            current.decrement(Board.CHANNEL, day, event.channelId());
+            current.decrement(Board.WORKSPACE, day, event.workspaceId());
+            current.decrement(Board.USER, day, event.senderId());
+        });
+    }
+
+    private void apply(Consumer<Sketches> update) {
+        List<Consumer<Sketches>> queue = replay;
+        if (queue != null) {
+            synchronized (queue) {
+                if (replay == queue) {
+                    queue.add(update);
+                    update.accept(sketches);
+                    return;
+                }
+            }
+        }
+        update.accept(sketches);
+    }
+
+    /**
+     * All-time top k
+     */
+    public List<SpaceSavingSketch.Entry> top(Board board, int k) {
+        return sketches.allTime.get(board).top(k);
+    }
+
+    /**
+     * Top k over the last {@code days} days (including today), capped at the retained window
+     */
+    public List<SpaceSavingSketch.Entry> top(Board board, int k, int days) {
+        LocalDate from = LocalDate.now().minusDays(Math.min(days, windowDays) - 1L);
+        SpaceSavingSketch merged = new SpaceSavingSketch(capacity);
+        for (Map<Board, SpaceSavingSketch> day : sketches.daily.tailMap(from, true).values()) {
+            merged.merge(day.get(board));
+        }
+        return merged.top(k);
+    }
+
+    /**
+     * Rebuild after the rollups are known to be complete on startup
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void rebuildOnStartup() {
+        rebuild();
+    }
+
+    /**
+     * Reseed every sketch from the daily rollup tables
+     */
+    public synchronized void rebuild() {
+        List<Consumer<Sketches>> queue = new ArrayList<>();
+        Sketches fresh = new Sketches();
+        try {
+            rollupService.readConsistent(() -> replay = queue, () -> {
+                seed(fresh);
+                return null;
+            });
+        } catch (RuntimeException e) {
+            replay = null;
+            throw e;
+        }
+
+        synchronized (queue) {
+            queue.forEach(update -> update.accept(fresh));
+            sketches = fresh;
+            replay = null;
+        }
+        log.info("Top-k sketches rebuilt ({} days retained, capacity {}, {} events replayed)",
+                fresh.daily.size(), capacity, queue.size());
+    }
+
+    private void seed(Sketches fresh) {
+        PageRequest seedPage = PageRequest.of(0, capacity);
+        seedAllTime(fresh, Board.CHANNEL, channelStatsRepository.findTopChannels(seedPage));
+        seedAllTime(fresh, Board.WORKSPACE, workspaceStatsRepository.findTopWorkspaces(seedPage));
+        seedAllTime(fresh, Board.USER, userStatsRepository.findTopUsers(seedPage));
+
+        LocalDate from = LocalDate.now().minusDays(windowDays - 1L);
+        for (ChannelDailyStats row : channelStatsRepository.findByStatDateGreaterThanEqual(from)) {
+            fresh.daySketch(Board.CHANNEL, row.getStatDate()).offer(row.getChannelId(), row.getMessageCount());
+        }
+        for (WorkspaceDailyStats row : workspaceStatsRepository.findByStatDateGreaterThanEqual(from)) {
+            fresh.daySketch(Board.WORKSPACE, row.getStatDate()).offer(row.getWorkspaceId(), row.getMessageCount());
+        }
+        for (UserDailyStats row : userStatsRepository.findByStatDateGreaterThanEqual(from)) {
+            fresh.daySketch(Board.USER, row.getStatDate()).offer(row.getUserId(), row.getMessageCount());
+        }
+    }
+
+    private static void seedAllTime(Sketches target, Board board, List<Object[]> totals) {
+        // Exact totals of the current top ids, so the seeded sketch starts with zero error
+        SpaceSavingSketch sketch = target.allTime.get(board);
+        for (Object[] row : totals) {
+            sketch.offer((Long) row[0], ((Number) row[1]).longValue());
+        }
+    }
+
+    /**
+     * One generation of sketches: all-time per board plus a day-keyed window
+     */
+    private final class Sketches {
+        final Map<Board, SpaceSavingSketch> allTime = newBoardSketches();
+        final NavigableMap<LocalDate, Map<Board, SpaceSavingSketch>> daily = new ConcurrentSkipListMap<>();
+
+        void offer(Board board, LocalDate day, Long id, long weight) {
+            if (id == null) return;
+            allTime.get(board).offer(id, weight);
+            if (!day.isBefore(windowStart())) {
+                daySketch(board, day).offer(id, weight);
+                daily.headMap(windowStart(), false).clear();
+            }
+        }
+
+        void decrement(Board board, LocalDate day, Long id) {
+            if (id == null) return;
+            allTime.get(board).decrement(id, 1);
+            Map<Board, SpaceSavingSketch> daySketches = daily.get(day);
+            if (daySketches != null) {
+                daySketches.get(board).decrement(id, 1);
+            }
+        }
+
+        SpaceSavingSketch daySketch(Board board, LocalDate day) {
+            return daily.computeIfAbsent(day, d -> newBoardSketches()).get(board);
+        }
+
+        private LocalDate windowStart() {
+            return LocalDate.now().minusDays(windowDays - 1L);
+        }
+
+        private Map<Board, SpaceSavingSketch> newBoardSketches() {
+            Map<Board, SpaceSavingSketch> boards = new EnumMap<>(Board.class);
+            for (Board board : Board.values()) {
+                boards.put(board, new SpaceSavingSketch(capacity));
+            }
+            return boards;
+        }
+    }
+}
@@ -71,7 +71,7 @@ public class InvitationService {
 
         invitation = invitationRepository.save(invitation);
 
-        // Send email
+        // Queue email; it is sent by the email dispatcher once this transaction commits
         emailService.sendWorkspaceInvitation(
             email,
             workspace.getName(),
@@ -0,0 +1,164 @@
+package com.buzzlink.service;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import com.buzzlink.logging.LogEvent;
+import com.buzzlink.logging.RingBufferAppender;
+import com.buzzlink.logging.RingBufferAppender.LogLevel;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Recent application logs for the admin console
+ *
+ * Attaches a {@link RingBufferAppender} to the root logger so tails are served
+ * from memory instead of re-reading log files. A scheduled dispatcher hands
+ * each live follower's new events to a small dedicated pool, so neither
+ * logging threads nor the shared scheduler ever wait on a slow SSE client; a
+ * follower whose send stays blocked past send-timeout-ms is dropped.
+ */
+@Service
+@Slf4j
+public class LogBufferService {
+
+    private static final String APPENDER_NAME = "ADMIN_RING_BUFFER";
+    private static final int MAX_EVENTS_PER_PUSH = 500;
+
+    private record Subscription(RingBufferAppender.Follower follower, AtomicLong sendingSince) {
+    }
+
+    private final RingBufferAppender appender;
+    private final Logger rootLogger;
+    private final long streamTimeoutMillis;
+    private final long sendTimeoutMillis;
+    private final Map<SseEmitter, Subscription> subscribers = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor sender;
+
+    public LogBufferService(@Value("${admin.logs.buffer-size:4096}") int bufferSize,
+                            @Value("${admin.logs.stream-timeout-ms:1800000}") long streamTimeoutMillis,
+                            @Value("${admin.logs.send-timeout-ms:10000}") long sendTimeoutMillis,
+                            @Value("${admin.logs.stream-threads:2}") int streamThreads) {
+        this.streamTimeoutMillis = streamTimeoutMillis;
+        this.sendTimeoutMillis = sendTimeoutMillis;
+
+        // Bounded: at most one push per follower is queued or running; a rejected one is retried next run
+        AtomicInteger threadCount = new AtomicInteger();
+        this.sender = new ThreadPoolExecutor(streamThreads, streamThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(64), runnable -> {
+                    Thread thread = new Thread(runnable, "log-stream-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        this.appender = new RingBufferAppender(bufferSize);
+        this.appender.setContext(context);
+        this.appender.setName(APPENDER_NAME);
+        this.appender.start();
+        this.rootLogger = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        this.rootLogger.addAppender(appender);
+    }
+
+    /**
+     * Parse a level filter; "ALL" (or blank) means every level
+     */
+    public static LogLevel parseLevel(String level) {
+        if (level == null || level.isBlank() || "ALL".equalsIgnoreCase(level)) {
+            return null;
+        }
+        try {
+            return LogLevel.valueOf(level.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown log level: " + level);
+        }
+    }
+
+    /**
+     * The most recent events at exactly this level (null = all levels), oldest first
+     */
+    public List<LogEvent> tail(LogLevel level, int limit) {
+        return appender.tail(level, Math.max(0, limit));
+    }
+
+    /**
+     * Follow new events at this level; the emitter receives one "log" event per entry
+     */
+    public SseEmitter follow(LogLevel level) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMillis);
+        subscribers.put(emitter, new Subscription(appender.follow(level), new AtomicLong()));
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(() -> subscribers.remove(emitter));
+        emitter.onError(e -> subscribers.remove(emitter));
+        return emitter;
+    }
+
+    /**
+     * Hand events captured since the last run to the sender pool, one push per idle follower
+     */
+    @Scheduled(fixedDelayString = "${admin.logs.stream-interval-ms:500}")
+    public void dispatch() {
+        if (subscribers.isEmpty()) return;
+
+        long now = System.currentTimeMillis();
+        subscribers.forEach((emitter, subscription) -> {
+            long since = subscription.sendingSince().get();
+            if (since != 0) {
+                if (now - since > sendTimeoutMillis) {
+                    // Stuck in a blocking write; stop feeding it and let the write fail on its own
+                    subscribers.remove(emitter);
+                    log.warn("Dropped a log follower blocked for {} ms", now - since);
+                }
+                return;
+            }
+            if (!subscription.sendingSince().compareAndSet(0, now)) return;
+            try {
+                sender.execute(() -> push(emitter, subscription));
+            } catch (RejectedExecutionException e) {
+                subscription.sendingSince().set(0);
+            }
+        });
+    }
+
+    private void push(SseEmitter emitter, Subscription subscription) {
+        try {
+            for (LogEvent event : subscription.follower().poll(MAX_EVENTS_PER_PUSH)) {
+                emitter.send(SseEmitter.event()
+                        .name("log")
+                        .id(Long.toString(event.sequence()))
+                        .data(event));
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client disconnected; completing also removes the subscription
+            subscribers.remove(emitter);
+            emitter.completeWithError(e);
+        } finally {
+            subscription.sendingSince().set(0);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        subscribers.keySet().forEach(SseEmitter::complete);
+        subscribers.clear();
+        rootLogger.detachAppender(appender);
+        appender.stop();
+    }
+}
@@ -0,0 +1,166 @@
+package com.buzzlink.service;
+
+import com.buzzlink.logging.LogEvent;
+import com.buzzlink.logging.LogFileIndex;
+import com.buzzlink.logging.RingBufferAppender.LogLevel;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Searches the active and rotated log files for history beyond the in-memory buffer
+ *
+ * Each file gets a {@link LogFileIndex}, built in the background at startup and
+ * extended on each query. Rotated files never change, so their index is built
+ * once. Compressed archives are skipped.
+ */
+@Service
+@Slf4j
+public class LogFileService {
+
+    private final Path activeFile;
+    private final int blockSize;
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final Map<Path, LogFileIndex> indexes = new ConcurrentHashMap<>();
+
+    public LogFileService(@Value("${logging.file.name:logs/application.log}") String activeFile,
+                          @Value("${admin.logs.index-block-kb:64}") int blockKilobytes) {
+        this.activeFile = Paths.get(activeFile).toAbsolutePath();
+        this.blockSize = blockKilobytes * 1024;
+    }
+
+    /**
+     * Up to limit entries at exactly this level (null = all levels) within [from, to], oldest first
+     */
+    public List<LogEvent> search(LogLevel level, Instant from, Instant to, int limit) {
+        long fromMillis = from != null ? from.toEpochMilli() : Long.MIN_VALUE;
+        long toMillis = to != null ? to.toEpochMilli() : Long.MAX_VALUE;
+
+        List<LogEvent> newestFirst = new ArrayList<>();
+        for (Path file : logFiles()) {
+            LogFileIndex index = index(file);
+            if (index == null) continue;
+            boolean olderFilesBeforeRange = index.collect(level, fromMillis, toMillis, limit, newestFirst);
+            if (newestFirst.size() >= limit || olderFilesBeforeRange) break;
+        }
+        Collections.reverse(newestFirst);
+        return newestFirst;
+    }
+
+    /**
+     * Index every log file off the request path so the first query is fast
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Thread thread = new Thread(() -> {
+            long start = System.currentTimeMillis();
+            List<Path> files = logFiles();
+            files.forEach(this::index);
+            log.info("Indexed {} log files in {} ms", files.size(), System.currentTimeMillis() - start);
+        }, "log-indexer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * The active file followed by rotated files, newest first
+     */
+    private List<Path> logFiles() {
+        Path directory = activeFile.getParent();
+        if (directory == null || !Files.isDirectory(directory)) {
+            return List.of();
+        }
+        String fileName = activeFile.getFileName().toString();
+        String baseName = fileName.endsWith(".log") ? fileName.substring(0, fileName.length() - 4) : fileName;
+
+        List<Path> files;
+        try (Stream<Path> entries = Files.list(directory)) {
+            files = new ArrayList<>(entries
+                    .filter(Files::isRegularFile)
+                    .filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(baseName) && !name.endsWith(".gz") && !name.endsWith(".zip")
+                                && !name.endsWith(".tmp");
+                    })
+                    .toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        files.sort(Comparator.comparing((Path path) -> !path.equals(activeFile))
+                .thenComparing(LogFileService::lastModified, Comparator.reverseOrder()));
+        indexes.keySet().removeIf(path -> {
+            if (files.contains(path)) return false;
+            closeQuietly(indexes.get(path));
+            return true;
+        });
+        return files;
+    }
+
+    private LogFileIndex index(Path file) {
+        try {
+            LogFileIndex index = indexes.get(file);
+            if (index != null && !index.isCurrent()) {
+                // Rotated or truncated under the same name: start over
+                indexes.remove(file, index);
+                closeQuietly(index);
+                index = null;
+            }
+            if (index == null) {
+                LogFileIndex created = new LogFileIndex(file, blockSize, zone);
+                index = indexes.putIfAbsent(file, created);
+                if (index == null) {
+                    index = created;
+                } else {
+                    closeQuietly(created);
+                }
+            }
+            index.refresh();
+            return index;
+        } catch (IOException e) {
+            log.warn("Could not index log file {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    private static long lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static void closeQuietly(LogFileIndex index) {
+        if (index == null) return;
+        try {
+            index.close();
+        } catch (IOException e) {
+            // Nothing left to release
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        indexes.values().forEach(LogFileService::closeQuietly);
+        indexes.clear();
+    }
+}
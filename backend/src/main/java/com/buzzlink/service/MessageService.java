@@ -4,11 +4,14 @@ import com.buzzlink.dto.MessageDTO;
 import com.buzzlink.entity.Channel;
 import com.buzzlink.entity.Message;
 import com.buzzlink.entity.User;
+import com.buzzlink.event.MessageCreatedEvent;
+import com.buzzlink.event.MessageDeletedEvent;
 import com.buzzlink.repository.ChannelRepository;
 import com.buzzlink.repository.MessageRepository;
 import com.buzzlink.repository.ReactionRepository;
 import com.buzzlink.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -28,6 +31,7 @@ public class MessageService {
     private final UserRepository userRepository;
     private final ReactionRepository reactionRepository;
     private final NotificationService notificationService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Get recent messages for a channel
@@ -40,7 +44,14 @@ public class MessageService {
     public List<MessageDTO> getRecentMessages(Long channelId, int limit) {
         Channel channel = channelRepository.findById(channelId)
                 .orElseThrow(() -> new RuntimeException("Channel not found"));
+        return getRecentMessages(channel, limit);
+    }
 
+    /**
+     * Get recent messages for an already loaded channel
+     */
+    @Transactional(readOnly = true)
+    public List<MessageDTO> getRecentMessages(Channel channel, int limit) {
         List<Message> messages = messageRepository.findTopLevelMessagesByChannel(
                 channel,
                 PageRequest.of(0, limit));
@@ -106,10 +117,19 @@ public class MessageService {
         }
 
         Message savedMessage = messageRepository.save(message);
+        userRepository.incrementMessageCount(sender.getId(), 1);
 
         // Publish notification event (stub - would go to Kafka in production)
         notificationService.publishMessageNotification(savedMessage);
 
+        // Analytics listeners run after commit
+        eventPublisher.publishEvent(new MessageCreatedEvent(
+                savedMessage.getId(),
+                channel.getId(),
+                channel.getWorkspace().getId(),
+                sender.getId(),
+                savedMessage.getCreatedAt()));
+
         return MessageDTO.fromEntity(savedMessage, 0L);
     }
 
@@ -132,6 +152,14 @@ public class MessageService {
                 .orElseThrow(() -> new RuntimeException("Message not found"));
 
         messageRepository.delete(message);
+        userRepository.incrementMessageCount(message.getSender().getId(), -1);
+
+        eventPublisher.publishEvent(new MessageDeletedEvent(
+                message.getId(),
+                message.getChannel().getId(),
+                message.getChannel().getWorkspace().getId(),
+                message.getSender().getId(),
+                message.getCreatedAt()));
     }
 
     /**
@@ -0,0 +1,560 @@
+package com.buzzlink.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Retention for the notifications table
+ *
+ * Read notifications older than their workspace's retention (or the default,
+ * for notifications without a workspace) are deleted in small batches, each in
+ * its own short transaction, so the purge never holds row locks for long.
+ * Unread notifications are kept longer, until unread-days, and then deleted
+ * like read ones. Scheduled runs execute on their own thread, not the shared
+ * scheduler.
+ *
+ * On PostgreSQL the table is range-partitioned by month. An existing plain
+ * table is converted once, by one node: it is attached as the first partition
+ * and monthly partitions are created from the next month on. Partitions that
+ * are past every retention are detached and dropped whole instead of being
+ * deleted row by row, as soon as they hold no unread notifications or once
+ * they are past unread-days as well. On other databases (H2 in development)
+ * only the batched purge runs.
+ *
+ * Metrics: buzzlink.notifications.purged{method=batch|partition} (rows; partition
+ * drops use the planner's row estimate) and buzzlink.notifications.purge.duration.
+ */
+@Service
+@Slf4j
+public class NotificationRetentionService {
+
+    public record PurgeResult(long rowsDeleted, long partitionRowsDropped, List<String> partitionsDropped,
+                              boolean complete, long durationMillis) {
+    }
+
+    private static final String TABLE = "notifications";
+    private static final String LEGACY_PARTITION = "notifications_legacy";
+    private static final String DEFAULT_PARTITION = "notifications_default";
+    private static final Pattern UPPER_BOUND = Pattern.compile("TO \\('([^']+)'\\)");
+    private static final Pattern ON_LEGACY = Pattern.compile(" ON (\\S+\\.)?" + LEGACY_PARTITION + " ");
+    private static final String BOUND_CHECK = TABLE + "_partition_bound";
+    private static final String PARTITION_KEY_INDEX = TABLE + "_id_created_at_idx";
+    private static final String CONVERSION_LOCK = TABLE + "_partitioning";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final DataSource dataSource;
+    private final int defaultDays;
+    private final Map<Long, Integer> workspaceDays;
+    private final int unreadDays;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final long batchPauseMillis;
+    private final long lockTimeoutMillis;
+    private final boolean partitioningEnabled;
+    private final int monthsAhead;
+
+    private final Counter batchPurged;
+    private final Counter partitionPurged;
+    private final Timer purgeTimer;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final ThreadPoolExecutor purgeExecutor;
+
+    private volatile boolean partitioned;
+
+    public NotificationRetentionService(DataSource dataSource,
+                                        PlatformTransactionManager transactionManager,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${notifications.retention.default-days:90}") int defaultDays,
+                                        @Value("${notifications.retention.workspace-days:}") String workspaceDays,
+                                        @Value("${notifications.retention.unread-days:365}") int unreadDays,
+                                        @Value("${notifications.retention.batch-size:5000}") int batchSize,
+                                        @Value("${notifications.retention.max-batches-per-run:200}") int maxBatchesPerRun,
+                                        @Value("${notifications.retention.batch-pause-ms:50}") long batchPauseMillis,
+                                        @Value("${notifications.retention.lock-timeout-ms:5000}") long lockTimeoutMillis,
+                                        @Value("${notifications.partitioning.enabled:true}") boolean partitioningEnabled,
+                                        @Value("${notifications.partitioning.months-ahead:2}") int monthsAhead) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.defaultDays = defaultDays;
+        this.workspaceDays = parseWorkspaceDays(workspaceDays);
+        // Unread notifications never go before read ones of the same workspace
+        this.unreadDays = Math.max(unreadDays, Math.max(defaultDays,
+                this.workspaceDays.values().stream().mapToInt(Integer::intValue).max().orElse(0)));
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.batchPauseMillis = batchPauseMillis;
+        this.lockTimeoutMillis = lockTimeoutMillis;
+        this.partitioningEnabled = partitioningEnabled;
+        this.monthsAhead = monthsAhead;
+
+        // One run at a time; a trigger while a run is still going is skipped
+        this.purgeExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new SynchronousQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "notification-retention");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        this.batchPurged = Counter.builder("buzzlink.notifications.purged")
+                .description("Notifications removed by the retention job")
+                .tag("method", "batch")
+                .register(meterRegistry);
+        this.partitionPurged = Counter.builder("buzzlink.notifications.purged")
+                .description("Notifications removed by the retention job")
+                .tag("method", "partition")
+                .register(meterRegistry);
+        this.purgeTimer = Timer.builder("buzzlink.notifications.purge.duration")
+                .description("Time taken by a notification retention run")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Parse "workspaceId:days,workspaceId:days" overrides
+     */
+    static Map<Long, Integer> parseWorkspaceDays(String value) {
+        Map<Long, Integer> days = new LinkedHashMap<>();
+        if (value == null || value.isBlank()) return days;
+        for (String pair : value.split(",")) {
+            String[] parts = pair.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid notification retention override: " + pair);
+            }
+            days.put(Long.parseLong(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+        }
+        return Collections.unmodifiableMap(days);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preparePartitions() {
+        if (!partitioningEnabled || !isPostgres()) return;
+        try {
+            if (isPartitionedTable() || convertToPartitionedTable()) {
+                partitioned = true;
+                ensurePartitions();
+            }
+        } catch (DataAccessException e) {
+            log.error("Could not partition the notifications table; batched purges only until the next run", e);
+        }
+    }
+
+    @Scheduled(cron = "${notifications.retention.cron:0 30 3 * * *}")
+    public void scheduledPurge() {
+        try {
+            purgeExecutor.execute(() -> {
+                try {
+                    purge();
+                } catch (RuntimeException e) {
+                    log.error("Notification retention run failed", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Skipping notification retention run: the previous run is still going");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        purgeExecutor.shutdownNow();
+    }
+
+    /**
+     * Run retention now; a run deletes at most max-batches-per-run batches and the rest waits for the next run
+     */
+    public PurgeResult purge() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A notification purge is already running");
+        }
+        long start = System.nanoTime();
+        try {
+            List<String> dropped = new ArrayList<>();
+            long partitionRows = 0;
+            if (!partitioned) {
+                // Another node may have converted the table, or the last attempt timed out on its lock
+                preparePartitions();
+            }
+            if (partitioned) {
+                ensurePartitions();
+                partitionRows = dropExpiredPartitions(dropped);
+            }
+
+            int[] batches = {0};
+            long deleted = 0;
+            LocalDateTime now = LocalDateTime.now();
+            for (Map.Entry<Long, Integer> override : workspaceDays.entrySet()) {
+                deleted += deleteInBatches(" AND is_read = TRUE AND workspace_id = ?", now.minusDays(override.getValue()),
+                        batches, override.getKey());
+            }
+            String others = workspaceDays.isEmpty()
+                    ? ""
+                    : " AND (workspace_id IS NULL OR workspace_id NOT IN (" + workspaceDays.keySet().stream()
+                            .map(String::valueOf).collect(Collectors.joining(",")) + "))";
+            deleted += deleteInBatches(" AND is_read = TRUE" + others, now.minusDays(defaultDays), batches);
+            deleted += deleteInBatches("", now.minusDays(unreadDays), batches);
+
+            Duration duration = Duration.ofNanos(System.nanoTime() - start);
+            purgeTimer.record(duration);
+            boolean complete = batches[0] < maxBatchesPerRun;
+            log.info("Notification retention: {} rows deleted in {} batches, {} partitions dropped (~{} rows) in {} ms{}",
+                    deleted, batches[0], dropped.size(), partitionRows, duration.toMillis(),
+                    complete ? "" : " (batch budget exhausted, continuing next run)");
+            return new PurgeResult(deleted, partitionRows, dropped, complete, duration.toMillis());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Delete notifications created before the cutoff that match the filter, one short transaction per batch
+     */
+    private long deleteInBatches(String filter, LocalDateTime cutoff, int[] batches, Object... filterArgs) {
+        // The outer created_at bound lets PostgreSQL skip partitions newer than the cutoff
+        String sql = "DELETE FROM " + TABLE + " WHERE created_at < ? AND id IN (SELECT id FROM " + TABLE
+                + " WHERE created_at < ?" + filter + " LIMIT " + batchSize + ")";
+        Object[] args = new Object[filterArgs.length + 2];
+        args[0] = Timestamp.valueOf(cutoff);
+        args[1] = args[0];
+        System.arraycopy(filterArgs, 0, args, 2, filterArgs.length);
+
+        long total = 0;
+        while (batches[0] < maxBatchesPerRun) {
+            Integer deleted = transaction.execute(status -> jdbcTemplate.update(sql, args));
+            batches[0]++;
+            if (deleted == null || deleted == 0) break;
+            total += deleted;
+            batchPurged.increment(deleted);
+            if (deleted < batchSize) break;
+            pause();
+        }
+        return total;
+    }
+
+    /**
+     * Detach and drop partitions whose whole range is past every retention
+     *
+     * A partition still holding unread rows waits until its range is past
+     * unread-days too, when the batched purge would delete those rows anyway.
+     *
+     * @return estimated number of rows dropped
+     */
+    private long dropExpiredPartitions(List<String> dropped) {
+        int longestDays = workspaceDays.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cutoff = now.minusDays(Math.max(defaultDays, longestDays));
+        LocalDateTime unreadCutoff = now.minusDays(unreadDays);
+
+        long rows = 0;
+        for (Map.Entry<String, LocalDateTime> partition : partitionUpperBounds().entrySet()) {
+            String name = partition.getKey();
+            LocalDateTime upperBound = partition.getValue();
+            if (upperBound == null || upperBound.isAfter(cutoff)) continue;
+
+            if (upperBound.isAfter(unreadCutoff)) {
+                Boolean hasUnread = jdbcTemplate.queryForObject(
+                        "SELECT EXISTS (SELECT 1 FROM " + quote(name) + " WHERE is_read = FALSE)", Boolean.class);
+                if (Boolean.TRUE.equals(hasUnread)) continue;
+            }
+
+            try {
+                Long estimate = transaction.execute(status -> {
+                    // Give up quickly rather than queue behind long readers and block inserts
+                    jdbcTemplate.execute("SET LOCAL lock_timeout = '" + lockTimeoutMillis + "ms'");
+                    Long reltuples = jdbcTemplate.queryForObject(
+                            "SELECT GREATEST(reltuples, 0)::bigint FROM pg_class WHERE oid = ?::regclass",
+                            Long.class, name);
+                    jdbcTemplate.execute("ALTER TABLE " + TABLE + " DETACH PARTITION " + quote(name));
+                    jdbcTemplate.execute("DROP TABLE " + quote(name));
+                    return reltuples;
+                });
+                long count = estimate == null ? 0 : estimate;
+                rows += count;
+                partitionPurged.increment(count);
+                dropped.add(name);
+                log.info("Dropped expired notification partition {} (~{} rows)", name, count);
+            } catch (DataAccessException e) {
+                log.warn("Could not drop notification partition {} (will retry next run): {}", name, e.getMessage());
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Create monthly partitions from the current month to monthsAhead months ahead
+     */
+    private void ensurePartitions() {
+        Map<String, LocalDateTime> existing = partitionUpperBounds();
+        LocalDateTime coveredUntil = existing.values().stream()
+                .filter(bound -> bound != null)
+                .max(LocalDateTime::compareTo)
+                .orElse(null);
+
+        YearMonth month = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++, month = month.plusMonths(1)) {
+            LocalDateTime from = month.atDay(1).atStartOfDay();
+            if (coveredUntil != null && !coveredUntil.isBefore(from.plusMonths(1))) continue;
+            String name = String.format(Locale.ROOT, "%s_y%04dm%02d", TABLE, month.getYear(), month.getMonthValue());
+            if (existing.containsKey(name)) continue;
+            try {
+                createMonthPartition(name, month);
+                log.info("Created notification partition {}", name);
+            } catch (DataAccessException e) {
+                // e.g. rows for that month already landed in the default partition
+                log.warn("Could not create notification partition {}: {}", name, e.getMessage());
+            }
+        }
+    }
+
+    private void createMonthPartition(String name, YearMonth month) {
+        transaction.executeWithoutResult(status -> {
+            jdbcTemplate.execute("SET LOCAL lock_timeout = '" + lockTimeoutMillis + "ms'");
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + quote(name) + " PARTITION OF " + TABLE
+                    + " FOR VALUES FROM ('" + month.atDay(1).atStartOfDay() + "') TO ('"
+                    + month.plusMonths(1).atDay(1).atStartOfDay() + "')");
+        });
+    }
+
+    /**
+     * Partition name -> exclusive upper bound (null for the default partition and MAXVALUE bounds)
+     */
+    private Map<String, LocalDateTime> partitionUpperBounds() {
+        Map<String, LocalDateTime> bounds = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT c.relname, pg_get_expr(c.relpartbound, c.oid) FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = '" + TABLE + "'::regclass",
+                rs -> {
+                    Matcher matcher = UPPER_BOUND.matcher(rs.getString(2));
+                    bounds.put(rs.getString(1), matcher.find()
+                            ? Timestamp.valueOf(matcher.group(1)).toLocalDateTime()
+                            : null);
+                });
+        return bounds;
+    }
+
+    /**
+     * One-off conversion of the plain table Hibernate created into a monthly partitioned table
+     *
+     * The existing table becomes the partition for everything before next month, so no rows are
+     * copied; it ages out through the batched purge and is dropped once past retention like any
+     * other partition. Everything that scans the table runs first without blocking writers: a
+     * NOT VALID check matching the partition bound is validated and the (id, created_at) index the
+     * new primary key needs is built concurrently. Only the renames, the primary key swap onto that
+     * index and the attach, which then skip their scans, run under the exclusive lock, giving up
+     * after lock-timeout-ms. A session advisory lock keeps other nodes from converting at the same time.
+     *
+     * @return false if another node is converting or the exclusive lock timed out; the next run retries
+     */
+    private boolean convertToPartitionedTable() {
+        LocalDateTime bound = YearMonth.now().plusMonths(1).atDay(1).atStartOfDay();
+        try (Connection connection = dataSource.getConnection()) {
+            // Session-level settings and the advisory lock need every statement on this one connection
+            JdbcTemplate session = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+            if (!Boolean.TRUE.equals(session.queryForObject(
+                    "SELECT pg_try_advisory_lock(hashtext(?))", Boolean.class, CONVERSION_LOCK))) {
+                log.info("Another node is converting {} to a partitioned table", TABLE);
+                return false;
+            }
+            try {
+                if (isPartitionedTable()) return true;
+                log.info("Converting {} to a monthly partitioned table", TABLE);
+                prepareConversion(session, bound);
+                if (!attachAsPartition(connection, session, bound)) {
+                    dropBoundCheck(session);
+                    return false;
+                }
+                log.info("Converted {} to a partitioned table", TABLE);
+                return true;
+            } catch (DataAccessException e) {
+                dropBoundCheck(session);
+                throw e;
+            } finally {
+                session.execute("RESET lock_timeout");
+                session.queryForObject("SELECT pg_advisory_unlock(hashtext(?))", Boolean.class, CONVERSION_LOCK);
+            }
+        } catch (SQLException e) {
+            throw new CannotGetJdbcConnectionException("Could not convert " + TABLE + " to a partitioned table", e);
+        }
+    }
+
+    /**
+     * The slow part of the conversion, none of which blocks reads or writes for more than a moment
+     */
+    private void prepareConversion(JdbcTemplate session, LocalDateTime bound) {
+        // Adding a NOT VALID check only needs the exclusive lock briefly; don't queue behind long readers for it
+        session.execute("SET lock_timeout = '" + lockTimeoutMillis + "ms'");
+        session.execute("ALTER TABLE " + TABLE + " DROP CONSTRAINT IF EXISTS " + BOUND_CHECK);
+        session.execute("ALTER TABLE " + TABLE + " ADD CONSTRAINT " + BOUND_CHECK
+                + " CHECK (created_at IS NOT NULL AND created_at < '" + bound + "') NOT VALID");
+        session.execute("RESET lock_timeout");
+
+        // Scans the table under SHARE UPDATE EXCLUSIVE; SET NOT NULL and ATTACH PARTITION then trust it
+        session.execute("ALTER TABLE " + TABLE + " VALIDATE CONSTRAINT " + BOUND_CHECK);
+
+        // A failed concurrent build leaves an invalid index behind
+        List<Boolean> valid = session.queryForList(
+                "SELECT indisvalid FROM pg_index WHERE indexrelid = to_regclass(?)", Boolean.class, PARTITION_KEY_INDEX);
+        if (!valid.isEmpty() && !Boolean.TRUE.equals(valid.get(0))) {
+            session.execute("DROP INDEX CONCURRENTLY " + PARTITION_KEY_INDEX);
+        }
+        session.execute("CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS " + PARTITION_KEY_INDEX
+                + " ON " + TABLE + " (id, created_at)");
+    }
+
+    /**
+     * Swap in the partitioned parent and attach the existing table, in one short transaction
+     *
+     * @return false if the exclusive lock was not granted within lock-timeout-ms
+     */
+    private boolean attachAsPartition(Connection connection, JdbcTemplate session, LocalDateTime bound)
+            throws SQLException {
+        connection.setAutoCommit(false);
+        try {
+            session.execute("SET LOCAL lock_timeout = '" + lockTimeoutMillis + "ms'");
+            try {
+                session.execute("LOCK TABLE " + TABLE + " IN ACCESS EXCLUSIVE MODE");
+            } catch (DataAccessException e) {
+                connection.rollback();
+                log.warn("Could not lock {} within {} ms; will retry the conversion next run: {}",
+                        TABLE, lockTimeoutMillis, e.getMessage());
+                return false;
+            }
+            session.execute("ALTER TABLE " + TABLE + " RENAME TO " + LEGACY_PARTITION);
+
+            // Index names are schema-wide, so the legacy ones move aside and the parent reuses the originals;
+            // the (id, created_at) index is left as is and becomes the partition's primary key before the attach
+            List<Map<String, Object>> indexes = session.queryForList(
+                    "SELECT i.relname AS name, pg_get_indexdef(i.oid) AS def, x.indisprimary AS is_primary " +
+                    "FROM pg_index x JOIN pg_class i ON i.oid = x.indexrelid " +
+                    "WHERE x.indrelid = '" + LEGACY_PARTITION + "'::regclass AND i.relname <> ?", PARTITION_KEY_INDEX);
+            List<Map<String, Object>> foreignKeys = session.queryForList(
+                    "SELECT conname AS name, pg_get_constraintdef(oid) AS def FROM pg_constraint " +
+                    "WHERE conrelid = '" + LEGACY_PARTITION + "'::regclass AND contype = 'f'");
+            for (Map<String, Object> index : indexes) {
+                session.execute("ALTER INDEX " + quote((String) index.get("name"))
+                        + " RENAME TO " + quote(index.get("name") + "_legacy"));
+            }
+
+            // Identity columns cannot be attached (before PostgreSQL 17); ids continue from a plain sequence
+            session.execute("CREATE SEQUENCE IF NOT EXISTS " + TABLE + "_id_seq");
+            session.queryForObject("SELECT setval('" + TABLE + "_id_seq', COALESCE(MAX(id), 0) + 1, false) FROM "
+                    + LEGACY_PARTITION, Long.class);
+            session.execute("ALTER TABLE " + LEGACY_PARTITION + " ALTER COLUMN id DROP IDENTITY IF EXISTS");
+            session.execute("ALTER TABLE " + LEGACY_PARTITION + " ALTER COLUMN id DROP DEFAULT");
+            session.execute("ALTER TABLE " + LEGACY_PARTITION + " ALTER COLUMN created_at SET NOT NULL");
+
+            session.execute("CREATE TABLE " + TABLE + " (LIKE " + LEGACY_PARTITION
+                    + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS) PARTITION BY RANGE (created_at)");
+            session.execute("ALTER TABLE " + TABLE + " DROP CONSTRAINT IF EXISTS " + BOUND_CHECK);
+            session.execute("ALTER TABLE " + TABLE + " ALTER COLUMN id SET DEFAULT nextval('" + TABLE + "_id_seq')");
+            session.execute("ALTER SEQUENCE " + TABLE + "_id_seq OWNED BY " + TABLE + ".id");
+            // A partitioned table's primary key must include the partition column
+            session.execute("ALTER TABLE " + TABLE + " ADD PRIMARY KEY (id, created_at)");
+            for (Map<String, Object> index : indexes) {
+                if (Boolean.TRUE.equals(index.get("is_primary"))) continue;
+                String def = ON_LEGACY.matcher((String) index.get("def")).replaceFirst(" ON " + TABLE + " ");
+                session.execute(def);
+            }
+            for (Map<String, Object> foreignKey : foreignKeys) {
+                session.execute("ALTER TABLE " + TABLE + " ADD CONSTRAINT " + quote((String) foreignKey.get("name"))
+                        + " " + foreignKey.get("def"));
+            }
+
+            // The partition's primary key must match the parent's (id, created_at), and a table has only one;
+            // swap it onto the prebuilt unique index, which needs no scan since its columns are already NOT NULL
+            List<String> legacyPrimaryKey = session.queryForList(
+                    "SELECT conname FROM pg_constraint WHERE conrelid = '" + LEGACY_PARTITION + "'::regclass " +
+                    "AND contype = 'p'", String.class);
+            session.execute("ALTER TABLE " + LEGACY_PARTITION
+                    + (legacyPrimaryKey.isEmpty() ? "" : " DROP CONSTRAINT " + quote(legacyPrimaryKey.get(0)) + ",")
+                    + " ADD CONSTRAINT " + LEGACY_PARTITION + "_pkey PRIMARY KEY USING INDEX " + PARTITION_KEY_INDEX);
+
+            // The validated check proves the bound, so attaching does not scan the rows again
+            session.execute("ALTER TABLE " + TABLE + " ATTACH PARTITION " + LEGACY_PARTITION
+                    + " FOR VALUES FROM (MINVALUE) TO ('" + bound + "')");
+            session.execute("ALTER TABLE " + LEGACY_PARTITION + " DROP CONSTRAINT " + BOUND_CHECK);
+            session.execute("CREATE TABLE " + DEFAULT_PARTITION + " PARTITION OF " + TABLE + " DEFAULT");
+            connection.commit();
+            return true;
+        } catch (RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * Remove the staging check after a failed conversion so it cannot reject rows once its bound passes
+     */
+    private void dropBoundCheck(JdbcTemplate session) {
+        try {
+            session.execute("SET lock_timeout = '" + lockTimeoutMillis + "ms'");
+            session.execute("ALTER TABLE IF EXISTS " + TABLE + " DROP CONSTRAINT IF EXISTS " + BOUND_CHECK);
+        } catch (DataAccessException e) {
+            log.warn("Could not drop {} after a failed conversion (retried next run): {}", BOUND_CHECK, e.getMessage());
+        }
+    }
+
+    private boolean isPartitionedTable() {
+        String kind = jdbcTemplate.queryForObject(
+                "SELECT relkind::text FROM pg_class WHERE oid = '" + TABLE + "'::regclass", String.class);
+        return "p".equals(kind);
+    }
+
+    private boolean isPostgres() {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT).contains("postgres");
+        } catch (SQLException e) {
+            log.warn("Could not determine the database type: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private void pause() {
+        if (batchPauseMillis <= 0) return;
+        try {
+            Thread.sleep(batchPauseMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String quote(String identifier) {
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+}
@@ -8,11 +8,17 @@ import com.buzzlink.repository.NotificationRepository;
 import com.buzzlink.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,21 +30,42 @@ public class NotificationService {
     private final UserRepository userRepository;
     private final SimpMessagingTemplate messagingTemplate;
 
-    /**
-     * Get all notifications for a user
-     */
-    public List<NotificationDTO> getUserNotifications(String clerkId) {
-        List<Notification> notifications = notificationRepository.findByUserClerkIdOrderByCreatedAtDesc(clerkId);
-        return notifications.stream()
-                .map(NotificationDTO::from)
-                .collect(Collectors.toList());
+    private record UnreadCount(AtomicLong value, long loadedAtMillis) {
     }
 
+    // Per-user unread counts for users who have asked recently, keyed by Clerk id (at most max-entries)
+    private final Map<String, UnreadCount> unreadCounts = new ConcurrentHashMap<>();
+
+    @Value("${notifications.unread-count.ttl-seconds:300}")
+    private long unreadCountTtlSeconds;
+
+    @Value("${notifications.unread-count.max-entries:100000}")
+    private int unreadCountMaxEntries;
+
     /**
-     * Get unread notifications for a user
+     * A page of a user's notifications, newest first
+     *
+     * @param before id of the last notification of the previous page, or null for the first page
+     * @param unreadOnly only unread notifications
      */
-    public List<NotificationDTO> getUnreadNotifications(String clerkId) {
-        List<Notification> notifications = notificationRepository.findByUserClerkIdAndIsReadFalseOrderByCreatedAtDesc(clerkId);
+    @Transactional(readOnly = true)
+    public List<NotificationDTO> getUserNotifications(String clerkId, Long before, int limit, boolean unreadOnly) {
+        User user = userRepository.findByClerkId(clerkId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        PageRequest page = PageRequest.of(0, limit);
+
+        List<Notification> notifications;
+        if (before == null) {
+            notifications = unreadOnly
+                    ? notificationRepository.findPageByRead(user.getId(), false, page)
+                    : notificationRepository.findPage(user.getId(), page);
+        } else {
+            Notification cursor = notificationRepository.findById(before)
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown cursor notification: " + before));
+            notifications = unreadOnly
+                    ? notificationRepository.findPageByReadBefore(user.getId(), false, cursor.getCreatedAt(), cursor.getId(), page)
+                    : notificationRepository.findPageBefore(user.getId(), cursor.getCreatedAt(), cursor.getId(), page);
+        }
         return notifications.stream()
                 .map(NotificationDTO::from)
                 .collect(Collectors.toList());
@@ -46,9 +73,28 @@ public class NotificationService {
 
     /**
      * Get unread notification count
+     * Served from memory; loaded from the database on a miss or once the entry is older than the TTL.
      */
     public Long getUnreadCount(String clerkId) {
-        return notificationRepository.countByUserClerkIdAndIsReadFalse(clerkId);
+        long now = System.currentTimeMillis();
+        UnreadCount count = unreadCounts.get(clerkId);
+        if (count == null || now - count.loadedAtMillis() > TimeUnit.SECONDS.toMillis(unreadCountTtlSeconds)) {
+            count = new UnreadCount(new AtomicLong(notificationRepository.countByUserClerkIdAndIsReadFalse(clerkId)), now);
+            cacheUnreadCount(clerkId, count);
+        }
+        return Math.max(0, count.value().get());
+    }
+
+    private void cacheUnreadCount(String clerkId, UnreadCount count) {
+        if (unreadCounts.size() >= unreadCountMaxEntries && !unreadCounts.containsKey(clerkId)) {
+            // Expired counts go first; if every entry is live the map is simply reloaded on demand
+            long expiredBefore = count.loadedAtMillis() - TimeUnit.SECONDS.toMillis(unreadCountTtlSeconds);
+            unreadCounts.values().removeIf(cached -> cached.loadedAtMillis() < expiredBefore);
+            if (unreadCounts.size() >= unreadCountMaxEntries) {
+                unreadCounts.clear();
+            }
+        }
+        unreadCounts.put(clerkId, count);
     }
 
     /**
@@ -58,8 +104,11 @@ public class NotificationService {
     public void markAsRead(Long notificationId, String clerkId) {
         int updated = notificationRepository.markAsRead(notificationId, clerkId);
         if (updated > 0) {
-            // Send updated count via WebSocket
-            sendUnreadCountUpdate(clerkId);
+            AfterCommit.run(() -> {
+                adjustUnreadCount(clerkId, -updated);
+                // Send updated count via WebSocket
+                sendUnreadCountUpdate(clerkId);
+            });
         }
     }
 
@@ -69,7 +118,10 @@ public class NotificationService {
     @Transactional
     public void markAllAsRead(String clerkId) {
         notificationRepository.markAllAsRead(clerkId);
-        sendUnreadCountUpdate(clerkId);
+        AfterCommit.run(() -> {
+            cacheUnreadCount(clerkId, new UnreadCount(new AtomicLong(), System.currentTimeMillis()));
+            sendUnreadCountUpdate(clerkId);
+        });
     }
 
     /**
@@ -92,10 +144,12 @@ public class NotificationService {
                 notification.setMessage(actor.getDisplayName() + " posted in a channel");
                 notification.setActor(actor);
                 notification.setChannelId(message.getChannel().getId());
+                notification.setWorkspaceId(message.getChannel().getWorkspace().getId());
                 notification.setMessageId(message.getId());
                 notification.setIsRead(false);
 
                 Notification saved = notificationRepository.save(notification);
+                AfterCommit.run(() -> adjustUnreadCount(recipientClerkId, 1));
                 sendNotificationToUser(recipientClerkId, NotificationDTO.from(saved));
             });
         }
@@ -117,6 +171,7 @@ public class NotificationService {
                 notification.setIsRead(false);
 
                 Notification saved = notificationRepository.save(notification);
+                AfterCommit.run(() -> adjustUnreadCount(recipientClerkId, 1));
                 sendNotificationToUser(recipientClerkId, NotificationDTO.from(saved));
             });
         });
@@ -141,10 +196,12 @@ public class NotificationService {
             notification.setMessage(actor.getDisplayName() + " replied to your message");
             notification.setActor(actor);
             notification.setChannelId(reply.getChannel().getId());
+            notification.setWorkspaceId(reply.getChannel().getWorkspace().getId());
             notification.setMessageId(reply.getId());
             notification.setIsRead(false);
 
             Notification saved = notificationRepository.save(notification);
+            AfterCommit.run(() -> adjustUnreadCount(parentMessageAuthorClerkId, 1));
             sendNotificationToUser(parentMessageAuthorClerkId, NotificationDTO.from(saved));
         });
     }
@@ -171,11 +228,22 @@ public class NotificationService {
                 notification.setIsRead(false);
 
                 Notification saved = notificationRepository.save(notification);
+                AfterCommit.run(() -> adjustUnreadCount(messageAuthorClerkId, 1));
                 sendNotificationToUser(messageAuthorClerkId, NotificationDTO.from(saved));
             });
         });
     }
 
+    /**
+     * Apply a delta to a cached unread count; users without a cached count are loaded on their next read
+     */
+    private void adjustUnreadCount(String clerkId, long delta) {
+        UnreadCount count = unreadCounts.get(clerkId);
+        if (count != null) {
+            count.value().addAndGet(delta);
+        }
+    }
+
     /**
      * Send a notification to a user via WebSocket
      */
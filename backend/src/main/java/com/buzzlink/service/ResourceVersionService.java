@@ -0,0 +1,130 @@
+package com.buzzlink.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory versions behind the ETags of the channel, workspace and member lists
+ *
+ * Each workspace has a version that is bumped (after commit) when a channel is
+ * created, its membership changes or a member's profile changes; each user has
+ * a version that is bumped when their own memberships change. ETags are built
+ * from these versions alone, so a matching If-None-Match is answered without a
+ * database query. Workspaces cannot be edited, so a user's workspace list only
+ * changes with their memberships.
+ *
+ * Versions come from one process-wide sequence and ETags carry a random boot
+ * epoch, so a restart or an evicted entry can never reproduce an old tag.
+ * Entries are re-versioned after etags.max-age-seconds, which bounds how long
+ * a node can serve 304s for a change made on another node.
+ */
+@Service
+public class ResourceVersionService {
+
+    private record Version(long value, long issuedAtMillis) {
+    }
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+
+    private final Map<Long, Version> workspaceVersions = new ConcurrentHashMap<>();
+    private final Map<String, Version> userVersions = new ConcurrentHashMap<>();
+
+    @Value("${etags.max-age-seconds:300}")
+    private long maxAgeSeconds;
+
+    @Value("${etags.max-entries:100000}")
+    private int maxEntries;
+
+    /**
+     * ETag of GET /api/channels?workspaceId=
+     */
+    public String channelsEtag(Long workspaceId) {
+        return etag("c" + workspaceId, current(workspaceVersions, workspaceId));
+    }
+
+    /**
+     * ETag of GET /api/workspaces/{workspaceId}/members
+     */
+    public String membersEtag(Long workspaceId) {
+        return etag("m" + workspaceId, current(workspaceVersions, workspaceId));
+    }
+
+    /**
+     * ETag of GET /api/workspaces?clerkId=
+     */
+    public String userWorkspacesEtag(String clerkId) {
+        return etag("w" + Integer.toHexString(clerkId.hashCode()), current(userVersions, clerkId));
+    }
+
+    public void channelsChanged(Long workspaceId) {
+        AfterCommit.run(() -> bump(workspaceVersions, workspaceId));
+    }
+
+    public void membershipChanged(Long workspaceId, Collection<String> clerkIds) {
+        AfterCommit.run(() -> {
+            bump(workspaceVersions, workspaceId);
+            clerkIds.forEach(clerkId -> bump(userVersions, clerkId));
+        });
+    }
+
+    /**
+     * A member's name, email or avatar changed: every member list they appear in is stale
+     */
+    public void memberProfileChanged(Collection<Long> workspaceIds) {
+        AfterCommit.run(() -> workspaceIds.forEach(workspaceId -> bump(workspaceVersions, workspaceId)));
+    }
+
+    /**
+     * Whether an If-None-Match header matches the given (unquoted) ETag; weak and listed tags are accepted
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+                tag = tag.substring(1, tag.length() - 1);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String etag(String resource, Object version) {
+        return resource + "-" + epoch + "-" + version;
+    }
+
+    private <K> long current(Map<K, Version> versions, K key) {
+        long now = System.currentTimeMillis();
+        long maxAgeMillis = TimeUnit.SECONDS.toMillis(maxAgeSeconds);
+        if (versions.size() >= maxEntries) {
+            versions.clear();
+        }
+        return versions.compute(key, (k, version) ->
+            version != null && now - version.issuedAtMillis() <= maxAgeMillis
+                ? version
+                : new Version(sequence.incrementAndGet(), now)
+        ).value();
+    }
+
+    private <K> void bump(Map<K, Version> versions, K key) {
+        versions.put(key, new Version(sequence.incrementAndGet(), System.currentTimeMillis()));
+    }
+}
@@ -0,0 +1,146 @@
+package com.buzzlink.service;
+
+import com.buzzlink.event.MessageCreatedEvent;
+import com.buzzlink.event.MessageDeletedEvent;
+import com.buzzlink.repository.ChannelRepository;
+import com.buzzlink.repository.DirectMessageRepository;
+import com.buzzlink.repository.MessageRepository;
+import com.buzzlink.repository.UserRepository;
+import com.buzzlink.repository.WorkspaceRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory system totals for the admin dashboard
+ *
+ * Counters are adjusted by the services that create or change the underlying
+ * rows (after their transaction commits) and periodically reconciled against
+ * the database to correct drift from bulk imports or other nodes. Reads never
+ * touch the database. Each total is also exported as the gauge
+ * buzzlink.system.stats{stat=...}.
+ */
+@Service
+@Slf4j
+public class SystemStatsService {
+
+    public enum Stat {
+        USERS("totalUsers"),
+        WORKSPACES("totalWorkspaces"),
+        CHANNELS("totalChannels"),
+        MESSAGES("totalMessages"),
+        DIRECT_MESSAGES("totalDirectMessages"),
+        BANNED_USERS("bannedUsers"),
+        ADMIN_USERS("adminUsers");
+
+        public final String key;
+
+        Stat(String key) {
+            this.key = key;
+        }
+    }
+
+    private final UserRepository userRepository;
+    private final WorkspaceRepository workspaceRepository;
+    private final ChannelRepository channelRepository;
+    private final MessageRepository messageRepository;
+    private final DirectMessageRepository directMessageRepository;
+
+    private final Map<Stat, AtomicLong> counters = new EnumMap<>(Stat.class);
+
+    public SystemStatsService(UserRepository userRepository,
+                              WorkspaceRepository workspaceRepository,
+                              ChannelRepository channelRepository,
+                              MessageRepository messageRepository,
+                              DirectMessageRepository directMessageRepository,
+                              MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.workspaceRepository = workspaceRepository;
+        this.channelRepository = channelRepository;
+        this.messageRepository = messageRepository;
+        this.directMessageRepository = directMessageRepository;
+
+        for (Stat stat : Stat.values()) {
+            AtomicLong counter = new AtomicLong();
+            counters.put(stat, counter);
+            Gauge.builder("buzzlink.system.stats", counter, AtomicLong::get)
+                    .description("System totals shown on the admin dashboard")
+                    .tag("stat", stat.key)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Adjust a counter once the current transaction commits (immediately if there is none)
+     */
+    public void adjust(Stat stat, long delta) {
+        if (delta == 0) return;
+        AfterCommit.run(() -> counters.get(stat).addAndGet(delta));
+    }
+
+    /**
+     * Adjust a counter by +1/-1 when a boolean flag flips
+     */
+    public void flagChanged(Stat stat, boolean before, boolean after) {
+        if (before != after) {
+            adjust(stat, after ? 1 : -1);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMessageCreated(MessageCreatedEvent event) {
+        counters.get(Stat.MESSAGES).incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMessageDeleted(MessageDeletedEvent event) {
+        counters.get(Stat.MESSAGES).decrementAndGet();
+    }
+
+    /**
+     * Current totals, keyed as the admin API has always returned them
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        counters.forEach((stat, counter) -> stats.put(stat.key, counter.get()));
+        return stats;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        reconcile();
+    }
+
+    /**
+     * Reset every counter to the database's count
+     */
+    @Scheduled(fixedDelayString = "${admin.stats.reconcile-interval-ms:300000}",
+               initialDelayString = "${admin.stats.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        Map<Stat, Long> actual = new EnumMap<>(Stat.class);
+        actual.put(Stat.USERS, userRepository.count());
+        actual.put(Stat.WORKSPACES, workspaceRepository.count());
+        actual.put(Stat.CHANNELS, channelRepository.count());
+        actual.put(Stat.MESSAGES, messageRepository.count());
+        actual.put(Stat.DIRECT_MESSAGES, directMessageRepository.count());
+        actual.put(Stat.BANNED_USERS, userRepository.countByIsBanned(true));
+        actual.put(Stat.ADMIN_USERS, userRepository.countByIsAdmin(true));
+
+        actual.forEach((stat, value) -> {
+            long previous = counters.get(stat).getAndSet(value);
+            if (previous != value) {
+                log.debug("System stat {} reconciled: {} -> {}", stat.key, previous, value);
+            }
+        });
+    }
+}
@@ -0,0 +1,123 @@
+package com.buzzlink.service;
+
+import com.buzzlink.entity.User;
+import com.buzzlink.repository.UserRepository;
+import com.buzzlink.repository.UserWorkspaceMemberRepository;
+import com.buzzlink.search.UserSearchIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * User search for the DM picker and member lookups
+ *
+ * Served from a {@link UserSearchIndex} loaded at startup and kept current by
+ * UserService and WorkspaceService writes (applied after commit). Until the
+ * index is ready, searches fall back to a bounded LIKE query.
+ */
+@Service
+@Slf4j
+public class UserSearchService {
+
+    public static final int MAX_RESULTS = 50;
+
+    private final UserRepository userRepository;
+    private final UserWorkspaceMemberRepository memberRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final UserSearchIndex index = new UserSearchIndex();
+    private volatile boolean ready;
+
+    public UserSearchService(UserRepository userRepository,
+                             UserWorkspaceMemberRepository memberRepository,
+                             PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.memberRepository = memberRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Top matches, prefix matches first
+     *
+     * @param workspaceId only members of this workspace, or null for everyone
+     */
+    public List<User> search(String query, Long workspaceId, int limit) {
+        if (query == null || query.trim().isEmpty()) {
+            return List.of();
+        }
+        int cappedLimit = Math.max(1, Math.min(limit, MAX_RESULTS));
+
+        if (!ready) {
+            return workspaceId == null
+                    ? userRepository.searchUsers(query.trim(), PageRequest.of(0, cappedLimit))
+                    : userRepository.searchWorkspaceMembers(query.trim(), workspaceId, PageRequest.of(0, cappedLimit));
+        }
+
+        List<Long> ids = index.search(query, workspaceId, cappedLimit).stream()
+                .map(UserSearchIndex.Hit::userId)
+                .collect(Collectors.toList());
+        Map<Long, User> users = userRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<User> ranked = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            User user = users.get(id);
+            if (user != null) ranked.add(user);
+        }
+        return ranked;
+    }
+
+    /**
+     * Index a created or updated user once the current transaction commits
+     */
+    public void userSaved(User user) {
+        long userId = user.getId();
+        String displayName = user.getDisplayName();
+        String email = user.getEmail();
+        AfterCommit.run(() -> index.upsert(userId, displayName, email));
+    }
+
+    /**
+     * Record a new workspace membership once the current transaction commits
+     */
+    public void membershipAdded(Long userId, Long workspaceId) {
+        AfterCommit.run(() -> index.addMembership(userId, workspaceId));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        load();
+    }
+
+    /**
+     * Load every user and membership (also used after bulk imports that bypass the services)
+     *
+     * Writes that commit while the load runs are applied as usual; the loader
+     * never overwrites a user that is already indexed, so the newer value wins.
+     */
+    public void load() {
+        long start = System.currentTimeMillis();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<Object[]> rows = userRepository.streamSearchFields()) {
+                rows.forEach(row -> index.load((Long) row[0], (String) row[1], (String) row[2]));
+            }
+            try (Stream<Object[]> rows = memberRepository.streamMemberships()) {
+                rows.forEach(row -> index.addMembership((Long) row[0], (Long) row[1]));
+            }
+        });
+        ready = true;
+        log.info("User search index loaded: {} users in {} ms", index.size(), System.currentTimeMillis() - start);
+    }
+}
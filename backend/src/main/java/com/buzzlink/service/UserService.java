@@ -2,6 +2,7 @@ package com.buzzlink.service;
 
 import com.buzzlink.entity.User;
 import com.buzzlink.repository.UserRepository;
+import com.buzzlink.repository.UserWorkspaceMemberRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
@@ -9,6 +10,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 /**
@@ -18,13 +20,23 @@ import java.util.Optional;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final SystemStatsService systemStatsService;
+    private final UserSearchService userSearchService;
+    private final UserWorkspaceMemberRepository memberRepository;
+    private final ResourceVersionService resourceVersionService;
 
     @Lazy
     @Autowired
     private InvitationService invitationService;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, SystemStatsService systemStatsService,
+                       UserSearchService userSearchService, UserWorkspaceMemberRepository memberRepository,
+                       ResourceVersionService resourceVersionService) {
         this.userRepository = userRepository;
+        this.systemStatsService = systemStatsService;
+        this.userSearchService = userSearchService;
+        this.memberRepository = memberRepository;
+        this.resourceVersionService = resourceVersionService;
     }
 
     /**
@@ -45,12 +57,20 @@ public class UserService {
         if (existingUser.isPresent()) {
             // Update existing user
             User user = existingUser.get();
+            boolean profileChanged = !Objects.equals(user.getDisplayName(), displayName)
+                || !Objects.equals(user.getEmail(), email)
+                || (avatarUrl != null && !avatarUrl.equals(user.getAvatarUrl()));
             user.setDisplayName(displayName);
             user.setEmail(email);
             if (avatarUrl != null) {
                 user.setAvatarUrl(avatarUrl);
             }
-            return userRepository.save(user);
+            User savedUser = userRepository.save(user);
+            userSearchService.userSaved(savedUser);
+            if (profileChanged) {
+                memberProfileChanged(savedUser);
+            }
+            return savedUser;
         } else {
             // Create new user
             User newUser = new User();
@@ -60,6 +80,8 @@ public class UserService {
             newUser.setAvatarUrl(avatarUrl);
             newUser.setIsAdmin(false); // Default to non-admin
             User savedUser = userRepository.save(newUser);
+            systemStatsService.adjust(SystemStatsService.Stat.USERS, 1);
+            userSearchService.userSaved(savedUser);
 
             // Auto-accept any pending invitations for this email
             if (invitationService != null) {
@@ -77,6 +99,8 @@ public class UserService {
     public User updateProfile(String clerkId, String displayName, String avatarUrl) {
         User user = userRepository.findByClerkId(clerkId)
             .orElseThrow(() -> new RuntimeException("User not found"));
+        boolean profileChanged = (displayName != null && !displayName.equals(user.getDisplayName()))
+            || (avatarUrl != null && !avatarUrl.equals(user.getAvatarUrl()));
 
         if (displayName != null) {
             user.setDisplayName(displayName);
@@ -85,7 +109,19 @@ public class UserService {
             user.setAvatarUrl(avatarUrl);
         }
 
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        userSearchService.userSaved(savedUser);
+        if (profileChanged) {
+            memberProfileChanged(savedUser);
+        }
+        return savedUser;
+    }
+
+    /**
+     * Member lists show names, emails and avatars, so their ETags change with the profile
+     */
+    private void memberProfileChanged(User user) {
+        resourceVersionService.memberProfileChanged(memberRepository.findWorkspaceIdsByUserId(user.getId()));
     }
 
     /**
@@ -105,6 +141,7 @@ public class UserService {
     public void setAdmin(String clerkId, boolean isAdmin) {
         User user = userRepository.findByClerkId(clerkId)
             .orElseThrow(() -> new RuntimeException("User not found"));
+        systemStatsService.flagChanged(SystemStatsService.Stat.ADMIN_USERS, user.getIsAdmin(), isAdmin);
         user.setIsAdmin(isAdmin);
         userRepository.save(user);
     }
@@ -117,12 +154,9 @@ public class UserService {
     }
 
     /**
-     * Search users by display name or email
+     * Search users by display name or email, prefix matches first
      */
-    public List<User> searchUsers(String query) {
-        if (query == null || query.trim().isEmpty()) {
-            return List.of();
-        }
-        return userRepository.searchUsers(query.trim());
+    public List<User> searchUsers(String query, Long workspaceId, int limit) {
+        return userSearchService.search(query, workspaceId, limit);
     }
 }
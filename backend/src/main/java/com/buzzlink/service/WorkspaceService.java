@@ -1,6 +1,7 @@
 package com.buzzlink.service;
 
 import com.buzzlink.dto.WorkspaceDTO;
+import com.buzzlink.dto.WorkspaceMemberDTO;
 import com.buzzlink.entity.User;
 import com.buzzlink.entity.Workspace;
 import com.buzzlink.entity.UserWorkspaceMember;
@@ -8,10 +9,16 @@ import com.buzzlink.repository.UserRepository;
 import com.buzzlink.repository.WorkspaceRepository;
 import com.buzzlink.repository.UserWorkspaceMemberRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,13 +36,40 @@ public class WorkspaceService {
     @Autowired
     private com.buzzlink.repository.ChannelRepository channelRepository;
 
+    @Autowired
+    private SystemStatsService systemStatsService;
+
+    @Autowired
+    private UserSearchService userSearchService;
+
+    @Autowired
+    private ResourceVersionService resourceVersionService;
+
+    private record CachedWorkspace(Workspace workspace, long loadedAtMillis) {
+    }
+
+    // Workspaces by slug; slugs never change, so entries only expire to pick up edits made on other nodes
+    private final Map<String, CachedWorkspace> workspacesBySlug = new ConcurrentHashMap<>();
+
+    @Value("${workspaces.slug-cache.ttl-seconds:600}")
+    private long slugCacheTtlSeconds;
+
+    @Value("${workspaces.slug-cache.max-entries:10000}")
+    private int slugCacheMaxEntries;
+
     /**
      * Get all workspaces a user is a member of
      */
     public List<WorkspaceDTO> getUserWorkspaces(String clerkId) {
         User user = userRepository.findByClerkId(clerkId)
             .orElseThrow(() -> new RuntimeException("User not found"));
+        return getUserWorkspaces(user);
+    }
 
+    /**
+     * Get all workspaces of an already resolved user
+     */
+    public List<WorkspaceDTO> getUserWorkspaces(User user) {
         List<UserWorkspaceMember> memberships = memberRepository.findByUserId(user.getId());
 
         return memberships.stream()
@@ -45,10 +79,22 @@ public class WorkspaceService {
 
     /**
      * Get workspace by slug
+     * Served from memory after the first lookup; the returned workspace is shared and must not be modified.
      */
     public Workspace getWorkspaceBySlug(String slug) {
-        return workspaceRepository.findBySlug(slug)
+        long now = System.currentTimeMillis();
+        CachedWorkspace cached = workspacesBySlug.get(slug);
+        if (cached != null && now - cached.loadedAtMillis() <= TimeUnit.SECONDS.toMillis(slugCacheTtlSeconds)) {
+            return cached.workspace();
+        }
+
+        Workspace workspace = workspaceRepository.findBySlug(slug)
             .orElseThrow(() -> new RuntimeException("Workspace not found: " + slug));
+        if (workspacesBySlug.size() >= slugCacheMaxEntries) {
+            workspacesBySlug.clear();
+        }
+        workspacesBySlug.put(slug, new CachedWorkspace(workspace, now));
+        return workspace;
     }
 
     /**
@@ -83,6 +129,7 @@ public class WorkspaceService {
             UserWorkspaceMember.Role.OWNER
         );
         memberRepository.save(membership);
+        userSearchService.membershipAdded(creator.getId(), workspace.getId());
 
         // Auto-create #general channel
         com.buzzlink.entity.Channel generalChannel = new com.buzzlink.entity.Channel();
@@ -90,6 +137,9 @@ public class WorkspaceService {
         generalChannel.setDescription("General discussion for " + name);
         generalChannel.setWorkspace(workspace);
         channelRepository.save(generalChannel);
+        systemStatsService.adjust(SystemStatsService.Stat.WORKSPACES, 1);
+        systemStatsService.adjust(SystemStatsService.Stat.CHANNELS, 1);
+        resourceVersionService.membershipChanged(workspace.getId(), List.of(creatorClerkId));
 
         return WorkspaceDTO.from(workspace, UserWorkspaceMember.Role.OWNER.name());
     }
@@ -112,16 +162,22 @@ public class WorkspaceService {
 
         UserWorkspaceMember membership = new UserWorkspaceMember(user, workspace, role);
         memberRepository.save(membership);
+        userSearchService.membershipAdded(user.getId(), workspaceId);
+        resourceVersionService.membershipChanged(workspaceId, List.of(clerkId));
     }
 
     /**
      * Check if user is member of workspace
      */
     public boolean isUserMemberOf(String clerkId, Long workspaceId) {
-        User user = userRepository.findByClerkId(clerkId).orElse(null);
-        if (user == null) return false;
+        return getRole(clerkId, workspaceId).isPresent();
+    }
 
-        return memberRepository.findByUserIdAndWorkspaceId(user.getId(), workspaceId).isPresent();
+    /**
+     * A user's role in a workspace (empty if they are not a member), in one indexed query
+     */
+    public Optional<UserWorkspaceMember.Role> getRole(String clerkId, Long workspaceId) {
+        return memberRepository.findRole(clerkId, workspaceId);
     }
 
     /**
@@ -130,4 +186,14 @@ public class WorkspaceService {
     public List<UserWorkspaceMember> getWorkspaceMembers(Long workspaceId) {
         return memberRepository.findByWorkspaceId(workspaceId);
     }
+
+    /**
+     * A page of workspace members ordered by user id, excluding the caller
+     *
+     * @param afterUserId id of the last member of the previous page, or null for the first page
+     */
+    public List<WorkspaceMemberDTO> getMemberPage(Long workspaceId, String excludeClerkId, Long afterUserId, int limit) {
+        return memberRepository.findMemberPage(workspaceId, afterUserId != null ? afterUserId : 0L, excludeClerkId,
+            PageRequest.of(0, limit));
+    }
 }
@@ -1,5 +1,6 @@
 package com.buzzlink.websocket;
 
+import com.buzzlink.config.ReplicaRoutingContext;
 import com.buzzlink.dto.DirectMessageDTO;
 import com.buzzlink.dto.MessageDTO;
 import com.buzzlink.entity.Message;
@@ -48,6 +49,8 @@ public class WebSocketController {
     public void sendMessage(@Payload SendMessageRequest request) {
         log.info("Received message from {}: {}", request.clerkId(), request.content());
 
+        // STOMP frames bypass the HTTP routing filter; attribute the write so the sender's next reads see it
+        ReplicaRoutingContext.set(request.clerkId());
         try {
             // Save message to database
             Message.MessageType type = Message.MessageType.valueOf(request.type());
@@ -73,7 +76,7 @@ public class WebSocketController {
 
             // Broadcast to all subscribers of this channel
             messagingTemplate.convertAndSend(
-                    "/topic/channel." + request.channelId(),
+                    channelTopic(request.channelId()),
                     chatMessage);
 
             // Create notifications for workspace members
@@ -109,6 +112,8 @@ public class WebSocketController {
 
         } catch (Exception e) {
             log.error("Error sending message: {}", e.getMessage(), e);
+        } finally {
+            ReplicaRoutingContext.clear();
         }
     }
 
@@ -120,7 +125,7 @@ public class WebSocketController {
     @MessageMapping("/chat.typing")
     public void handleTyping(@Payload TypingEvent event) {
         messagingTemplate.convertAndSend(
-                "/topic/channel." + event.getChannelId() + ".typing",
+                typingTopic(event.getChannelId()),
                 event);
     }
 
@@ -164,7 +169,7 @@ public class WebSocketController {
                 presenceService.getOnlineCount(channelId));
 
         messagingTemplate.convertAndSend(
-                "/topic/channel." + channelId + ".presence",
+                presenceTopic(channelId),
                 presenceEvent);
     }
 
@@ -177,6 +182,7 @@ public class WebSocketController {
     public void sendDirectMessage(@Payload SendDirectMessageRequest request) {
         log.info("Received DM from {} to user {}", request.senderClerkId(), request.recipientId());
 
+        ReplicaRoutingContext.set(request.senderClerkId());
         try {
             // Save DM to database
             DirectMessageDTO dm = directMessageService.sendDirectMessage(
@@ -190,13 +196,13 @@ public class WebSocketController {
 
             // Send to recipient's personal topic
             messagingTemplate.convertAndSend(
-                    "/topic/dm." + dm.recipient().getClerkId(),
+                    dmTopic(dm.recipient().getClerkId()),
                     dm);
             log.debug("Sent DM to recipient topic: /topic/dm.{}", dm.recipient().getClerkId());
 
             // Also send back to sender for confirmation
             messagingTemplate.convertAndSend(
-                    "/topic/dm." + dm.sender().getClerkId(),
+                    dmTopic(dm.sender().getClerkId()),
                     dm);
             log.debug("Sent DM to sender topic: /topic/dm.{}", dm.sender().getClerkId());
 
@@ -213,6 +219,8 @@ public class WebSocketController {
 
         } catch (Exception e) {
             log.error("Error sending DM: {}", e.getMessage(), e);
+        } finally {
+            ReplicaRoutingContext.clear();
         }
     }
 
@@ -236,7 +244,7 @@ public class WebSocketController {
 
             // Send to recipient's personal DM typing topic
             messagingTemplate.convertAndSend(
-                    "/topic/dm." + request.recipientClerkId() + ".typing",
+                    dmTypingTopic(request.recipientClerkId()),
                     typingEvent
             );
 
@@ -246,6 +254,29 @@ public class WebSocketController {
         }
     }
 
+    /**
+     * Broker destinations
+     */
+    public static String channelTopic(Long channelId) {
+        return "/topic/channel." + channelId;
+    }
+
+    public static String typingTopic(Long channelId) {
+        return "/topic/channel." + channelId + ".typing";
+    }
+
+    public static String presenceTopic(Long channelId) {
+        return "/topic/channel." + channelId + ".presence";
+    }
+
+    public static String dmTopic(String clerkId) {
+        return "/topic/dm." + clerkId;
+    }
+
+    public static String dmTypingTopic(String clerkId) {
+        return "/topic/dm." + clerkId + ".typing";
+    }
+
     /**
      * Request records
      */
@@ -8,6 +8,7 @@ import {
   getAllUsers,
   getSystemStats,
   getLogs,
+  followLogs,
   banUser,
   unbanUser,
   deleteUser,
@@ -27,6 +28,9 @@ export default function AdminDashboard() {
   const [loading, setLoading] = useState(true);
   const [activeTab, setActiveTab] = useState<'users' | 'stats' | 'logs'>('users');
   const [logLevel, setLogLevel] = useState('INFO');
+  const [followingLogs, setFollowingLogs] = useState(false);
+  const [logFrom, setLogFrom] = useState('');
+  const [logTo, setLogTo] = useState('');
 
   useEffect(() => {
     if (isLoaded && user) {
@@ -41,6 +45,14 @@ export default function AdminDashboard() {
     }
   }, [isLoaded, user, router]);
 
+  // Append live log entries while "Follow" is on, keeping the newest 500
+  useEffect(() => {
+    if (!followingLogs || activeTab !== 'logs' || !user) return;
+    return followLogs(user.id, logLevel, (entry) => {
+      setLogs((current) => [...current, entry].slice(-500));
+    });
+  }, [followingLogs, activeTab, logLevel, user]);
+
   const loadData = async () => {
     try {
       setLoading(true);
@@ -100,16 +112,30 @@ export default function AdminDashboard() {
     }
   };
 
-  const handleLogLevelChange = async (newLevel: string) => {
-    setLogLevel(newLevel);
+  // datetime-local values are local time; the API expects ISO instants
+  const fetchLogs = async (level: string, from: string, to: string) => {
     try {
-      const logsData = await getLogs(100, newLevel);
+      const logsData = await getLogs(100, level, {
+        from: from ? new Date(from).toISOString() : undefined,
+        to: to ? new Date(to).toISOString() : undefined,
+      });
       setLogs(logsData.logs);
     } catch (error) {
       console.error('Error fetching logs:', error);
     }
   };
 
+  const handleLogLevelChange = async (newLevel: string) => {
+    setLogLevel(newLevel);
+    await fetchLogs(newLevel, logFrom, logTo);
+  };
+
+  const handleLogRangeChange = async (from: string, to: string) => {
+    setLogFrom(from);
+    setLogTo(to);
+    await fetchLogs(logLevel, from, to);
+  };
+
   if (!isLoaded || loading) {
     return (
       <div className="min-h-screen bg-gray-50">
@@ -499,17 +525,42 @@ export default function AdminDashboard() {
                   View recent application logs and errors
                 </p>
               </div>
-              <select
-                value={logLevel}
-                onChange={(e) => handleLogLevelChange(e.target.value)}
-                className="block w-32 pl-3 pr-10 py-2 text-base border-gray-300 focus:outline-none focus:ring-indigo-500 focus:border-indigo-500 sm:text-sm rounded-md"
-              >
-                <option value="ALL">All</option>
-                <option value="ERROR">Error</option>
-                <option value="WARN">Warning</option>
-                <option value="INFO">Info</option>
-                <option value="DEBUG">Debug</option>
-              </select>
+              <div className="flex items-center space-x-3">
+                <input
+                  type="datetime-local"
+                  value={logFrom}
+                  onChange={(e) => handleLogRangeChange(e.target.value, logTo)}
+                  title="From"
+                  className="block pl-3 py-2 text-sm border-gray-300 focus:outline-none focus:ring-indigo-500 focus:border-indigo-500 rounded-md"
+                />
+                <input
+                  type="datetime-local"
+                  value={logTo}
+                  onChange={(e) => handleLogRangeChange(logFrom, e.target.value)}
+                  title="To"
+                  className="block pl-3 py-2 text-sm border-gray-300 focus:outline-none focus:ring-indigo-500 focus:border-indigo-500 rounded-md"
+                />
+                <label className="flex items-center text-sm text-gray-700">
+                  <input
+                    type="checkbox"
+                    checked={followingLogs}
+                    onChange={(e) => setFollowingLogs(e.target.checked)}
+                    className="mr-2 h-4 w-4 text-indigo-600 border-gray-300 rounded"
+                  />
+                  Follow
+                </label>
+                <select
+                  value={logLevel}
+                  onChange={(e) => handleLogLevelChange(e.target.value)}
+                  className="block w-32 pl-3 pr-10 py-2 text-base border-gray-300 focus:outline-none focus:ring-indigo-500 focus:border-indigo-500 sm:text-sm rounded-md"
+                >
+                  <option value="ALL">All</option>
+                  <option value="ERROR">Error</option>
+                  <option value="WARN">Warning</option>
+                  <option value="INFO">Info</option>
+                  <option value="DEBUG">Debug</option>
+                </select>
+              </div>
             </div>
             <div className="border-t border-gray-200">
               <div className="max-h-96 overflow-y-auto">
@@ -529,7 +580,7 @@ export default function AdminDashboard() {
                   </thead>
                   <tbody className="bg-white divide-y divide-gray-200">
                     {logs.map((log, index) => (
-                      <tr key={index}>
+                      <tr key={log.sequence || index}>
                         <td className="px-6 py-4 whitespace-nowrap text-sm text-gray-500">
                           {new Date(log.timestamp).toLocaleString()}
                         </td>
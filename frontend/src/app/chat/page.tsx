@@ -1,13 +1,22 @@
 'use client';
 
-import { useEffect, useState } from 'react';
+import { useEffect, useRef, useState } from 'react';
 import { useUser } from '@clerk/nextjs';
-import { Channel, Workspace, Conversation, User } from '@/types';
-import { getChannels, syncUser, setClerkUserId, getWorkspaces, getConversations, getWorkspaceMembers } from '@/lib/api';
+import { Channel, Workspace, Conversation, Message, User } from '@/types';
+import { bootstrap, getChannels, setClerkUserId, getWorkspaces, getAllWorkspaceMembers } from '@/lib/api';
 import Header from '@/components/Header';
 import ChannelSidebar from '@/components/ChannelSidebar';
 import ChatPanel from '@/components/ChatPanel';
 
+// Last selection, sent with the bootstrap request so the first paint reopens it
+const LAST_WORKSPACE_KEY = 'buzzlink.lastWorkspaceId';
+const LAST_CHANNEL_KEY = 'buzzlink.lastChannelId';
+
+const readStoredId = (key: string): number | undefined => {
+  const value = Number(window.localStorage.getItem(key));
+  return Number.isInteger(value) && value > 0 ? value : undefined;
+};
+
 export default function ChatPage() {
   const { user, isLoaded } = useUser();
   const [workspaces, setWorkspaces] = useState<Workspace[]>([]);
@@ -17,36 +26,48 @@ export default function ChatPage() {
   const [conversations, setConversations] = useState<Conversation[]>([]);
   const [selectedConversation, setSelectedConversation] = useState<Conversation | null>(null);
   const [workspaceMembers, setWorkspaceMembers] = useState<User[]>([]);
+  const [initialMessages, setInitialMessages] = useState<{ channelId: number; messages: Message[] } | null>(null);
+  const [initialUnreadCount, setInitialUnreadCount] = useState<number | undefined>(undefined);
   const [loading, setLoading] = useState(true);
+  // Workspace whose channels came with the bootstrap payload; its first channel load is skipped
+  const seededWorkspaceIdRef = useRef<number | null>(null);
 
   useEffect(() => {
     if (!isLoaded || !user) return;
 
     const initialize = async () => {
       try {
-        // Sync user with backend
-        await syncUser(
+        // Sync user with backend and load everything for the first paint in one request
+        const initial = await bootstrap(
           user.id,
           user.fullName || user.username || 'User',
           user.primaryEmailAddress?.emailAddress || '',
-          user.imageUrl
+          user.imageUrl,
+          readStoredId(LAST_WORKSPACE_KEY),
+          readStoredId(LAST_CHANNEL_KEY)
         );
 
         // Set Clerk user ID for API requests
         setClerkUserId(user.id);
 
-        // Load workspaces
-        const fetchedWorkspaces = await getWorkspaces(user.id);
-        setWorkspaces(fetchedWorkspaces);
-
-        // Select first workspace by default
-        if (fetchedWorkspaces.length > 0) {
-          setSelectedWorkspace(fetchedWorkspaces[0]);
+        setWorkspaces(initial.workspaces);
+        setConversations(initial.conversations);
+        setInitialUnreadCount(initial.unreadNotificationCount);
+
+        // The server resolved the workspace and channel (the stored ones, or the first)
+        const workspace = initial.workspaces.find((w) => w.id === initial.workspaceId) ?? null;
+        if (workspace) {
+          seededWorkspaceIdRef.current = workspace.id;
+          setChannels(initial.channels);
+          const channel = initial.channels.find((c) => c.id === initial.channelId) ?? null;
+          setSelectedChannel(channel);
+          if (channel) {
+            setInitialMessages({ channelId: channel.id, messages: initial.messages });
+          }
+          setSelectedWorkspace(workspace);
+        } else if (initial.workspaces.length > 0) {
+          setSelectedWorkspace(initial.workspaces[0]);
         }
-
-        // Load conversations
-        const fetchedConversations = await getConversations(user.id);
-        setConversations(fetchedConversations);
       } catch (error) {
         console.error('Error initializing chat:', error);
       } finally {
@@ -63,27 +84,48 @@ export default function ChatPage() {
 
     const loadWorkspaceData = async () => {
       try {
-        // Load channels
-        const fetchedChannels = await getChannels(selectedWorkspace.id);
-        setChannels(fetchedChannels);
-
-        // Select first channel by default
-        if (fetchedChannels.length > 0) {
-          setSelectedChannel(fetchedChannels[0]);
-          setSelectedConversation(null);
+        if (seededWorkspaceIdRef.current === selectedWorkspace.id) {
+          // Channels already came with the bootstrap payload
+          seededWorkspaceIdRef.current = null;
+        } else {
+          seededWorkspaceIdRef.current = null;
+          const fetchedChannels = await getChannels(selectedWorkspace.id);
+          setChannels(fetchedChannels);
+
+          // Select first channel by default
+          if (fetchedChannels.length > 0) {
+            setSelectedChannel(fetchedChannels[0]);
+            setSelectedConversation(null);
+          }
         }
 
-        // Load workspace members
-        const fetchedMembers = await getWorkspaceMembers(selectedWorkspace.id, user.id);
-        setWorkspaceMembers(fetchedMembers);
+        // Load every workspace member; drop the result if the workspace changed while paging
+        const fetchedMembers = await getAllWorkspaceMembers(selectedWorkspace.id, user.id);
+        if (!cancelled) {
+          setWorkspaceMembers(fetchedMembers);
+        }
       } catch (error) {
         console.error('Error loading workspace data:', error);
       }
     };
 
+    let cancelled = false;
     loadWorkspaceData();
+    return () => {
+      cancelled = true;
+    };
   }, [selectedWorkspace, user]);
 
+  // Remember the selection for the next bootstrap
+  useEffect(() => {
+    if (selectedWorkspace) {
+      window.localStorage.setItem(LAST_WORKSPACE_KEY, String(selectedWorkspace.id));
+    }
+    if (selectedChannel) {
+      window.localStorage.setItem(LAST_CHANNEL_KEY, String(selectedChannel.id));
+    }
+  }, [selectedWorkspace, selectedChannel]);
+
   const handleWorkspaceCreated = async () => {
     if (!user) return;
 
@@ -129,7 +171,7 @@ export default function ChatPage() {
 
   return (
     <div className="h-screen flex flex-col">
-      <Header />
+      <Header initialUnreadCount={initialUnreadCount} />
       <div className="flex-1 flex overflow-hidden">
         <ChannelSidebar
           channels={channels}
@@ -152,6 +194,10 @@ export default function ChatPage() {
             setSelectedConversation(conversation);
             if (conversation) {
               setSelectedChannel(null); // Clear channel when selecting conversation
+              // Opening a conversation marks it read (ChatPanel tells the server)
+              setConversations((prev) =>
+                prev.map((c) => (c.otherUser.id === conversation.otherUser.id ? { ...c, unreadCount: 0 } : c))
+              );
             }
           }}
           workspaceMembers={workspaceMembers}
@@ -161,6 +207,7 @@ export default function ChatPage() {
         <ChatPanel
           channel={selectedChannel}
           conversation={selectedConversation}
+          initialMessages={initialMessages}
         />
       </div>
     </div>
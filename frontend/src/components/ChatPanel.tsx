@@ -3,7 +3,7 @@
 import { useEffect, useState, useRef } from 'react';
 import { useUser } from '@clerk/nextjs';
 import { Channel, Message, TypingEvent, PresenceEvent, Conversation, DirectMessage } from '@/types';
-import { getMessages, getConversation } from '@/lib/api';
+import { getMessages, getConversation, markConversationRead } from '@/lib/api';
 import { useWebSocket } from '@/hooks/useWebSocket';
 import MessageList from './MessageList';
 import MessageInput from './MessageInput';
@@ -14,9 +14,11 @@ import ThreadView from './ThreadView';
 interface ChatPanelProps {
   channel: Channel | null;
   conversation: Conversation | null;
+  // History already loaded for one channel (newest first, from /api/bootstrap); used instead of the first fetch
+  initialMessages?: { channelId: number; messages: Message[] } | null;
 }
 
-export default function ChatPanel({ channel, conversation }: ChatPanelProps) {
+export default function ChatPanel({ channel, conversation, initialMessages }: ChatPanelProps) {
   const { user } = useUser();
   const [messages, setMessages] = useState<Message[]>([]);
   const [dmMessages, setDmMessages] = useState<DirectMessage[]>([]);
@@ -28,6 +30,7 @@ export default function ChatPanel({ channel, conversation }: ChatPanelProps) {
   const messagesEndRef = useRef<HTMLDivElement>(null);
   const typingTimeoutsRef = useRef<Map<string, NodeJS.Timeout>>(new Map());
   const selectedThreadRef = useRef<Message | null>(null);
+  const initialMessagesRef = useRef(initialMessages ?? null);
 
   const { connected, subscribeToChannel, sendMessage, sendDirectMessage, sendTyping, leaveChannel, subscribeToDMs, sendDMTyping, subscribeToDMTyping } = useWebSocket(
     user?.id || null
@@ -46,6 +49,14 @@ export default function ChatPanel({ channel, conversation }: ChatPanelProps) {
     if (!channel || !connected || !user || conversation) return;
 
     const loadMessages = async () => {
+      const seeded = initialMessagesRef.current;
+      initialMessagesRef.current = null;
+      if (seeded && seeded.channelId === channel.id) {
+        setMessages([...seeded.messages].reverse()); // Chronological order
+        setDmMessages([]);
+        return;
+      }
+
       setLoading(true);
       try {
         const fetchedMessages = await getMessages(channel.id);
@@ -155,6 +166,7 @@ export default function ChatPanel({ channel, conversation }: ChatPanelProps) {
       try {
         const fetchedMessages = await getConversation(user.id, conversation.otherUser.id);
         setDmMessages(fetchedMessages.reverse()); // Chronological order
+        markConversationRead(user.id, conversation.otherUser.id).catch(() => {});
         setMessages([]); // Clear channel messages when viewing DM
       } catch (error) {
         console.error('Error loading conversation:', error);
@@ -199,6 +211,10 @@ export default function ChatPanel({ channel, conversation }: ChatPanelProps) {
           console.log('Adding DM to list');
           return [...prev, dm];
         });
+        // Seen while the conversation is open
+        if (dm.sender.id === conversation.otherUser.id) {
+          markConversationRead(user.id, conversation.otherUser.id).catch(() => {});
+        }
       }
     };
 
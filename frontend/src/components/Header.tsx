@@ -5,13 +5,23 @@ import Link from 'next/link';
 import Image from 'next/image';
 import { useState, useEffect, useRef } from 'react';
 import { Notification } from '@/types';
-import { getUnreadNotifications, markNotificationAsRead, markAllNotificationsAsRead } from '@/lib/api';
+import {
+  getUnreadNotifications,
+  getUnreadNotificationCount,
+  markNotificationAsRead,
+  markAllNotificationsAsRead,
+} from '@/lib/api';
 import { useWebSocket } from '@/hooks/useWebSocket';
 
-export default function Header() {
+interface HeaderProps {
+  // Unread count already loaded by the page (e.g. from /api/bootstrap); skips the count request
+  initialUnreadCount?: number;
+}
+
+export default function Header({ initialUnreadCount }: HeaderProps = {}) {
   const { user } = useUser();
   const [notifications, setNotifications] = useState<Notification[]>([]);
-  const [unreadCount, setUnreadCount] = useState(0);
+  const [unreadCount, setUnreadCount] = useState(initialUnreadCount ?? 0);
   const [showNotifications, setShowNotifications] = useState(false);
   const dropdownRef = useRef<HTMLDivElement>(null);
 
@@ -23,9 +33,12 @@ export default function Header() {
 
     const loadNotifications = async () => {
       try {
-        const unread = await getUnreadNotifications(user.id);
+        const [unread, count] = await Promise.all([
+          getUnreadNotifications(user.id),
+          initialUnreadCount ?? getUnreadNotificationCount(user.id),
+        ]);
         setNotifications(unread);
-        setUnreadCount(unread.length);
+        setUnreadCount(count);
       } catch (error) {
         console.error('Error loading notifications:', error);
       }
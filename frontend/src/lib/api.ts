@@ -15,6 +15,39 @@ export const setClerkUserId = (clerkId: string) => {
   api.defaults.headers.common['X-Clerk-User-Id'] = clerkId;
 };
 
+// Bootstrap API
+export interface Bootstrap {
+  user: User;
+  workspaces: Workspace[];
+  workspaceId: number | null;
+  channels: Channel[];
+  channelId: number | null;
+  messages: Message[];
+  conversations: Conversation[];
+  unreadNotificationCount: number;
+}
+
+// Syncs the user and returns everything for the first paint in one round trip;
+// workspaceId/channelId pick the channels and history included (first ones when omitted or unavailable)
+export const bootstrap = async (
+  clerkId: string,
+  displayName: string,
+  email: string,
+  avatarUrl?: string,
+  workspaceId?: number,
+  channelId?: number
+): Promise<Bootstrap> => {
+  const response = await api.post('/api/bootstrap', {
+    clerkId,
+    displayName,
+    email,
+    avatarUrl,
+    workspaceId,
+    channelId,
+  });
+  return response.data;
+};
+
 // Workspace APIs
 export const getWorkspaces = async (clerkId: string): Promise<Workspace[]> => {
   const response = await api.get('/api/workspaces', { params: { clerkId } });
@@ -41,13 +74,35 @@ export const createWorkspace = async (
   return response.data;
 };
 
-export const getWorkspaceMembers = async (workspaceId: number, clerkId: string): Promise<User[]> => {
+// Ordered by user id; pass the last member id received as `after` for the next page
+export const getWorkspaceMembers = async (
+  workspaceId: number,
+  clerkId: string,
+  after?: number,
+  limit = 100
+): Promise<User[]> => {
   const response = await api.get(`/api/workspaces/${workspaceId}/members`, {
-    params: { clerkId },
+    params: { clerkId, after, limit },
   });
   return response.data;
 };
 
+// Every member, one page at a time until a short page comes back (the endpoint caps pages at 500)
+export const getAllWorkspaceMembers = async (
+  workspaceId: number,
+  clerkId: string,
+  pageSize = 500
+): Promise<User[]> => {
+  const members: User[] = [];
+  let after: number | undefined;
+  for (;;) {
+    const page = await getWorkspaceMembers(workspaceId, clerkId, after, pageSize);
+    members.push(...page);
+    if (page.length < pageSize) return members;
+    after = page[page.length - 1].id;
+  }
+};
+
 // Channel APIs
 export const getChannels = async (workspaceId?: number): Promise<Channel[]> => {
   const response = await api.get('/api/channels', {
@@ -129,8 +184,8 @@ export const updateProfile = async (
   return response.data;
 };
 
-export const searchUsers = async (query: string): Promise<User[]> => {
-  const response = await api.get('/api/users/search', { params: { query } });
+export const searchUsers = async (query: string, workspaceId?: number, limit = 20): Promise<User[]> => {
+  const response = await api.get('/api/users/search', { params: { query, workspaceId, limit } });
   return response.data;
 };
 
@@ -161,23 +216,60 @@ export const sendWorkspaceInvitation = async (
   return response.data;
 };
 
+export interface BulkInvitationJob {
+  jobId: string;
+  status: 'QUEUED' | 'RUNNING' | 'COMPLETED' | 'FAILED';
+  workspaceId: number;
+  total: number;
+  processed: number;
+  invited: number;
+  addedAsMembers: number;
+  skipped: number;
+  invalid: number;
+  errors: string[];
+  startedAt: string;
+  finishedAt?: string;
+}
+
+// Invites run in the background; poll getBulkInvitationJob with the returned jobId
+export const sendBulkWorkspaceInvitations = async (
+  workspaceId: number,
+  emails: string[],
+  inviterClerkId: string,
+  role: 'OWNER' | 'ADMIN' | 'MEMBER' = 'MEMBER'
+): Promise<BulkInvitationJob> => {
+  const response = await api.post('/api/invitations/bulk', { workspaceId, emails, inviterClerkId, role });
+  return response.data;
+};
+
+export const getBulkInvitationJob = async (jobId: string): Promise<BulkInvitationJob> => {
+  const response = await api.get(`/api/invitations/bulk/${jobId}`);
+  return response.data;
+};
+
 // Direct Message APIs
 export const getConversations = async (clerkId: string): Promise<Conversation[]> => {
   const response = await api.get('/api/direct-messages/conversations', { params: { clerkId } });
   return response.data;
 };
 
+// Newest first; pass before (or after) a message id to page older (or newer) history
 export const getConversation = async (
   clerkId: string,
   otherUserId: number,
-  limit = 50
+  limit = 50,
+  cursor: { before?: number; after?: number } = {}
 ): Promise<DirectMessage[]> => {
   const response = await api.get(`/api/direct-messages/conversation/${otherUserId}`, {
-    params: { clerkId, limit },
+    params: { clerkId, limit, ...cursor },
   });
   return response.data;
 };
 
+export const markConversationRead = async (clerkId: string, otherUserId: number): Promise<void> => {
+  await api.post(`/api/direct-messages/conversation/${otherUserId}/read`, null, { params: { clerkId } });
+};
+
 export const sendDirectMessage = async (
   senderClerkId: string,
   recipientId: number,
@@ -194,13 +286,18 @@ export const sendDirectMessage = async (
 };
 
 // Notification APIs
-export const getNotifications = async (clerkId: string): Promise<Notification[]> => {
-  const response = await api.get('/api/notifications', { params: { clerkId } });
+// Newest first; pass the last notification id received as `before` for the next page
+export const getNotifications = async (clerkId: string, before?: number, limit = 50): Promise<Notification[]> => {
+  const response = await api.get('/api/notifications', { params: { clerkId, before, limit } });
   return response.data;
 };
 
-export const getUnreadNotifications = async (clerkId: string): Promise<Notification[]> => {
-  const response = await api.get('/api/notifications/unread', { params: { clerkId } });
+export const getUnreadNotifications = async (
+  clerkId: string,
+  before?: number,
+  limit = 50
+): Promise<Notification[]> => {
+  const response = await api.get('/api/notifications/unread', { params: { clerkId, before, limit } });
   return response.data;
 };
 
@@ -228,6 +325,26 @@ export interface AdminUser {
   isBanned: boolean;
   createdAt: string;
   messageCount: number;
+  channelMessageCount: number;
+  directMessageCount: number;
+}
+
+export interface AdminUserPage {
+  content: AdminUser[];
+  page: number;
+  size: number;
+  totalElements: number;
+  totalPages: number;
+}
+
+export interface AdminUserQuery {
+  search?: string;
+  banned?: boolean;
+  admin?: boolean;
+  page?: number;
+  size?: number;
+  sort?: 'messages' | 'directMessages' | 'createdAt' | 'displayName';
+  direction?: 'asc' | 'desc';
 }
 
 export interface SystemStats {
@@ -241,16 +358,24 @@ export interface SystemStats {
 }
 
 export interface LogEntry {
+  sequence?: number;
   timestamp: string;
   level: string;
+  logger?: string;
+  thread?: string;
   message: string;
 }
 
-export const getAllUsers = async (): Promise<AdminUser[]> => {
-  const response = await api.get('/api/admin/users');
+export const getAdminUsers = async (query: AdminUserQuery = {}): Promise<AdminUserPage> => {
+  const response = await api.get('/api/admin/users', { params: query });
   return response.data;
 };
 
+export const getAllUsers = async (): Promise<AdminUser[]> => {
+  const page = await getAdminUsers({ size: 200 });
+  return page.content;
+};
+
 export const getSystemStats = async (): Promise<SystemStats> => {
   const response = await api.get('/api/admin/stats');
   return response.data;
@@ -272,9 +397,31 @@ export const toggleAdminStatus = async (userId: number): Promise<void> => {
   await api.post(`/api/admin/users/${userId}/toggle-admin`);
 };
 
-export const getLogs = async (limit = 100, level = 'INFO'): Promise<{ logs: LogEntry[]; count: number; level: string }> => {
-  const response = await api.get('/api/admin/logs', { params: { limit, level } });
+export interface LogRange {
+  from?: string;
+  to?: string;
+}
+
+// A range (ISO timestamps) searches the log files; otherwise the recent in-memory tail is returned
+export const getLogs = async (
+  limit = 100,
+  level = 'INFO',
+  range: LogRange = {}
+): Promise<{ logs: LogEntry[]; count: number; level: string; source: string }> => {
+  const response = await api.get('/api/admin/logs', { params: { limit, level, ...range } });
   return response.data;
 };
 
+// Follow live logs over server-sent events; returns a function that closes the stream
+export const followLogs = (
+  clerkId: string,
+  level: string,
+  onLog: (entry: LogEntry) => void
+): (() => void) => {
+  const params = new URLSearchParams({ clerkId, level });
+  const source = new EventSource(`${API_URL}/api/admin/logs/stream?${params}`);
+  source.addEventListener('log', (event) => onLog(JSON.parse((event as MessageEvent).data)));
+  return () => source.close();
+};
+
 export default api;